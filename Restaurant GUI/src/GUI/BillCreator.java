@@ -7,6 +7,9 @@ import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import restaurant.BillSummary;
+import restaurant.Receipt;
+import restaurant.TextBillRenderer;
 
 /**
  * The billCreator class. This creates the popup screen for the different bills.
@@ -16,29 +19,31 @@ import javafx.stage.Stage;
 public class BillCreator {
 
     private Server server;
+    private int tableNumber;
+    private TextBillRenderer renderer;
 
-    public BillCreator(Server server) {
+    public BillCreator(Server server, int tableNumber) {
         this.server = server;
+        this.tableNumber = tableNumber;
+        this.renderer = new TextBillRenderer();
     }
 
     /**
      * Creates a popup screen that shows a single bill
      *
-     * @param bill The string representation that will be converted into a popup Screen
+     * @param summary The bill with a single receipt that will be converted into a popup Screen
      * @return The popup screen that displays a single bill
      */
-    public Stage singleBillStage(String bill) {
+    public Stage singleBillStage(BillSummary summary) {
         //Basic stage properties
         Stage singleBillPopUp = new Stage();
         singleBillPopUp.initModality(Modality.APPLICATION_MODAL);
         singleBillPopUp.setTitle("Bill");
         //Get the panel for the single bill
-        VBox overallLayout = getBillPanel(bill);
+        VBox overallLayout = getBillPanel(summary.getReceipts().get(0));
         //Payment Button
         Button paymentButton = new Button("Confirm Payment");
-        String[] bills = new String[1];
-        bills[0] = bill;
-        paymentButton.setOnAction(e -> server.billPayment(singleBillPopUp, bills));
+        paymentButton.setOnAction(e -> server.billPayment(singleBillPopUp, tableNumber, summary));
         VBox.setMargin(paymentButton, new Insets(25, 0, 0, 150));
         overallLayout.getChildren().add(paymentButton);
         //Set up and show the stage
@@ -52,10 +57,10 @@ public class BillCreator {
     /**
      * Creates a popup screen that shows multiple bills on multiple tabs which you can click through
      *
-     * @param bills A array of string representations of bills
+     * @param summary The bill with the receipts that will each be shown on a tab
      * @return The popup screen with multiple bills separated by tabs
      */
-    public Stage multipleBillStage(String[] bills) {
+    public Stage multipleBillStage(BillSummary summary) {
         Stage multipleBillPopUp = new Stage();
         multipleBillPopUp.initModality(Modality.APPLICATION_MODAL);
         multipleBillPopUp.setTitle("Bills");
@@ -63,17 +68,17 @@ public class BillCreator {
         VBox overallLayout = new VBox();
         //Bill tabs
         TabPane billTabs = new TabPane();
-        //Make a tab for each bill in the array of bills
+        //Make a tab for each receipt in the bill
         int billNumber = 0;
-        for (String bill : bills) {
+        for (Receipt receipt : summary.getReceipts()) {
             Tab currentTab = new Tab("Bill " + ++billNumber);
-            VBox billOverallLayout = getBillPanel(bill);
+            VBox billOverallLayout = getBillPanel(receipt);
             currentTab.setContent(billOverallLayout);
             billTabs.getTabs().add(currentTab);
         }
         //Payment button
         Button paymentButton = new Button("Confirm Payment");
-        paymentButton.setOnAction(e -> server.billPayment(multipleBillPopUp, bills));
+        paymentButton.setOnAction(e -> server.billPayment(multipleBillPopUp, tableNumber, summary));
         VBox.setMargin(paymentButton, new Insets(17, 0, 0, 150));
         // Set up stage and show it
         overallLayout.getChildren().addAll(billTabs, paymentButton);
@@ -87,16 +92,16 @@ public class BillCreator {
     /**
      * Get a bill panel which displays most of the information of the bill
      *
-     * @param bill The string representation of the bill
+     * @param receipt The receipt shown on the panel
      * @return The bill panel
      */
-    private VBox getBillPanel(String bill) {
+    private VBox getBillPanel(Receipt receipt) {
         VBox overallLayout = new VBox();
         //For the scroll box
         ScrollPane ingredientScrollPanel = new ScrollPane();
         VBox billBox = new VBox();
         billBox.setSpacing(3);
-        for (String line : bill.split("\n")) {
+        for (String line : renderer.renderLines(receipt)) {
             //A single line of the bill
             Label lineLabel = new Label(line);
             lineLabel.getStyleClass().add("billLabel");
@@ -7,6 +7,7 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import restaurant.BillSplitter;
 import restaurant.Table;
 
 import java.util.ArrayList;
@@ -78,7 +79,7 @@ public class BillController {
      * @param stageToClose The staget oclose after opening this popup
      */
     private void oneBill(Stage stageToClose) {
-        existingBill = table.getServer().getBillPopUp(getFullDishArray());
+        existingBill = table.getServer().getBillPopUp(table.getTableNumber(), getFullDishArray());
         stageToClose.close();
         adjustPanel();
         existingBill.show();
@@ -90,7 +91,8 @@ public class BillController {
      * @param stageToClose The stage to close upon opening this new popup
      */
     private void evenSplitBill(Stage stageToClose) {
-        existingBill = table.getServer().getBillPopUp(getFullDishArray(), table.getNumberOfOccupants());
+        existingBill = table.getServer().getBillPopUp(table.getTableNumber(), getFullDishArray(),
+                table.getNumberOfOccupants());
         stageToClose.close();
         adjustPanel();
         existingBill.show();
@@ -104,14 +106,14 @@ public class BillController {
     private ArrayList<ArrayList<Recipe>> getFullDishArray() {
         ArrayList<ArrayList<Recipe>> finalArrayList = new ArrayList<>();
         ArrayList<Recipe> dishes = table.getOrder().getDishes();
-        ArrayList<Recipe> dishesCopy = new ArrayList<>(dishes);
-        for (Recipe dish : dishesCopy) {
+        for (Recipe dish : table.getOrder().getDishes()) {
             if (dish.getStatus().equals("cancelled") || dish.getStatus().equals("unconfirmed")) {
                 if (dish.getStatus().equals("unconfirmed")) {
                     IndividualDishController dishController = dishControllerMap.get(dish);
                     dishController.revertToName();
                 }
                 dishes.remove(dish);
+                table.getOrder().removeDish(dish);
             }
         }
         finalArrayList.add(dishes);
@@ -204,7 +206,7 @@ public class BillController {
         //Initialize buttons
         addBillButton.setOnAction(e -> addNewBill(billPane, tabBillArrayMap, tabListMap, finalBillArray));
         cancelButton.setOnAction(e -> customBill.close());
-        confirmButton.setOnAction(e -> confirm(customBill, dishAdded, finalBillArray));
+        confirmButton.setOnAction(e -> confirm(customBill, dishArray, finalBillArray));
 
         //Make tab pane look better
         billPane.setTabMinWidth(80);
@@ -296,24 +298,49 @@ public class BillController {
     }
 
     /**
-     * Confirms this bill
+     * Confirms this bill. Each bill tab is one customer, and a dish added to several tabs is split evenly between
+     * those customers.
+     *
+     * @param stageToClose The custom bill stage
+     * @param dishArray    The confirmed dishes, each one is a line of the split
+     * @param allDishes    The dishes added to each bill tab
      */
-    private void confirm(Stage stageToClose, int[] dishAdded, ArrayList<ArrayList<Recipe>> allDishes) {
-        for (int dishNum : dishAdded) {
-            if (dishNum == 0) {
-                Alert alert = new Alert(Alert.AlertType.ERROR);
-                alert.setContentText("SOME DISHES ARE STILL NOT ADDED");
-                alert.show();
-                return;
+    private void confirm(Stage stageToClose, ArrayList<Recipe> dishArray, ArrayList<ArrayList<Recipe>> allDishes) {
+        BillSplitter splitter = new BillSplitter(dishArray, allDishes.size());
+        for (int customer = 0; customer < allDishes.size(); customer++) {
+            for (Recipe dish : allDishes.get(customer)) {
+                splitter.assign(lineOf(dishArray, dish), customer, 1);
             }
         }
+        if (!splitter.isFullyAssigned()) {
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setContentText("SOME DISHES ARE STILL NOT ADDED");
+            alert.show();
+            return;
+        }
         stageToClose.close();
         getFullDishArray();
         adjustPanel();
-        existingBill = table.getServer().getBillPopUp(allDishes);
+        existingBill = table.getServer().getBillPopUp(table.getTableNumber(), splitter, allDishes.size());
         existingBill.show();
     }
 
+    /**
+     * Returns the line of a dish, which is its position in the dish array
+     *
+     * @param dishArray The confirmed dishes
+     * @param dish      The dish to find
+     * @return The position of this exact dish, even if another dish has the same name
+     */
+    private int lineOf(ArrayList<Recipe> dishArray, Recipe dish) {
+        for (int line = 0; line < dishArray.size(); line++) {
+            if (dishArray.get(line) == dish) {
+                return line;
+            }
+        }
+        return -1;
+    }
+
 
     /**
      * Pops up the bill if it is already created
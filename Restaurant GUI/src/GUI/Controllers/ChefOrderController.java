@@ -7,7 +7,7 @@ import dishes.DishInterpreter;
 import dishes.Food;
 import dishes.Recipe;
 import employees.Chef;
-import employees.Employee;
+import employees.EmployeeDirectory;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.layout.HBox;
@@ -23,7 +23,7 @@ import java.util.ArrayList;
  */
 public class ChefOrderController {
     private Order order;
-    private ArrayList<Employee> employees;
+    private EmployeeDirectory employees;
     private Button orderButton;
 
     /**
@@ -33,7 +33,7 @@ public class ChefOrderController {
      * @param employees   the list of employees working in the restaurant.
      * @param orderButton the button used to get to the ChefOrderScreen.
      */
-    ChefOrderController(Order order, ArrayList<Employee> employees, Button orderButton) {
+    ChefOrderController(Order order, EmployeeDirectory employees, Button orderButton) {
         this.order = order;
         this.employees = employees;
         this.orderButton = orderButton;
@@ -116,34 +116,33 @@ public class ChefOrderController {
         if (chefId.length() == 0) {
             return "Please enter an ID.";
         }
-        for (Employee chef : employees) {
-            if (chef instanceof Chef && chef.getJobId() == Integer.valueOf(chefId)) {
-                if (!((Chef) chef).acknowledgeOrder(order)) {
-                    return "A previous order needs to be acknowledged before this one.";
-                }
-                return null;
-            }
+        Chef chef = employees.getChef(Integer.valueOf(chefId));
+        if (chef == null) {
+            return "Chef not found.";
+        }
+        if (!chef.acknowledgeOrder(order)) {
+            return "A previous order needs to be acknowledged before this one.";
         }
-        return "Chef not found.";
+        return null;
     }
 
     /**
      * Used to find a valid to cook the order.
      *
-     * @param chefId the id of the chef entered into the system.
-     * @param dish   the dish that is being prepared.
+     * @param chefId  the id of the chef entered into the system.
+     * @param dish    the dish that is being prepared.
+     * @param version the version stamp of the dish when the chef opened it.
      * @return returns a String which tells whether a proper chef was found to prepare the dish.
      */
-    public String findChef(String chefId, Recipe dish) {
+    public String findChef(String chefId, Recipe dish, long version) {
         if (chefId.length() == 0) {
             return "Please enter an ID.";
         }
-        for (Employee chef : employees) {
-            if (chef instanceof Chef && chef.getJobId() == Integer.valueOf(chefId)) {
-                return ((Chef) chef).foodCooked(order, dish);
-            }
+        Chef chef = employees.getChef(Integer.valueOf(chefId));
+        if (chef == null) {
+            return "Chef not found.";
         }
-        return "Chef not found.";
+        return chef.foodCooked(order, dish, version);
     }
 
     /**
@@ -176,8 +175,9 @@ public class ChefOrderController {
      */
     public void updateChefOrderScreen(ChefOrderScreen chefOrderScreen) {
         for (Recipe dish : order.getDishes()) {
+            long version = dish.getVersion();
             if (dish.getStatus().equals("waiting") && order.getAcknowledge()) {
-                dish.setStatus("acknowledged");
+                dish.setStatus("acknowledged", version);
                 dish.getDishButton().getStyleClass().add("acknowledged");
                 dish.getDishButton().setText("Cooked");
                 dish.getDishButton().setOnAction(e -> chefOrderScreen.popUpChef(dish));
@@ -0,0 +1,82 @@
+package GUI.Controllers;
+
+import dishes.DishInterpreter;
+import restaurant.KitchenStats;
+import restaurant.PaymentLedger;
+import restaurant.RevenueTotals;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public class DashboardController {
+    private static final int SHORT_WINDOW = 5; //Minutes that the live rates are averaged over
+    private static final int LONG_WINDOW = 60; //Minutes that the hourly rates are averaged over
+    private static final int BURN_RATES_SHOWN = 10;
+    private KitchenStats stats;
+    private PaymentLedger payments;
+
+    /**
+     * initializes a new instance of DashboardController
+     * @param stats the live statistics of the kitchen
+     * @param payments the ledger where the bills paid are recorded
+     */
+    public DashboardController(KitchenStats stats, PaymentLedger payments){
+        this.stats = stats;
+        this.payments = payments;
+    }
+
+    /**
+     * Returns the kitchen's throughput, backlog, oldest waiting ticket, fastest used ingredients and today's food
+     * cost, laid out in columns for the dashboard.
+     *
+     * @return The dashboard text
+     */
+    public String getDashboard(){
+        long now = System.currentTimeMillis();
+        StringBuilder dashboard = new StringBuilder(500);
+        dashboard.append(row("", "Last " + SHORT_WINDOW + " min", "Last " + LONG_WINDOW + " min"));
+        dashboard.append(row("Tickets per minute",
+                rate(stats.getTicketsPerMinute(SHORT_WINDOW, now)),
+                rate(stats.getTicketsPerMinute(LONG_WINDOW, now))));
+        dashboard.append(row("Dishes cooked per minute",
+                rate(stats.getDishesCookedPerMinute(SHORT_WINDOW, now)),
+                rate(stats.getDishesCookedPerMinute(LONG_WINDOW, now))));
+        dashboard.append("\n");
+
+        dashboard.append("Backlog\n");
+        for (Map.Entry<String, Integer> status : stats.getBacklog().entrySet()) {
+            dashboard.append(row("  " + status.getKey(), String.valueOf(status.getValue()), ""));
+        }
+        long oldestWaiting = stats.getOldestWaitingMillis(now) / 1000;
+        dashboard.append(row("Oldest waiting ticket",
+                String.format("%d:%02d", oldestWaiting / 60, oldestWaiting % 60), ""));
+        dashboard.append("\n");
+
+        RevenueTotals today = payments.getDailyTotals(LocalDate.now());
+        dashboard.append(row("Food cost today", String.format("%.1f%%", today.getFoodCostPercent()),
+                "$" + today.getFoodCost() + " of $" + today.getSubtotal()));
+        dashboard.append("\n");
+
+        dashboard.append("Ingredients used per minute (last ").append(SHORT_WINDOW).append(" min)\n");
+        List<Map.Entry<String, Double>> burnRates = stats.getBurnRates(SHORT_WINDOW, now);
+        if (burnRates.isEmpty()) {
+            dashboard.append("  None\n");
+        }
+        for (int i = 0; i < burnRates.size() && i < BURN_RATES_SHOWN; i++) {
+            dashboard.append(row("  " + burnRates.get(i).getKey(), rate(burnRates.get(i).getValue()), ""));
+        }
+        return dashboard.toString();
+    }
+
+    //returns a row of the dashboard with a label and two columns.
+    private String row(String label, String first, String second){
+        return label + DishInterpreter.charExtender(" ", 30 - label.length()) + first
+                + DishInterpreter.charExtender(" ", 15 - first.length()) + second + "\n";
+    }
+
+    //returns a rate rounded to two decimal places.
+    private String rate(double rate){
+        return String.format("%.2f", rate);
+    }
+}
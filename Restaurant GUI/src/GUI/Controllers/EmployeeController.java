@@ -2,46 +2,46 @@ package GUI.Controllers;
 
 import employees.Chef;
 import employees.Employee;
+import employees.EmployeeDirectory;
+import employees.EmployeeRoster;
 import employees.Manager;
 import employees.Server;
 import javafx.scene.control.Label;
+import restaurant.DishHistory;
 import restaurant.Inventory;
-import restaurant.Order;
-
-import java.io.*;
-import java.util.ArrayList;
-import java.util.Collections;
+import restaurant.KitchenQueue;
+import restaurant.PaymentLedger;
 
 /**
  * Takes care of methods calls made from employeeScreen.
  * @author Thomas Leung
  */
 public class EmployeeController {
-    private ArrayList<Employee> employees;
-    private ArrayList<Integer> oldServerId;
-    private ArrayList<Integer> oldManagerId;
-    private ArrayList<Integer> oldChefId;
-    private ArrayList<Order> restaurantOrders;
+    private EmployeeDirectory employees;
+    private KitchenQueue restaurantOrders;
 
     private Inventory inventory;
-    private EmployeeWriter writer;
+    private EmployeeRoster roster;
+    private PaymentLedger payments;
+    private DishHistory history;
 
     /**
      * Used to manipulate data related to employees.
      * @param employees a list of the current hired employees
+     * @param roster the record of hired and fired employees.
      * @param inventory the inventory that is within the restaurant.
+     * @param payments the ledger where the bills paid to servers are recorded.
+     * @param history the history where the dishes sold by servers are recorded.
      */
-    public EmployeeController(ArrayList<Employee> employees, Inventory inventory, ArrayList<Order> restaurantOrders){
+    public EmployeeController(EmployeeDirectory employees, EmployeeRoster roster, Inventory inventory,
+                              KitchenQueue restaurantOrders, PaymentLedger payments, DishHistory history){
         this.employees = employees;
-        oldServerId = new ArrayList<>();
-        oldManagerId = new ArrayList<>();
-        oldChefId = new ArrayList<>();
-
-        writer = new EmployeeWriter();
+        this.roster = roster;
+        this.payments = payments;
+        this.history = history;
 
         this.inventory = inventory;
         this.restaurantOrders = restaurantOrders;
-        getFiredIds();
     }
 
     /**
@@ -51,65 +51,44 @@ public class EmployeeController {
      * @param employeeType the type of employee that is being hired.
      */
     public void hire(Label message, String employeeType){
+        Employee newEmployee;
+        //the directory hands out the smallest free id, which reuses the ids of fired employees first.
         switch (employeeType) {
             case "manager":
-                if (oldManagerId.size() != 0) {
-                    employees.add(new Manager(inventory, oldManagerId.get(0)));
-                    oldManagerId.remove(0);
-                    //change the FireIds.txt to remove the old employee from the list.
-                    writer.reWriteFile((employees.get(employees.size() - 1)).toString(), "FiredIds.txt");
-                } else {
-                    employees.add(new Manager(inventory));
-                }
+                newEmployee = new Manager(inventory, employees.allocateId("Manager"));
                 break;
             case "chef":
-                if (oldServerId.size() != 0) {
-                    employees.add(new Chef(oldChefId.get(0), restaurantOrders));
-                    oldChefId.remove(0);
-                    //change the FireIds.txt to remove the old employee from the list.
-                    writer.reWriteFile((employees.get(employees.size() - 1)).toString(), "FiredIds.txt");
-                } else {
-                    employees.add(new Chef(restaurantOrders));
-                }
+                newEmployee = new Chef(employees.allocateId("Chef"), restaurantOrders);
                 break;
             case "server":
-                if (oldServerId.size() != 0) {
-                    employees.add(new Server(oldServerId.get(0)));
-                    oldServerId.remove(0);
-                    //change the FireIds.txt to remove the old employee from the list.
-                    writer.reWriteFile((employees.get(employees.size() - 1)).toString(), "FiredIds.txt");
-                } else {
-                    employees.add(new Server());
-                }
+                newEmployee = new Server(employees.allocateId("Server"), payments, history);
                 break;
             default:
                 return;
         }
-        // set the message on the screen to confirm successful hiring and write into the Employees.txt
-        message.setText("Finished hiring " + employees.get(employees.size() - 1).toString());
-        writer.writeToEmployees((employees.get(employees.size() - 1)).toString());
+        if (!employees.hire(newEmployee)) {
+            employees.releaseId(newEmployee.toString());
+            message.setText(newEmployee.toString() + " is already working");
+            return;
+        }
+        // record the hire in the roster, which also takes a reused id off the fired list. If it could not be
+        // saved, the employee is fired again so the restaurant does not have someone the roster has never heard of.
+        if (roster.hire(newEmployee.toString())) {
+            message.setText("Finished hiring " + newEmployee.toString());
+        } else {
+            employees.fire(newEmployee);
+            message.setText("Could not hire " + newEmployee.toString() + ", the roster could not be saved");
+        }
     }
 
     /**
      * fire an employee and remove them from the restaurant data base.
      */
     public void fire(Employee employee){
-        employees.remove(employee);
-        if (employee instanceof Chef) {
-            oldChefId.add(employee.getJobId());
-            Collections.sort(oldChefId);
-        } else if (employee instanceof Server) {
-            oldServerId.add(employee.getJobId());
-            Collections.sort(oldServerId);
-        } else if (employee instanceof Manager) {
-            oldManagerId.add(employee.getJobId());
-            Collections.sort(oldManagerId);
+        //firing through the directory frees up the employee's id to be reused.
+        if (employees.fire(employee) && !roster.fire(employee.toString())) {
+            System.err.println("Fired " + employee.toString() + ", but it could not be saved");
         }
-        else{
-            return;
-        }
-        writer.writeToFired(employee.toString());
-        writer.reWriteFile(employee.toString(), "Employees.txt");
     }
 
     /**
@@ -118,12 +97,7 @@ public class EmployeeController {
      * @return return the employee if found.
      */
     public Employee findEmployee(String employeeId){
-        for(Employee employee: employees){
-            if(employee.toString().equals(employeeId)){
-                return employee;
-            }
-        }
-        return null;
+        return employees.getEmployee(employeeId);
     }
 
     //return a string representation of all employees in the database.
@@ -131,59 +105,13 @@ public class EmployeeController {
     public String toString(){
         //print out the employee's id.
         StringBuilder messageBuild = new StringBuilder(200);
-        for(Employee employee: employees){
+        for(Employee employee: employees.getEmployees()){
             messageBuild.append(employee.toString());
             messageBuild.append("\n");
         }
         return messageBuild.toString();
     }
 
-    /**
-     * Get the id values of the previously fired employees.
-     */
-    private void getFiredIds(){
-        String id;
-        // these value are used to set the static values of number of employees in each type of employee class in case
-        // a fired employee Id is greater than the current number of employees to prevent inconsistencies in employee ids
-        int biggestServerId = 0;
-        int biggestManagerId = 0;
-        int biggestChefId = 0;
-        try{
-            FileReader readFile = new FileReader("FiredIds.txt");
-            BufferedReader read = new BufferedReader(readFile);
-
-            while((id = read.readLine()) != null){
-                String[] separate = id.split("_");
-                if(id.contains("Chef")){
-                    oldChefId.add(Integer.valueOf(separate[1]));
-                    if(Integer.valueOf(separate[1]) > biggestChefId){ biggestChefId = Integer.valueOf(separate[1]);}
-                }
-                else if(id.contains("Server")){
-                    oldServerId.add(Integer.valueOf(separate[1]));
-                    if(Integer.valueOf(separate[1]) > biggestServerId) {biggestServerId = Integer.valueOf(separate[1]);}
-                }
-                else if(id.contains("Manager")){
-                    oldManagerId.add(Integer.valueOf(separate[1]));
-                    if(Integer.valueOf(separate[1]) > biggestManagerId) {biggestManagerId = Integer.valueOf(separate[1]);}
-                }
-            }
-            read.close();
-        }
-        catch(Exception e){
-            System.err.println("Problem working with file.");
-        }
-        // Sort the list of employee ids from least to greatest
-        Collections.sort(oldChefId);
-        Collections.sort(oldServerId);
-        Collections.sort(oldManagerId);
-
-        //checks to see if a fired employee id is greater than the current number of employees. If so, set a new
-        //number of employees value.
-        if(biggestManagerId > Manager.getNumOfManagers()){Manager.setNumOfManagers(biggestManagerId);}
-        if(biggestServerId > Server.getNumOfServers()){Server.setNumOfServers(biggestServerId);}
-        if (biggestChefId > Chef.getNumOfChefs()) {Chef.setNumOfChefs(biggestChefId);}
-    }
-
     /**
      * Changes the receiver status of an employee to true
      * @param employee the employee whose receiver status will be changed.
@@ -3,6 +3,7 @@ package GUI.Controllers;
 import dishes.Combo;
 import dishes.Food;
 import dishes.Recipe;
+import employees.AccommodationException;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
@@ -26,6 +27,7 @@ public class IndividualDishController {
     private Recipe dish;
     private Table table;
     private VBox orderPanel;
+    private long seenVersion; //The version stamp of the dish when this screen last showed it
 
     /**
      * Create an individual dish controller
@@ -39,18 +41,36 @@ public class IndividualDishController {
         this.dishLine = dishLine;
         this.dish = dish;
         this.table = table;
+        seenVersion = dish.getVersion();
     }
 
     /**
-     * Removes a dish from an order
+     * Removes a dish from an order, unless someone else has changed it since this screen last showed it
      *
      * @param orderPanel The order panel of the dish
      */
     public void cancelDish(VBox orderPanel) {
-        table.getServer().removeFromOrder(table.getOrder(), dish);
+        String conflict = table.getServer().removeFromOrder(table.getOrder(), dish, seenVersion);
+        if (conflict != null) {
+            showConflict(conflict);
+            return;
+        }
         orderPanel.getChildren().remove(dishLine);
     }
 
+    /**
+     * Tells the server that someone else changed the dish first, and shows the dish as it is now
+     *
+     * @param conflict What happened to the dish
+     */
+    private void showConflict(String conflict) {
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setContentText(conflict);
+        alert.show();
+        seenVersion = dish.getVersion();
+        updateDishGUI();
+    }
+
     /**
      * Makes the Hbox a special state where the server must close out of the cancelled order
      */
@@ -75,7 +95,7 @@ public class IndividualDishController {
         foodIngredientPopup.initModality(Modality.APPLICATION_MODAL);
         foodIngredientPopup.setTitle("Set Ingredients");
         //Get the panel for the food and its ingredients
-        VBox overallLayout = getFoodIngredientPanel((Food) dish);
+        VBox overallLayout = getFoodIngredientPanel((Food) dish, 0);
         //Button to exit
         Button exitButton = new Button("Exit");
         exitButton.setOnAction(e -> foodIngredientPopup.close());
@@ -104,9 +124,9 @@ public class IndividualDishController {
         TabPane foodTabs = new TabPane();
         //Make a tab for each food in the combo
         String[] comboFoods = ((Combo) dish).getFoods();
-        for (String food : comboFoods) {
-            Tab currentTab = new Tab(food);
-            VBox foodOverallLayout = getFoodIngredientPanel((Food) menu.getDefaultDish(food));
+        for (int i = 0; i < comboFoods.length; i++) {
+            Tab currentTab = new Tab(comboFoods[i]);
+            VBox foodOverallLayout = getFoodIngredientPanel((Food) menu.getDefaultDish(comboFoods[i]), i);
             currentTab.setContent(foodOverallLayout);
             foodTabs.getTabs().add(currentTab);
         }
@@ -126,10 +146,11 @@ public class IndividualDishController {
     /**
      * Get a food ingredient panel given a food
      *
-     * @param food The relevant food
+     * @param food     The relevant food
+     * @param position The position of the food in the combo, or 0 if it is not in a combo
      * @return The food ingredient panel
      */
-    private VBox getFoodIngredientPanel(Food food) {
+    private VBox getFoodIngredientPanel(Food food, int position) {
         VBox overallLayout = new VBox();
         //Current ingredients
         HashMap<String, Integer> ingredientsMap = food.getIngredients();
@@ -159,19 +180,19 @@ public class IndividualDishController {
             Button addButton = new Button("+");
             addButton.setMinWidth(50);
             addButton.getStyleClass().add("plus");
-            addButton.setOnAction(e -> changeCurrentIngredient(food.getName(), ingredient,
+            addButton.setOnAction(e -> changeCurrentIngredient(position, ingredient,
                     ingredientQuantity, 1));
             //Subtract Button
             Button subtractButton = new Button("-");
             subtractButton.setMinWidth(50);
             subtractButton.getStyleClass().add("minus");
-            subtractButton.setOnAction(e -> changeCurrentIngredient(food.getName(), ingredient,
+            subtractButton.setOnAction(e -> changeCurrentIngredient(position, ingredient,
                     ingredientQuantity, -1));
             //Remove Button
             Button removeButton = new Button("X");
             removeButton.setMinWidth(50);
             removeButton.getStyleClass().add("cancel");
-            removeButton.setOnAction(e -> removeCurrentIngredient(food.getName(), ingredient,
+            removeButton.setOnAction(e -> removeCurrentIngredient(position, ingredient,
                     ingredientQuantity));
             //Add everything to horizontal line
             singleIngredientLine.getChildren().addAll(ingredientLabel, ingredientQuantity,
@@ -189,20 +210,25 @@ public class IndividualDishController {
     /**
      * Changes a certain ingredient
      *
-     * @param foodName     The food name to set ingredients
+     * @param food         The position of the food in the combo to set ingredients, or 0 if it is not a combo
      * @param ingredient   The ingredient to be changed
      * @param quantityLine The line which refers to the quantity
      * @param quantity     The quantity to change, positive for addition, negative for subtraction
      */
-    private void changeCurrentIngredient(String foodName, String ingredient, Label quantityLine, int quantity) {
+    private void changeCurrentIngredient(int food, String ingredient, Label quantityLine, int quantity) {
         int oldQuantity = Integer.parseInt(quantityLine.getText());
         if (oldQuantity + quantity >= 0) {
             try {
-                table.getServer().makeAccommodation(dish, foodName, ingredient, quantity);
+                seenVersion = table.getServer().makeAccommodation(dish, seenVersion, food, ingredient,
+                        quantity);
                 quantityLine.setText(Integer.toString(oldQuantity + quantity));
-            } catch (Exception e) {
+            } catch (AccommodationException e) {
+                if (e.isConflict()) {
+                    showConflict(e.getMessage());
+                    return;
+                }
                 Alert alert = new Alert(Alert.AlertType.ERROR);
-                alert.setContentText("NOT ENOUGH INGREDIENTS");
+                alert.setContentText(e.getMessage());
                 alert.show();
             }
         }
@@ -211,20 +237,22 @@ public class IndividualDishController {
     /**
      * Removes a certain ingredient
      *
-     * @param foodName     The food name to set ingredients
+     * @param food         The position of the food in the combo to set ingredients, or 0 if it is not a combo
      * @param ingredient   The ingredient to be changed
      * @param quantityLine The line which refers to the quantity
      */
-    private void removeCurrentIngredient(String foodName, String ingredient, Label quantityLine) {
+    private void removeCurrentIngredient(int food, String ingredient, Label quantityLine) {
         int oldQuantity = Integer.parseInt(quantityLine.getText());
-        changeCurrentIngredient(foodName, ingredient, quantityLine, -1 * oldQuantity);
+        changeCurrentIngredient(food, ingredient, quantityLine, -1 * oldQuantity);
     }
 
     /**
      * Updates the GUI based on dish statuses
      */
     public void updateDishGUI() {
+        long version = dish.getVersion();
         if (dish.getStatus().equals("prepared")) {
+            seenVersion = version;
             dishLine.getChildren().get(1).setDisable(false);
         }
     }
@@ -241,13 +269,19 @@ public class IndividualDishController {
         deliverButton.setOnAction(e -> deliver());
         deliverButton.setDisable(true);
         dishLine.getChildren().add(1, deliverButton);
+        seenVersion = dish.getVersion();
     }
 
     /**
      * Confirms delivery of the dish related to this controller
      */
     private void deliver() {
-        table.getServer().foodDelivered(table.getOrder(), dish);
+        String conflict = table.getServer().foodDelivered(table.getOrder(), dish, seenVersion);
+        if (conflict != null) {
+            showConflict(conflict);
+            return;
+        }
+        seenVersion = dish.getVersion();
         dishLine.getChildren().remove(1, dishLine.getChildren().size());
         Button complaintButton = new Button("File Complaint");
         complaintButton.getStyleClass().add("minus");
@@ -301,7 +335,18 @@ public class IndividualDishController {
      * @param stageToClose The stage to close at the end of this method
      */
     private void confirmComplaint(String complaint, Stage stageToClose) {
-        table.getServer().complaint(table.getOrder(), complaint, dish);
+        String problem = table.getServer().complaint(table.getOrder(), complaint, dish, seenVersion);
+        stageToClose.close();
+        if (problem != null) {
+            Alert alert = new Alert(Alert.AlertType.WARNING);
+            alert.setContentText(problem);
+            alert.show();
+            seenVersion = dish.getVersion();
+            if (dish.getStatus().equals("cancelled")) {
+                attemptUnexpectedCancellation();
+            }
+            return;
+        }
         //Create a deliver button, currently greyed out
         Button deliverButton = new Button("Deliver");
         deliverButton.setMinWidth(200);
@@ -310,7 +355,7 @@ public class IndividualDishController {
         deliverButton.setDisable(true);
         dishLine.getChildren().remove(1);
         dishLine.getChildren().add(1, deliverButton);
-        stageToClose.close();
+        seenVersion = dish.getVersion();
     }
 
     /**
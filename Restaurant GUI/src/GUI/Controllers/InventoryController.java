@@ -1,23 +1,22 @@
 package GUI.Controllers;
 
 import employees.Employee;
+import employees.EmployeeDirectory;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.text.Text;
 import restaurant.Inventory;
 
-import java.util.ArrayList;
-
 public class InventoryController {
     private Inventory inventory;
-    private ArrayList<Employee> employees;
+    private EmployeeDirectory employees;
 
     /**
      * initializes a new instance of InventoryController
      * @param inventory the inventory within the restaurant
      * @param employees the employees working in the restaurant
      */
-    public InventoryController(Inventory inventory, ArrayList<Employee> employees){
+    public InventoryController(Inventory inventory, EmployeeDirectory employees){
         this.inventory = inventory;
         this.employees = employees;
     }
@@ -36,7 +35,7 @@ public class InventoryController {
     public void request(TextField ingredient, TextField quantity, Label message){
         //Checks to see if text boxes are filled
         if(textFilled(ingredient, quantity)) {
-            //Checks to see if the input was accepted and was added to the Requests.txt
+            //Checks to see if the input was accepted and was added to the purchase orders
             if (inventory.manualRequest(ingredient.getText(), Integer.valueOf(quantity.getText()))) {
                 message.setText("Successfully added " + quantity.getText() + " " +
                         ingredient.getText() + " to the requests.");
@@ -94,11 +93,7 @@ public class InventoryController {
     }
 
     public boolean findEmployee(String employeeId){
-        for(Employee employee: employees){
-            if(employee.toString().equals(employeeId)){
-                return employee.getReceiver();
-            }
-        }
-        return false;
+        Employee employee = employees.getEmployee(employeeId);
+        return employee != null && employee.getReceiver();
     }
 }
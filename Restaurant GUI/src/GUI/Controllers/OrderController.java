@@ -2,19 +2,18 @@ package GUI.Controllers;
 
 import GUI.LayoutFactory;
 import GUI.Screen.ChefOrderScreen;
-import employees.Employee;
+import employees.EmployeeDirectory;
 import javafx.scene.control.Button;
 import javafx.scene.layout.GridPane;
 import javafx.stage.Stage;
+import restaurant.KitchenQueue;
 import restaurant.Order;
 
-import java.util.ArrayList;
-
 public class OrderController {
-    private ArrayList<Order> orders;
+    private KitchenQueue orders;
     private Stage stage;
-    private ArrayList<Employee> employees;
-    public OrderController(Stage stage, ArrayList<Order> orders, ArrayList<Employee> employees){
+    private EmployeeDirectory employees;
+    public OrderController(Stage stage, KitchenQueue orders, EmployeeDirectory employees){
         this.orders = orders;
         this.stage = stage;
         this.employees = employees;
@@ -45,16 +44,11 @@ public class OrderController {
      * Checks if there are orders that are finished, if so, it will remove those orders
      */
     public void updateOrders(){
-        for (Order order : orders){
-            if (order.getDishes().size() == order.getStatusDishes("delivered").size()
-                    + order.getStatusDishes("cancelled").size()){
-                orders.remove(order);
-            }
-        }
+        orders.removeIf(Order::isFinished);
     }
 
     // get the layout of the screen.
     public GridPane getOrderLayout(){
-        return LayoutFactory.getOrderLayout(orders);
+        return LayoutFactory.getOrderLayout(orders.snapshot());
     }
 }
@@ -10,19 +10,24 @@ public class SwitchController {
     private OrderScreen orderScreen;
     private TableScreen tableScreen;
     private EmployeeScreen employeeScreen;
+    private DashboardScreen dashboardScreen;
 
     /**
      * Creates the main controller (for main screen, basically switches screens)
      * @param inventoryScreen   The inventory screen
      * @param orderScreen   The order screen
      * @param tableScreen   The table screen
+     * @param employeeScreen   The employee screen
+     * @param dashboardScreen   The kitchen dashboard screen
      */
     public SwitchController(InventoryScreen inventoryScreen, OrderScreen orderScreen,
-                          TableScreen tableScreen, EmployeeScreen employeeScreen){
+                          TableScreen tableScreen, EmployeeScreen employeeScreen,
+                          DashboardScreen dashboardScreen){
         this.inventoryScreen = inventoryScreen;
         this.orderScreen = orderScreen;
         this.tableScreen = tableScreen;
         this.employeeScreen = employeeScreen;
+        this.dashboardScreen = dashboardScreen;
     }
 
     /**
@@ -52,4 +57,11 @@ public class SwitchController {
     public void goToEmployee(){
         employeeScreen.show();
     }
+
+    /**
+     * Go to kitchen dashboard screen
+     */
+    public void goToDashboard(){
+        dashboardScreen.show();
+    }
 }
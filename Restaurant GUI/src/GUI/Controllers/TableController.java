@@ -2,12 +2,17 @@ package GUI.Controllers;
 
 import GUI.LayoutFactory;
 import GUI.Screen.TableOrderScreen;
+import javafx.application.Platform;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import restaurant.Notification;
+import restaurant.NotificationBus;
 import restaurant.Restaurant;
 import restaurant.Table;
 
+import java.util.function.Consumer;
+
 public class TableController {
     private Table[] tables;
     private TableOrderScreen[] tableOrderScreens;
@@ -101,4 +106,21 @@ public class TableController {
             tableOrderScreen.update();
         }
     }
+
+    /**
+     * Listens for what the kitchen does to the dishes of every table. When a dish is prepared or cancelled, only the
+     * order screen and button of its table are updated, straight away on the JavaFX thread.
+     *
+     * @param onNotification What else to do with each notification, ex. show it on the table screen
+     */
+    public void listenToKitchen(Consumer<Notification> onNotification) {
+        NotificationBus.getBus().subscribe(null, Platform::runLater, notification -> {
+            TableOrderScreen tableOrderScreen = getTableOrderScreen(notification.getTableNumber());
+            if (tableOrderScreen != null) {
+                tableOrderScreen.update();
+            }
+            updateTableButtons();
+            onNotification.accept(notification);
+        });
+    }
 }
@@ -48,26 +48,19 @@ public class TableOrderController {
      * If successful, table status changes to occupied and the screen updates.
      *
      * @param serverId The server id of the server attempting to initialize the table
-     * @return 0 if initialization successful, 1 if serverID failed, 2 if customerNumber failed
+     * @return null if initialization successful, otherwise why not
      */
-    public int attemptInitialize(int serverId, int customerNumber) {
+    public String attemptInitialize(int serverId, int customerNumber) {
         Server server = restaurant.getServer(serverId);
-        if (server != null && customerNumber <= table.getSize()) {
-            Order newOrder = server.createOrder(table.getTableNumber(), restaurant.getMenu());
-            if (newOrder == null) {
-                return 3;
-            }
-            table.setStatus("occupied");
-            table.setServer(server);
-            table.setOrder(newOrder);
-            table.getTableButton().setText(table.getTableButton().getText() + "\nServer " + serverId);
-            table.setNumberOfOccupants(customerNumber);
-            return 0;
-        } else if (server == null) {
-            return 1;
-        } else {
-            return 2;
+        if (server == null) {
+            return "Server ID not found in system";
+        }
+        String problem = server.openTable(table, restaurant.getMenu(), customerNumber);
+        if (problem != null) {
+            return problem;
         }
+        table.getTableButton().setText(table.getTableButton().getText() + "\nServer " + serverId);
+        return null;
     }
 
 
@@ -111,6 +104,15 @@ public class TableOrderController {
     }
 
 
+    /**
+     * Returns the menu items that have been 86'd because they cannot be made with the stock left
+     *
+     * @return The names of the menu items, separated by commas, or an empty string if everything can be made
+     */
+    public String getUnavailableDishes() {
+        return String.join(", ", restaurant.getMenu().getUnavailable());
+    }
+
     /**
      * Return the table associated with this controller
      */
@@ -143,20 +145,34 @@ public class TableOrderController {
 
     /**
      * When the server confirms the order, it is consolidated and sent to the chef order screen. An order with
-     * all of the unconfirmed foods is sent.
+     * all of the unconfirmed foods is sent. The ingredients of each food are reserved as it is confirmed, and a
+     * food is cancelled if its ingredients have already been promised to other orders. If the kitchen has no room
+     * for another order, nothing changes: the foods stay unconfirmed and nothing is held for them. A food that
+     * someone else changes at the same time is left as they set it, and the server is told.
+     *
+     * @return false if the kitchen is too full to take the order
      */
-    public void confirmOrder() {
-        Order orderToChef = new Order(table.getTableNumber(), restaurant.getMenu());
-        ArrayList<Recipe> unconfirmedDishes = table.getOrder().getStatusDishes("unconfirmed");
-        for (Recipe dish : unconfirmedDishes) {
-            dish.setStatus("waiting");
-            orderToChef.addDish(dish);
-            // Change View
-            IndividualDishController dishController = dishControllerMap.get(dish);
-            dishController.insertDeliverButtonAndDeleteButtonAfter();
+    public boolean confirmOrder() {
+        ArrayList<Recipe> cancelled = new ArrayList<>();
+        ArrayList<String> conflicts = new ArrayList<>();
+        Order orderToChef = table.getServer().confirmOrder(table, restaurant.getMenu(), restaurant.getChefOrders(),
+                cancelled, conflicts);
+        if (orderToChef == null) {
+            return false;
+        }
+        // Change View once the kitchen has the order
+        for (Recipe dish : cancelled) {
+            dishControllerMap.get(dish).attemptUnexpectedCancellation();
+        }
+        for (Recipe dish : orderToChef.getDishes()) {
+            dishControllerMap.get(dish).insertDeliverButtonAndDeleteButtonAfter();
         }
-        table.setStatus("ordered");
-        table.getServer().confirmOrder(orderToChef, restaurant.getChefOrders());
+        if (!conflicts.isEmpty()) {
+            Alert alert = new Alert(Alert.AlertType.WARNING);
+            alert.setContentText(String.join("\n", conflicts));
+            alert.show();
+        }
+        return true;
     }
 
     /**
@@ -188,14 +204,22 @@ public class TableOrderController {
     }
 
     /**
-     * Terminates this table and resets it to unoccupied
+     * Terminates this table and resets it to unoccupied, unless a dish was changed by someone else while it was
+     * being closed, in which case the server is told and the table is kept
+     *
+     * @return false if the table was kept
      */
-    public void terminateTableOrder() {
-        table.setStatus("unoccupied");
-        table.getServer().removeOrder(table.getOrder());
-        table.setOrder(null);
-        table.setServer(null);
+    public boolean terminateTableOrder() {
+        String conflict = table.getServer().closeTable(table);
+        if (conflict != null) {
+            Alert alert = new Alert(Alert.AlertType.WARNING);
+            alert.setContentText(conflict);
+            alert.show();
+            updateDishGUI();
+            return false;
+        }
         table.resetTableButton();
+        return true;
     }
 
     /**
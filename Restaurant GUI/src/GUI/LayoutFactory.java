@@ -9,7 +9,7 @@ import javafx.scene.layout.Pane;
 import restaurant.Order;
 import restaurant.Table;
 
-import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A factory which produces layouts which would be used often
@@ -111,7 +111,7 @@ public class LayoutFactory {
      * @param orders the orders of the restaurant.
      * @return the layout of the orders.
      */
-    public static GridPane getOrderLayout(ArrayList<Order> orders){
+    public static GridPane getOrderLayout(List<Order> orders){
         GridPane grid = new GridPane();
         grid.getStyleClass().add("orderGrid");
         int currRow = 0;
@@ -1,5 +1,6 @@
 package GUI;
 
+import GUI.Controllers.DashboardController;
 import GUI.Controllers.EmployeeController;
 import GUI.Controllers.InventoryController;
 import GUI.Controllers.SwitchController;
@@ -8,8 +9,10 @@ import GUI.Screen.*;
 import javafx.application.Application;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
+import restaurant.KitchenStats;
 import restaurant.Restaurant;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 public class MainApplication extends Application {
@@ -18,6 +21,7 @@ public class MainApplication extends Application {
     private OrderScreen orderScreen;
     private InventoryScreen inventoryScreen;
     private EmployeeScreen employeeScreen;
+    private DashboardScreen dashboardScreen;
     private TableController tableController;
     private TableOrderScreen[] tableOrderScreens;
     private ArrayList<Screen> screens;
@@ -31,11 +35,18 @@ public class MainApplication extends Application {
         // create model, view, and controller
         // Acting model
         restaurant = new Restaurant();
+        try {
+            restaurant.getMenu().watchFile();
+        } catch (IOException e) {
+            System.err.println("Could not watch menu.txt, so changes to it need a restart");
+        }
+        restaurant.getInventory().sweepExpired(restaurant.getChefOrders());
         // views
         tableScreen = new TableScreen(stage);
         orderScreen = new OrderScreen(stage, restaurant.getChefOrders(), restaurant.getEmployees());
         inventoryScreen = new InventoryScreen(stage);
         employeeScreen = new EmployeeScreen(stage);
+        dashboardScreen = new DashboardScreen(stage);
 
         //Set up table controller
         tableController = new TableController(restaurant.getTables());
@@ -65,7 +76,8 @@ public class MainApplication extends Application {
     private void setControllers() {
         // Create the switch controller and set up for every screen
         SwitchController switchController =
-                new SwitchController(inventoryScreen, orderScreen, tableScreen, employeeScreen);
+                new SwitchController(inventoryScreen, orderScreen, tableScreen, employeeScreen,
+                        dashboardScreen);
         for (Screen screen : screens) {
             screen.initSwitcher(switchController);
         }
@@ -78,8 +90,13 @@ public class MainApplication extends Application {
 
         //Set up employee controller
         EmployeeController employeeController = new EmployeeController(restaurant.getEmployees(),
-                restaurant.getInventory(), restaurant.getChefOrders());
+                restaurant.getRoster(), restaurant.getInventory(), restaurant.getChefOrders(),
+                restaurant.getPaymentLedger(), restaurant.getDishHistory());
         employeeScreen.initEmployeeController(employeeController);
+
+        //Set up dashboard controller
+        dashboardScreen.initDashboardController(new DashboardController(KitchenStats.getStats(),
+                restaurant.getPaymentLedger()));
     }
 
     /**
@@ -91,6 +108,7 @@ public class MainApplication extends Application {
         screens.add(inventoryScreen);
         screens.add(orderScreen);
         screens.add(employeeScreen);
+        screens.add(dashboardScreen);
         for (Screen screen : tableOrderScreens) {
             screens.add(screen);
         }
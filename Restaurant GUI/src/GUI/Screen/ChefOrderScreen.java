@@ -162,9 +162,11 @@ public class ChefOrderScreen extends Screen {
     }
 
     /**
-     * Used to determine which chef is responsible for cooking a dish.
+     * Used to determine which chef is responsible for cooking a dish. If the dish is changed while the pop up is
+     * open, the chef is told instead of cooking it.
      */
     public void popUpChef(Recipe dish) {
+        long version = dish.getVersion();
         GridPane grid = new GridPane();
         Label pass = new Label("Chef ID#:");
 
@@ -180,10 +182,11 @@ public class ChefOrderScreen extends Screen {
         popUp.show();
 
         confirm.setOnAction(e -> {
-            if (chefOrderController.findChef(chefId.getText(), dish) != null) {
+            String problem = chefOrderController.findChef(chefId.getText(), dish, version);
+            if (problem != null) {
                 Alert alert = new Alert(Alert.AlertType.ERROR);
                 alert.setHeaderText("ERROR");
-                alert.setContentText(chefOrderController.findChef(chefId.getText(), dish));
+                alert.setContentText(problem);
                 alert.showAndWait();
             } else {
                 chefOrderController.cooked(dish);
@@ -0,0 +1,109 @@
+package GUI.Screen;
+
+import GUI.Controllers.DashboardController;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+/**
+ * The manager's live view of the kitchen. While it is showing, the dashboard is refreshed every few seconds.
+ */
+public class DashboardScreen extends Screen {
+    private static final double REFRESH_SECONDS = 5;
+    private Button orderButton;
+    private Button tableButton;
+    private Button employeeButton;
+    private Button inventoryButton;
+    private Text dashboard;
+    private Stage stage;
+    private Scene scene;
+    private Timeline refresher;
+    private DashboardController dashboardController;
+
+    /**
+     * Construct a dashboard screen
+     * @param stage The stage of the application
+     */
+    public DashboardScreen(Stage stage){
+        super(stage);
+        this.stage = stage;
+        this.dashboard = new Text();
+        this.dashboard.setFont(new Font("Monospaced Regular", 14));
+
+        //Buttons
+        orderButton = new Button();
+        tableButton = new Button();
+        employeeButton = new Button();
+
+        inventoryButton = new Button();
+        layoutFactory.buttonSetUp(inventoryButton, "Inventory");
+        inventoryButton.getStyleClass().add("commandButton");
+
+        //Refreshes the dashboard until another screen is shown
+        refresher = new Timeline(new KeyFrame(Duration.seconds(REFRESH_SECONDS), e -> {
+            if (stage.getScene() == scene) {
+                update();
+            } else {
+                refresher.stop();
+            }
+        }));
+        refresher.setCycleCount(Animation.INDEFINITE);
+    }
+
+    @Override
+    public Scene getScene() {
+        Button[] buttons = layoutFactory.navigationBar(tableButton, orderButton, employeeButton,
+                "inventory");
+        BorderPane overallLayout = new BorderPane();
+
+        HBox textBox = new HBox();
+        textBox.getChildren().add(dashboard);
+
+        HBox buttonBox = new HBox();
+        buttonBox.getChildren().addAll(buttons);
+        buttonBox.getChildren().add(inventoryButton);
+
+        overallLayout.setCenter(textBox);
+        overallLayout.setBottom(buttonBox);
+        scene = new Scene(overallLayout, WIDTH, HEIGHT);
+        return scene;
+    }
+
+    @Override
+    public void update() {
+        dashboard.setText(dashboardController.getDashboard());
+    }
+
+    /**
+     * Shows the dashboard and starts refreshing it
+     */
+    @Override
+    public void show() {
+        super.show();
+        refresher.play();
+    }
+
+    /**
+     * Set the functionality of the buttons
+     */
+    @Override
+    public void initialize() {
+        orderButton.setOnAction(e-> switchController.goToOrder());
+        tableButton.setOnAction(e-> switchController.goToTable());
+        employeeButton.setOnAction(e-> switchController.goToEmployee());
+        inventoryButton.setOnAction(e-> switchController.goToInventory());
+    }
+
+    //sets the dashboardController for this screen.
+    public void initDashboardController(DashboardController dashboardController){
+        this.dashboardController = dashboardController;
+    }
+}
@@ -20,6 +20,7 @@ public class InventoryScreen extends Screen {
     private Button employeeButton;
     private Button restock;
     private Button request;
+    private Button dashboardButton;
     private Button submitRequest;
     private Button submitRestock;
     private TextField ingredientInput;
@@ -62,6 +63,10 @@ public class InventoryScreen extends Screen {
         layoutFactory.buttonSetUp(restock, "Restock");
         restock.getStyleClass().add("commandButton");
 
+        dashboardButton = new Button();
+        layoutFactory.buttonSetUp(dashboardButton, "Dashboard");
+        dashboardButton.getStyleClass().add("commandButton");
+
         submitRequest = new Button();
         layoutFactory.buttonSetUp(submitRequest, "Submit");
 
@@ -85,7 +90,7 @@ public class InventoryScreen extends Screen {
 
         HBox buttonBox = new HBox();
         buttonBox.getChildren().addAll(buttons);
-        buttonBox.getChildren().addAll(restock, request);
+        buttonBox.getChildren().addAll(restock, request, dashboardButton);
 
         overallLayout.setCenter(textBox);
         overallLayout.setBottom(buttonBox);
@@ -105,6 +110,7 @@ public class InventoryScreen extends Screen {
         orderButton.setOnAction(e-> switchController.goToOrder());
         tableButton.setOnAction(e-> switchController.goToTable());
         employeeButton.setOnAction(e-> switchController.goToEmployee());
+        dashboardButton.setOnAction(e-> switchController.goToDashboard());
         request.setOnAction(e-> popUpScreen(submitRequest));
         restock.setOnAction(e-> popUpEmployee());
         submitRequest.setOnAction(e-> inventoryController.request(ingredientInput, quantityInput, message));
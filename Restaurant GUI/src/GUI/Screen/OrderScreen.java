@@ -1,7 +1,7 @@
 package GUI.Screen;
 
 import GUI.Controllers.OrderController;
-import employees.Employee;
+import employees.EmployeeDirectory;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.ScrollPane;
@@ -9,9 +9,7 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
-import restaurant.Order;
-
-import java.util.ArrayList;
+import restaurant.KitchenQueue;
 
 public class OrderScreen extends Screen {
     private OrderController orderController;
@@ -23,7 +21,7 @@ public class OrderScreen extends Screen {
     /**
      * Construct a new order screen
      */
-    public OrderScreen(Stage stage, ArrayList<Order> orders, ArrayList<Employee> employees) {
+    public OrderScreen(Stage stage, KitchenQueue orders, EmployeeDirectory employees) {
         super(stage);
         backButton = new Button();
         tableButton = new Button();
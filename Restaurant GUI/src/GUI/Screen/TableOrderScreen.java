@@ -11,12 +11,14 @@ import javafx.scene.layout.*;
 import javafx.scene.text.Text;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import restaurant.Order;
 
 
 public class TableOrderScreen extends Screen {
     private Button backButton; //Return to tables
     private TableOrderController tableOrderController;
     private VBox orderPanel, rightPanel;
+    private Label foodCostText;
 
     /**
      * Create a table order screen
@@ -130,37 +132,24 @@ public class TableOrderScreen extends Screen {
      * @param customerNumber Must match [1-9][0-9]*
      */
     private void tryToInitialize(String serverID, String customerNumber) {
-        int status;
+        String problem;
         if (serverID.length() > 0 && customerNumber.length() > 0) {
-            status = tableOrderController.attemptInitialize(Integer.parseInt(serverID),
+            problem = tableOrderController.attemptInitialize(Integer.parseInt(serverID),
                     Integer.parseInt(customerNumber));
         } else {
             return;
         }
         //Success
-        if (status == 0) {
+        if (problem == null) {
             rightPanel = getTableRightPanel();
             orderPanel = new VBox();
             orderPanel.setPadding(new Insets(10, 0, 0, 5));
             orderPanel.setSpacing(5);
             this.show();
-        }
-        //Server id failed
-        else if (status == 1) {
-            Alert alert = new Alert(Alert.AlertType.ERROR);
-            alert.setHeaderText("ERROR");
-            alert.setContentText("Server ID not found in system");
-            alert.showAndWait();
-            // Table size failed
-        } else if (status == 2) {
-            Alert alert = new Alert(Alert.AlertType.ERROR);
-            alert.setHeaderText("ERROR");
-            alert.setContentText("Customer number exceeds maximum table size");
-            alert.showAndWait();
-        } else if (status == 3) {
+        } else {
             Alert alert = new Alert(Alert.AlertType.ERROR);
             alert.setHeaderText("ERROR");
-            alert.setContentText("This server has a dish waiting to be delivered");
+            alert.setContentText(problem);
             alert.showAndWait();
         }
     }
@@ -205,6 +194,12 @@ public class TableOrderScreen extends Screen {
         customerText.getStyleClass().add("serverLabel");
         customerText.setMinWidth(200);
         customerText.setPadding(new Insets(0, 0, 0, 5));
+        //Food cost of the order so far, kept up to date by update()
+        foodCostText = new Label();
+        updateFoodCost();
+        foodCostText.getStyleClass().add("serverLabel");
+        foodCostText.setMinWidth(200);
+        foodCostText.setPadding(new Insets(0, 0, 0, 5));
         //Functional buttons
         Button addDishButton = new Button("Add Dish");
         Button billButton = new Button("Print Bill");
@@ -217,17 +212,25 @@ public class TableOrderScreen extends Screen {
         //Confirm order button
         Button confirmButton = new Button("Confirm Order");
         confirmButton.setMinWidth(200);
-        confirmButton.setOnAction(e -> tableOrderController.confirmOrder());
+        confirmButton.setOnAction(e -> {
+            if (!tableOrderController.confirmOrder()) {
+                Alert alert = new Alert(Alert.AlertType.ERROR);
+                alert.setHeaderText("ERROR");
+                alert.setContentText("The kitchen is full, confirm the order again once it has caught up");
+                alert.showAndWait();
+            }
+        });
         // Terminate table button
         Button terminateButton = new Button("Terminate Table");
         terminateButton.setMinWidth(200);
         terminateButton.setOnAction(e -> {
-            tableOrderController.terminateTableOrder();
-            this.show();
+            if (tableOrderController.terminateTableOrder()) {
+                this.show();
+            }
         });
         terminateButton.getStyleClass().add("minus");
         //Add everything
-        finalPanel.getChildren().addAll(serverText, customerText, addDishButton,
+        finalPanel.getChildren().addAll(serverText, customerText, foodCostText, addDishButton,
                 billButton, confirmButton, terminateButton);
         finalPanel.setPadding(new Insets(20, 10, 0, 0));
         finalPanel.setSpacing(10);
@@ -253,6 +256,16 @@ public class TableOrderScreen extends Screen {
         finalForm.setVgap(10);
         finalForm.setPadding(new Insets(5, 0, 0, 20));
         GridPane.setHalignment(confirmButton, HPos.RIGHT);
+        //Show the dishes that are off the menu
+        String unavailableDishes = tableOrderController.getUnavailableDishes();
+        int popupHeight = 80;
+        if (!unavailableDishes.isEmpty()) {
+            Label unavailable = new Label("86'd: " + unavailableDishes);
+            unavailable.setWrapText(true);
+            unavailable.setMaxWidth(260);
+            finalForm.add(unavailable, 0, 2, 2, 1);
+            popupHeight = 140;
+        }
         //Set button event
         confirmButton.setOnAction(e -> {
             try {
@@ -265,7 +278,7 @@ public class TableOrderScreen extends Screen {
             }
             popup.close();
         });
-        popup.setScene(new Scene(finalForm, 300, 80));
+        popup.setScene(new Scene(finalForm, 300, popupHeight));
         popup.setResizable(false);
         popup.initModality(Modality.APPLICATION_MODAL);
         popup.show();
@@ -276,6 +289,17 @@ public class TableOrderScreen extends Screen {
         tableOrderController.updateTableStatus();
         tableOrderController.updateCancelled();
         tableOrderController.updateDishGUI();
+        updateFoodCost();
+    }
+
+    /**
+     * Shows the food cost percentage of the dishes ordered so far
+     */
+    private void updateFoodCost() {
+        Order order = tableOrderController.getTable().getOrder();
+        if (foodCostText != null && order != null) {
+            foodCostText.setText(String.format("Food Cost: %.1f%%", order.getFoodCostPercent()));
+        }
     }
 
     @Override
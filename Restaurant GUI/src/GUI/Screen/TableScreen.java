@@ -3,6 +3,7 @@ package GUI.Screen;
 import GUI.Controllers.TableController;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
@@ -18,6 +19,7 @@ public class TableScreen extends Screen {
     private Button inventoryButton;
     private Button employeeButton;
     private GridPane tableLayout;
+    private Label passLabel; //The latest news from the kitchen
     private TableController tableController;
 
     /**
@@ -28,6 +30,7 @@ public class TableScreen extends Screen {
         orderButton = new Button();
         inventoryButton = new Button();
         employeeButton = new Button();
+        passLabel = new Label();
     }
 
     @Override
@@ -39,6 +42,7 @@ public class TableScreen extends Screen {
         HBox buttonBox = new HBox();
         buttonBox.getChildren().addAll(buttons);
 
+        overallLayout.setTop(passLabel);
         overallLayout.setBottom(buttonBox);
         overallLayout.setCenter(tableLayout);
         Scene scene = new Scene(overallLayout, WIDTH, HEIGHT);
@@ -48,7 +52,7 @@ public class TableScreen extends Screen {
 
     @Override
     public void update() {
-        tableController.updateOrderScreens();
+        //The order screens are updated by the kitchen's notifications, and when they are shown
         tableController.updateTableButtons();
     }
 
@@ -58,6 +62,7 @@ public class TableScreen extends Screen {
         orderButton.setOnAction(e -> switchController.goToOrder());
         inventoryButton.setOnAction(e -> switchController.goToInventory());
         employeeButton.setOnAction(e -> switchController.goToEmployee());
+        tableController.listenToKitchen(notification -> passLabel.setText(notification.toString()));
     }
 
     /**
@@ -11,7 +11,7 @@ public class Test {
 
 //        System.out.println("".matches("[^\\.]"));
         Restaurant restaurant = new Restaurant();
-        Server server = new Server();
+        Server server = new Server(1, restaurant.getPaymentLedger(), restaurant.getDishHistory());
         Order order = server.createOrder(1, restaurant.getMenu());
 //        Recipe dish1 = server.addToOrder(order, "Combo1");
 //        server.addToOrder(order, "Combo2");
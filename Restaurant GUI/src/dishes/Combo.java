@@ -1,7 +1,9 @@
 package dishes;
 
 import restaurant.Inventory;
+import restaurant.Money;
 
+import java.util.Arrays;
 import java.util.HashMap;
 
 /**
@@ -10,41 +12,26 @@ import java.util.HashMap;
 public class Combo extends Recipe {
     private String name;
     private String[] foods;
-    private HashMap<String, String> instructions; //Maps food name to extra instructions
+    private String[] instructions; //The extra instructions for each food, by its position in foods
 
     /**
      * Constructs a combo menu item
      *
-     * @param price     The price of this combo
-     * @param name      The name of this combo, in the format "C" + menu item name string concatenation
-     * @param foods     An array of the name of the foods in this combo (must be on menu)
-     * @param inventory The inventory corresponding to the restaurant serving this combo
+     * @param price       The price of this combo
+     * @param name        The name of this combo, in the format "C" + menu item name string concatenation
+     * @param foods       The names of the foods in this combo (must be on menu), with the foods of any combos in
+     *                    it in their place
+     * @param ingredients Every ingredient the foods in this combo use, added up, and how much of each
+     * @param inventory   The inventory corresponding to the restaurant serving this combo
      */
-    public Combo(double price, String name, Food[] foods, Inventory inventory) {
-        super(new HashMap<>(), inventory);
-        this.foods = new String[foods.length];
+    public Combo(Money price, String name, String[] foods, HashMap<String, Integer> ingredients,
+                 Inventory inventory) {
+        super(ingredients, inventory);
+        this.foods = foods;
         this.price = price;
-        //Fill up recipe's ingredients and add the name to foods array
-        int index = 0;
-        for (Food food : foods) {
-            HashMap<String, Integer> newIngredients = food.getIngredients();
-            for (String newIngredient : newIngredients.keySet()) {
-                if (super.ingredients.containsKey(newIngredient)) {
-                    int currNum = super.ingredients.get(newIngredient);
-                    super.ingredients.put(newIngredient, currNum + newIngredients.get(newIngredient));
-                } else {
-                    super.ingredients.put(newIngredient, newIngredients.get(newIngredient));
-                }
-            }
-            this.foods[index] = food.getName();
-            index++;
-        }
         this.name = name;
-        this.status = "unconfirmed";
-        this.instructions = new HashMap<>();
-        for (String foodName : this.foods) {
-            this.instructions.put(foodName, "");
-        }
+        this.instructions = new String[foods.length];
+        Arrays.fill(this.instructions, "");
     }
 
 
@@ -57,14 +44,14 @@ public class Combo extends Recipe {
      * @param foods        Foods within this combo
      * @param inventory    Inventory reference
      * @param ingredients  HashMap representation of ingredients
-     * @param instructions Instructions assigned to this particular combo
+     * @param instructions Instructions assigned to this particular combo, for each food
      */
-    private Combo(double price, String status, String name, String[] foods, Inventory inventory,
-                  HashMap<String, Integer> ingredients, HashMap<String, String> instructions) {
+    private Combo(Money price, String status, String name, String[] foods, Inventory inventory,
+                  HashMap<String, Integer> ingredients, String[] instructions) {
         super(ingredients, inventory);
         this.name = name;
         this.price = price;
-        this.status = status;
+        initStatus(status);
         this.foods = foods;
         this.instructions = instructions;
     }
@@ -96,15 +83,16 @@ public class Combo extends Recipe {
     }
 
     /**
-     * Sets an instruction for a certain food in this combo
+     * Sets an instruction for a certain food in this combo. The food is found by its position, so a combo with the
+     * same food twice, ex. through a combo in it, keeps separate instructions for each.
      *
-     * @param foodName    The food name to set the instruction to (must be in this combo)
+     * @param food        The position of the food in getFoods()
      * @param instruction The instruction for the specified food in the combo
      */
-    public void setInstructions(String foodName, String instruction) {
-        if (instructions.containsKey(foodName) && (instruction.length() == 0 ||
+    public void setInstructions(int food, String instruction) {
+        if (food >= 0 && food < instructions.length && (instruction.length() == 0 ||
                 instruction.matches("(-?[0-9]+:\\s[a-zA-z\\s]+)(,\\s-?[0-9]+:\\s[a-zA-z\\s]+)*"))) {
-            instructions.put(foodName, instruction);
+            instructions[food] = instruction;
         } else {
             System.err.println("Failed Regex Instruction");
             System.err.println(instruction);
@@ -112,12 +100,13 @@ public class Combo extends Recipe {
     }
 
     /**
-     * Returns the instructions HashMap
+     * Returns the instructions for a certain food in this combo
      *
-     * @return instructions HashMap
+     * @param food The position of the food in getFoods()
+     * @return the instructions, or "" if there are none
      */
-    public HashMap<String, String> getInstructions() {
-        return instructions;
+    public String getInstructions(int food) {
+        return instructions[food];
     }
 
     /**
@@ -144,8 +133,8 @@ public class Combo extends Recipe {
      * @return a copy of this combo object
      */
     public Combo getCopy() {
-        HashMap<String, String> mapCopy = new HashMap<>(instructions);
+        String[] instructionsCopy = instructions.clone();
         HashMap<String, Integer> ingCopy = new HashMap<>(ingredients);
-        return new Combo(price, status, name, foods, inventory, ingCopy, mapCopy);
+        return new Combo(price, getStatus(), name, foods, inventory, ingCopy, instructionsCopy);
     }
 }
@@ -4,7 +4,6 @@ package dishes;
 import restaurant.Order;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 
 public class DishInterpreter {
     /**
@@ -19,27 +18,27 @@ public class DishInterpreter {
         output.append(dish.getName());
 
         if (dish instanceof Combo) {
-            HashMap<String, String> instructions = ((Combo) dish).getInstructions();
+            Combo combo = (Combo) dish;
 
-            ArrayList<String> foodNames = new ArrayList<>();
-            for (String foodName : instructions.keySet()) {
-                if (!instructions.get(foodName).equals("") && instructions.get(foodName) != null) {
-                    foodNames.add(foodName);
+            ArrayList<Integer> changedFoods = new ArrayList<>();
+            for (int i = 0; i < combo.getFoods().length; i++) {
+                if (!combo.getInstructions(i).equals("")) {
+                    changedFoods.add(i);
                 }
             }
 
             int j = 0;
-            for (String foodName : foodNames) {
+            for (int food : changedFoods) {
                 if (!(wordWith)) {
                     output.append(" with ");
                     wordWith = true;
                 }
-                output.append(instructionInterpret(instructions.get(foodName)));
+                output.append(instructionInterpret(combo.getInstructions(food)));
                 output.append(" on ");
-                output.append(foodName);
-                if (j == foodNames.size() - 2 && !instructions.get(foodNames.get(foodNames.size() - 1)).equals("")) {
+                output.append(combo.getFoods()[food]);
+                if (j == changedFoods.size() - 2) {
                     output.append(" and ");
-                } else if (j < foodNames.size() - 1) {
+                } else if (j < changedFoods.size() - 1) {
                     output.append(", ");
                 }
                 j++;
@@ -89,11 +88,12 @@ public class DishInterpreter {
     public static String chefDishInfo(Recipe dish, String indent) {
         StringBuilder chefFormattedDish = new StringBuilder(50);
         if (dish instanceof Combo) {
-            for (String foodName : ((Combo) dish).getInstructions().keySet()) {
-                String foodItem = indent + foodName;
+            Combo combo = (Combo) dish;
+            for (int i = 0; i < combo.getFoods().length; i++) {
+                String foodItem = indent + combo.getFoods()[i];
                 chefFormattedDish.append(foodItem);
                 chefFormattedDish.append("\n");
-                String currInstruction = ((Combo) dish).getInstructions().get(foodName);
+                String currInstruction = combo.getInstructions(i);
                 if (!currInstruction.equals("")) {
                     chefFormattedDish.append(DishInterpreter.foodInfo(currInstruction, indent + indent));
                     chefFormattedDish.append("\n");
@@ -1,6 +1,7 @@
 package dishes;
 
 import restaurant.Inventory;
+import restaurant.Money;
 
 import java.util.HashMap;
 
@@ -19,16 +20,16 @@ public class Food extends Recipe {
      *
      * @param itemNum     The menu number of this food item
      * @param name        The name of this food item
+     * @param price       The price of this food item
      * @param ingredients A hash map with ingredient names as keys, which map to the quantity of a certain
      *                    ingredient needed.
      * @param inventory   The inventory corresponding to where this recipe will be used
      */
-    public Food(int itemNum, String name, double price, HashMap<String, Integer> ingredients, Inventory inventory) {
+    public Food(int itemNum, String name, Money price, HashMap<String, Integer> ingredients, Inventory inventory) {
         super(ingredients, inventory);
         this.itemNum = itemNum;
         this.name = name;
         this.price = price;
-        this.status = "unconfirmed";
         this.instructions = "";
     }
 
@@ -38,8 +39,8 @@ public class Food extends Recipe {
      *
      * @param additionalCost The additional cost to be added on top of the price
      */
-    public void addCosts(int additionalCost) {
-        price += additionalCost;
+    public void addCosts(Money additionalCost) {
+        price = price.plus(additionalCost);
     }
 
     /**
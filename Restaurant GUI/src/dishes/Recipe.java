@@ -3,8 +3,13 @@ package dishes;
 import employees.Chef;
 import javafx.scene.control.Button;
 import restaurant.Inventory;
+import restaurant.KitchenMetrics;
+import restaurant.KitchenStats;
+import restaurant.Money;
 
 import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A class used to manage a list of ingredients. This is inherited by anything which can be ordered by the
@@ -13,11 +18,29 @@ import java.util.HashMap;
  * @author Jian Xian Li (Jason Li)
  */
 public abstract class Recipe {
-    HashMap<String, Integer> ingredients;
+    private static final AtomicLong versions = new AtomicLong(); //Hands out version stamps, never the same one twice
+
+    volatile HashMap<String, Integer> ingredients; //Replaced on every change, never changed, so it can be read unlocked
     protected Inventory inventory;
-    String status; //Can be "unconfirmed", "waiting", "acknowledged", "prepared", "delivered", "cancelled"
-    double price;
+    private AtomicReference<Stamp> stamp; //The status and the version it was set at, always changed together
+    Money price;
     Button dishButton;
+    volatile String chefId; //The chef cooking this food, ex. "Chef_1"
+    volatile long statusChangedAt; //When the status last changed, from System.nanoTime()
+
+    /**
+     * The status of a dish and the version stamp it was given. Every change to a dish gets a new stamp, so a stamp
+     * names one state of one dish.
+     */
+    private static final class Stamp {
+        private final String status; //Can be "unconfirmed", "waiting", "acknowledged", "prepared", "delivered", "cancelled"
+        private final long version;
+
+        private Stamp(String status) {
+            this.status = status;
+            this.version = versions.incrementAndGet();
+        }
+    }
 
     /**
      * Create a recipe to make a certain menu item
@@ -29,20 +52,37 @@ public abstract class Recipe {
     Recipe(HashMap<String, Integer> ingredients, Inventory inventory) {
         this.ingredients = ingredients;
         this.inventory = inventory;
+        stamp = new AtomicReference<>(new Stamp("unconfirmed"));
+    }
+
+    /**
+     * Sets the status of a recipe that is being made, before anyone else can see it.
+     *
+     * @param status The status to start with
+     */
+    void initStatus(String status) {
+        stamp.set(new Stamp(status));
     }
 
     /**
-     * Returns whether it is possible to create the food corresponding to this recipe with the current inventory stock
+     * Returns whether it is possible to create the food corresponding to this recipe with the current inventory stock.
+     * Ingredients reserved for other dishes do not count towards the stock, and ingredients reserved for this one do.
      *
      * @return true if it is possible, false otherwise
      */
     public boolean isPossible() {
-        for (String ing : ingredients.keySet()) {
-            if (ingredients.get(ing) > inventory.getQuantity(ing)) {
-                return false;
-            }
-        }
-        return true;
+        return inventory.canMake(this);
+    }
+
+    /**
+     * Checks whether this recipe could be made with changed ingredients, before they are changed. If its ingredients
+     * are reserved, the reservation is changed to match.
+     *
+     * @param changedIngredients The ingredients this recipe would have after the change
+     * @return null if it could be made, otherwise an ingredient there is not enough of
+     */
+    public String reserveChanges(HashMap<String, Integer> changedIngredients) {
+        return inventory.reserveChanges(this, changedIngredients);
     }
 
 
@@ -52,13 +92,15 @@ public abstract class Recipe {
      * @param ingredient     The ingredient to be added
      * @param numIngredients How much of the ingredient to be added
      */
-    public void addIngredient(String ingredient, int numIngredients) {
-        if (ingredients.containsKey(ingredient)) {
-            int currentNumber = ingredients.get(ingredient);
-            ingredients.put(ingredient, currentNumber + numIngredients);
+    public synchronized void addIngredient(String ingredient, int numIngredients) {
+        HashMap<String, Integer> changed = new HashMap<>(ingredients);
+        if (changed.containsKey(ingredient)) {
+            int currentNumber = changed.get(ingredient);
+            changed.put(ingredient, currentNumber + numIngredients);
         } else {
-            ingredients.put(ingredient, numIngredients);
+            changed.put(ingredient, numIngredients);
         }
+        ingredients = changed;
     }
 
     /**
@@ -68,10 +110,11 @@ public abstract class Recipe {
      * @param ingredient     The ingredient to be subtracted
      * @param numIngredients How much of the ingredient to be subtracted
      */
-    public void subtractIngredient(String ingredient, int numIngredients) {
+    public synchronized void subtractIngredient(String ingredient, int numIngredients) {
         if (ingredients.containsKey(ingredient) && ingredients.get(ingredient) >= numIngredients) {
-            int currentNum = ingredients.get(ingredient);
-            ingredients.put(ingredient, currentNum - numIngredients);
+            HashMap<String, Integer> changed = new HashMap<>(ingredients);
+            changed.put(ingredient, changed.get(ingredient) - numIngredients);
+            ingredients = changed;
         } else {
             System.err.println("Attempted subtraction: " + numIngredients + ", but this dish only contains: "
                     + ingredients.get(ingredient));
@@ -83,24 +126,33 @@ public abstract class Recipe {
      *
      * @param ingredient The ingredient to be removed
      */
-    public void subtractIngredient(String ingredient) {
+    public synchronized void subtractIngredient(String ingredient) {
         if (ingredients.containsKey(ingredient)) {
-            ingredients.remove(ingredient);
+            HashMap<String, Integer> changed = new HashMap<>(ingredients);
+            changed.remove(ingredient);
+            ingredients = changed;
         }
     }
 
+    /**
+     * Reserves the ingredients of this recipe in the inventory, so that they are held for it until it is created
+     * or cancelled.
+     *
+     * @return Whether the ingredients could be reserved
+     */
+    public boolean reserve() {
+        return inventory.reserve(this);
+    }
+
     /**
      * Create what this recipe corresponds to. A recipe can be successfully cooked if there are enough ingredients in
-     * the inventory to fulfill this instance's recipe. If a recipe can be successfully created, the ingredients will
-     * be subtracted from the inventory.
+     * the inventory to fulfill this instance's recipe, including the ingredients reserved for it. If a recipe can be
+     * successfully created, the ingredients will be subtracted from the inventory.
      *
      * @return Whether the creation of this recipe is successful
      */
     public boolean create() {
-        if (isPossible()) {
-            for (String ingredient : ingredients.keySet()) {
-                inventory.subtractIngredient(ingredient, ingredients.get(ingredient));
-            }
+        if (inventory.consume(this)) {
             return true;
         } else {
             System.err.println("There weren't enough ingredients to create this.");
@@ -109,7 +161,8 @@ public abstract class Recipe {
     }
 
     /**
-     * returns the HashMap representation of this recipe's ingredients
+     * returns the HashMap representation of this recipe's ingredients. A change to the ingredients replaces the map
+     * instead of changing it, so it is safe to go through while the recipe is being changed, but must not be changed.
      *
      * @return HashMap of the ingredients
      */
@@ -123,33 +176,192 @@ public abstract class Recipe {
      *
      * @return the price
      */
-    public double getPrice() {
+    public Money getPrice() {
         return price;
     }
 
+    /**
+     * Returns the cost of the ingredients in this recipe, including any accommodations, at their current unit costs
+     *
+     * @return the ingredient cost
+     */
+    public Money getIngredientCost() {
+        return inventory.getCost(ingredients);
+    }
+
     /**
      * Returns the current status of this food, either "waiting", "acknowledged", "prepared", or "delivered"
      *
      * @return The current status of this food
      */
     public String getStatus() {
-        return this.status;
+        return stamp.get().status;
     }
 
     /**
-     * Set the current status of this food. If the newStatus parameter is not one of the required ones, nothing
-     * will happen.
+     * Returns the version stamp of this food. It changes every time the status or the ingredients of the food are
+     * changed, and no two foods ever have the same stamp, so a screen can hold on to it and later check that the
+     * food is still the way it saw it.
+     *
+     * @return The version stamp
+     */
+    public long getVersion() {
+        return stamp.get().version;
+    }
+
+    /**
+     * Returns the version stamp of this food if it has a certain status, read together so that the stamp is the one
+     * the status was set at.
+     *
+     * @param status The status, ex. "waiting"
+     * @return The version stamp, or 0 if the food has a different status
+     */
+    public long getVersionIf(String status) {
+        Stamp current = stamp.get();
+        return current.status.equals(status) ? current.version : 0;
+    }
+
+    /**
+     * Set the current status of this food, whatever it was changed to in the meantime. If the newStatus parameter is
+     * not one of the required ones, nothing will happen. Cancelling the food releases any ingredients reserved for
+     * it. The time the food spent waiting, cooking, or waiting to be delivered is recorded in the kitchen metrics,
+     * and the change is counted in the kitchen dashboard.
      *
      * @param newStatus The new status. Must be one of "waiting", "acknowledged", "prepared", or "delivered"
      */
     public void setStatus(String newStatus) {
         newStatus = newStatus.toLowerCase();
-        if (newStatus.equals("waiting") || newStatus.equals("acknowledged") || newStatus.equals("prepared") ||
-                newStatus.equals("delivered") || newStatus.equals("cancelled")) {
-            status = newStatus;
+        if (isStatus(newStatus)) {
+            while (!changeStatus(stamp.get(), new Stamp(newStatus))) {
+                //Someone else changed the food first, change it from what they set
+            }
         }
     }
 
+    /**
+     * Sets the current status of this food, but only if nobody has changed the food since it had a certain version
+     * stamp. Nothing is locked, so a server and a chef acting on the same food at once can never overwrite each
+     * other; whoever is second is told what happened instead.
+     *
+     * @param newStatus       The new status. Must be one of "waiting", "acknowledged", "prepared", or "delivered"
+     * @param expectedVersion The version stamp the food had when it was last looked at
+     * @return null if the status was set, otherwise why not
+     */
+    public String setStatus(String newStatus, long expectedVersion) {
+        newStatus = newStatus.toLowerCase();
+        if (!isStatus(newStatus)) {
+            return newStatus + " is not a status";
+        }
+        if (claimStatus(newStatus, expectedVersion) == 0) {
+            return getName() + " was changed by someone else and is now " + getStatus() + ".";
+        }
+        return null;
+    }
+
+    /**
+     * Sets the current status of this food like setStatus, but returns the version stamp it was given, so that
+     * whoever set it can later undo exactly that change, ex. a chef who finds the ingredients gone while cooking.
+     *
+     * @param newStatus       The new status. Must be one of "waiting", "acknowledged", "prepared", or "delivered"
+     * @param expectedVersion The version stamp the food had when it was last looked at
+     * @return The new version stamp, or 0 if someone else changed the food first or the status is not a status
+     */
+    public long claimStatus(String newStatus, long expectedVersion) {
+        newStatus = newStatus.toLowerCase();
+        Stamp current = stamp.get();
+        if (!isStatus(newStatus) || current.version != expectedVersion) {
+            return 0;
+        }
+        Stamp claimed = new Stamp(newStatus);
+        return changeStatus(current, claimed) ? claimed.version : 0;
+    }
+
+    /**
+     * Takes back the confirmation of this food when it could not be sent to the kitchen. It goes back to unconfirmed,
+     * so it can be confirmed again, and its ingredients are no longer held for it.
+     *
+     * @return false if the food is no longer waiting, ex. because it was cancelled
+     */
+    public boolean unconfirm() {
+        Stamp current = stamp.get();
+        while (current.status.equals("waiting")) {
+            if (changeStatus(current, new Stamp("unconfirmed"))) {
+                inventory.release(this);
+                return true;
+            }
+            current = stamp.get();
+        }
+        return false;
+    }
+
+    /**
+     * Gives this food a new version stamp for a change to its ingredients, but only if nobody has changed the food
+     * since it had a certain version stamp.
+     *
+     * @param expectedVersion The version stamp the food had when it was last looked at
+     * @return The new version stamp, or 0 if someone else changed the food first
+     */
+    public long stampEdit(long expectedVersion) {
+        Stamp current = stamp.get();
+        Stamp edited = new Stamp(current.status);
+        if (current.version != expectedVersion || !stamp.compareAndSet(current, edited)) {
+            return 0;
+        }
+        return edited.version;
+    }
+
+    private boolean isStatus(String status) {
+        return status.equals("waiting") || status.equals("acknowledged") || status.equals("prepared") ||
+                status.equals("delivered") || status.equals("cancelled");
+    }
+
+    /**
+     * Changes the status from what it was at one stamp to a new stamp, then records the change.
+     *
+     * @return false if the food was changed since that stamp
+     */
+    private boolean changeStatus(Stamp current, Stamp next) {
+        if (!stamp.compareAndSet(current, next)) {
+            return false;
+        }
+        String newStatus = next.status;
+        recordLatency(current.status, newStatus);
+        KitchenStats.getStats().recordStatusChange(this, current.status, newStatus, System.currentTimeMillis());
+        if (newStatus.equals("cancelled")) {
+            inventory.release(this);
+        }
+        return true;
+    }
+
+    /**
+     * Records how long this food was in its last status, if it is moving on to the next step in the kitchen.
+     *
+     * @param status    The status this food is changing from
+     * @param newStatus The status this food is changing to
+     */
+    private void recordLatency(String status, String newStatus) {
+        long now = System.nanoTime();
+        long millis = (now - statusChangedAt) / 1000000;
+        KitchenMetrics metrics = KitchenMetrics.getMetrics();
+        if ("waiting".equals(status) && newStatus.equals("acknowledged")) {
+            metrics.recordAcknowledge(getName(), chefId, millis);
+        } else if ("acknowledged".equals(status) && newStatus.equals("prepared")) {
+            metrics.recordCook(getName(), chefId, millis);
+        } else if ("prepared".equals(status) && newStatus.equals("delivered")) {
+            metrics.recordDeliver(getName(), chefId, millis);
+        }
+        statusChangedAt = now;
+    }
+
+    /**
+     * Sets the chef who is cooking this food
+     *
+     * @param chefId The id of the chef, ex. "Chef_1"
+     */
+    public void setChefId(String chefId) {
+        this.chefId = chefId;
+    }
+
     /**
      * Returns the name of the instance represented by this recipe
      *
@@ -0,0 +1,27 @@
+package employees;
+
+/**
+ * Thrown when an accommodation cannot be made on a dish, either because someone else changed the dish first or
+ * because there is not enough stock for it. The message says which.
+ */
+public class AccommodationException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    private boolean conflict;
+
+    /**
+     * Creates the exception
+     *
+     * @param message  Why the accommodation was not made
+     * @param conflict Whether it was because someone else changed the dish first
+     */
+    public AccommodationException(String message, boolean conflict) {
+        super(message);
+        this.conflict = conflict;
+    }
+
+    //returns whether someone else changed the dish first, rather than there not being enough stock.
+    public boolean isConflict() {
+        return conflict;
+    }
+}
@@ -4,10 +4,11 @@ package employees;
 import GUI.Controllers.LogWriter;
 import dishes.Recipe;
 import dishes.DishInterpreter;
+import restaurant.Notification;
+import restaurant.NotificationBus;
+import restaurant.KitchenQueue;
 import restaurant.Order;
 
-import java.util.ArrayList;
-
 /**
  * The chef class. Can acknowledge and cook orders. Will indicate when the order is finished or if
  * they have cancelled the order. They can also cancel certain dishes if they are not going to cook them.
@@ -16,17 +17,10 @@ import java.util.ArrayList;
  */
 public class Chef extends Employee {
 
-    private static int numOfChefs = 0;
-    private ArrayList<Order> chefOrders;
-
-    public Chef(ArrayList<Order> chefOrders) {
-        super(false, "Chef", numOfChefs + 1);
-        this.chefOrders = chefOrders;
-        numOfChefs++;
-    }
+    private KitchenQueue chefOrders;
 
-    public Chef(int oldId, ArrayList<Order> chefOrders) {
-        super(false, "Chef", oldId);
+    public Chef(int jobId, KitchenQueue chefOrders) {
+        super(false, "Chef", jobId);
         this.chefOrders = chefOrders;
     }
 
@@ -48,8 +42,12 @@ public class Chef extends Employee {
             }
         }
         order.setAcknowledge();
-        for (Recipe dish : order.getStatusDishes("waiting")) {
-            dish.setStatus("acknowledged");
+        for (Recipe dish : order.getDishes()) {
+            long version = dish.getVersion();
+            if (dish.getStatus().equals("waiting")) {
+                dish.setChefId(toString());
+                dish.setStatus("acknowledged", version);
+            }
         }
         LogWriter.writeIn("Chef " + getJobId() + " has acknowledged table "
                 + order.getTableNumber() + "'s order.");
@@ -57,20 +55,27 @@ public class Chef extends Employee {
     }
 
     /**
-     * This method has the chef indicate that they have finished cooking the food
+     * This method has the chef indicate that they have finished cooking the food. If a server has changed the dish
+     * since the chef last looked at it, the chef is told instead of cooking it. If the ingredients held for the dish
+     * are gone by the time it is cooked, ex. because they expired, the dish is cancelled and its server told.
      *
-     * @param order The order that the dish is from
-     * @param dish  The dish that the chef has cooked
-     * @return If the food was cooked or not
+     * @param order           The order that the dish is from
+     * @param dish            The dish that the chef has cooked
+     * @param expectedVersion The version stamp of the dish when the chef last looked at it
+     * @return null if the food was cooked, otherwise why not
      */
-    public String foodCooked(Order order, Recipe dish) {
+    public String foodCooked(Order order, Recipe dish, long expectedVersion) {
         if (dish.getStatus().equals("cancelled")) {
             order.removeDish(dish);
             return "A server has cancelled " + DishInterpreter.dishToString(dish)
                     + " and it has been removed from the order.";
         } else if (!dish.isPossible()) {
+            String conflict = dish.setStatus("cancelled", expectedVersion);
+            if (conflict != null) {
+                return conflict;
+            }
             order.removeDish(dish);
-            dish.setStatus("cancelled");
+            notifyServer(order, dish, "cancelled");
             return "Not enough ingredients to make" + DishInterpreter.dishToString(dish)
                     + ". The dish has been removed from the order.";
         }
@@ -82,8 +87,22 @@ public class Chef extends Employee {
                 break;
             }
         }
-        dish.create();
-        dish.setStatus("prepared");
+        dish.setChefId(toString());
+        long cooked = dish.claimStatus("prepared", expectedVersion);
+        if (cooked == 0) {
+            return dish.getName() + " was changed by someone else and is now " + dish.getStatus() + ".";
+        }
+        if (!dish.create()) {
+            String conflict = dish.setStatus("cancelled", cooked);
+            if (conflict != null) {
+                return conflict;
+            }
+            order.removeDish(dish);
+            notifyServer(order, dish, "cancelled");
+            return "The ingredients for " + DishInterpreter.dishToString(dish)
+                    + " ran out while it was cooked. The dish has been removed from the order.";
+        }
+        notifyServer(order, dish, "prepared");
         LogWriter.writeIn("Chef " + getJobId() + " has finished cooking " + DishInterpreter.dishToString(dish)
                 + " from table " + order.getTableNumber() + "'s order.");
         return null;
@@ -91,47 +110,65 @@ public class Chef extends Employee {
 
     /**
      * Removes the order from the chef's responsibilities. This can either be a cancellation of some sort or the chef
-     * has completed the order.
+     * has completed the order. Cancelling only cancels the dishes that are still waiting or being cooked; if one of
+     * them is changed by someone else at the same time, it is left as they set it and the order stays in the kitchen.
      *
      * @param order   The order that the dish is from
      * @param routine Checks if it is a routine completed order, or a cancelled order instead
+     * @return null if the order was removed, otherwise why not
      */
-    public void removeOrder(Order order, boolean routine) {
+    public String removeOrder(Order order, boolean routine) {
         if (!routine) {
-            String orderLog = "Chef " + getJobId() + " has cancelled the following order:";
-            for (Recipe dish : order.getStatusDishes("waiting")) {
-                dish.setStatus("cancelled");
-                String cancelledLog = DishInterpreter.dishToString(dish);
-            }
-            for (Recipe dish : order.getStatusDishes("cooking")) {
-                dish.setStatus("cancelled");
-                String cancelledLog = DishInterpreter.dishToString(dish);
+            for (Recipe dish : order.getDishes()) {
+                long version = Math.max(dish.getVersionIf("waiting"), dish.getVersionIf("acknowledged"));
+                if (version == 0) {
+                    continue;
+                }
+                String conflict = dish.setStatus("cancelled", version);
+                if (conflict != null) {
+                    return conflict;
+                }
+                notifyServer(order, dish, "cancelled");
             }
+            LogWriter.writeIn("Chef " + getJobId() + " has cancelled table " + order.getTableNumber()
+                    + "'s order.");
         } else {
             LogWriter.writeIn("Chef " + getJobId() + " has just completed an order for table "
                     + order.getTableNumber() + ".");
         }
         chefOrders.remove(order);
+        return null;
     }
 
     /**
-     * Allows for the chef to cancel a dish
+     * Allows for the chef to cancel a dish, unless someone else has changed it since the chef last looked at it
      *
-     * @param order The order the dish is from
-     * @param dish  The dish that is being cancelled
+     * @param order           The order the dish is from
+     * @param dish            The dish that is being cancelled
+     * @param expectedVersion The version stamp of the dish when the chef last looked at it
+     * @return null if the dish was cancelled, otherwise why not
      */
-    public void cancelDish(Order order, Recipe dish) {
+    public String cancelDish(Order order, Recipe dish, long expectedVersion) {
+        String conflict = dish.setStatus("cancelled", expectedVersion);
+        if (conflict != null) {
+            return conflict;
+        }
         order.removeDish(dish);
-        dish.setStatus("cancelled");
+        notifyServer(order, dish, "cancelled");
         LogWriter.writeIn("Chef" + getJobId() + " has cancelled " + DishInterpreter.dishToString(dish)
                 + " from table " + order.getTableNumber() + "'s order.");
+        return null;
     }
 
-    public static int getNumOfChefs() {
-        return numOfChefs;
-    }
-
-    public static void setNumOfChefs(int numChefs) {
-        numOfChefs = numChefs;
+    /**
+     * Tells the server of an order what has happened to one of its dishes, straight away.
+     *
+     * @param order The order that the dish is from
+     * @param dish  The dish
+     * @param kind  What happened to the dish, ex. "prepared"
+     */
+    private void notifyServer(Order order, Recipe dish, String kind) {
+        NotificationBus.getBus().publish(new Notification(kind, order.getTableNumber(), order.getServerKey(),
+                dish.getName(), System.currentTimeMillis()));
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,7 @@
 package employees;
 
-import dishes.Combo;
-import dishes.Food;
-import dishes.Recipe;
 import restaurant.Inventory;
-
-import java.io.*;
-import java.util.ArrayList;
-import java.util.HashMap;
+import restaurant.PurchaseOrder;
 
 /**
  * A abstract class for all employees. This class will declare all common attributes between any kind of employee,
@@ -63,44 +57,22 @@ public abstract class Employee {
     }
 
     /**
-     * Reads through requests.txt and will receive the new shipments of ingredients.
+     * Getter method for the employee's job type
+     *
+     * @return the job type of the employee (Chef, Server or Manager)
+     */
+    public String getJobType() {
+        return this.jobType;
+    }
+
+    /**
+     * Receives the new shipments of ingredients for every purchase order that has been sent.
      */
     public void receive() {
         if (receiver) {
-            try {
-                String request;
-                File requests = new File("Requests.txt");
-                FileReader requestReader = new FileReader(requests);
-                BufferedReader requestLine = new BufferedReader(requestReader);
-                File unreceivedRequests = new File("tempRequests.txt");
-                BufferedWriter unreceivedRequest = new BufferedWriter(new FileWriter(unreceivedRequests, false));
-                if (!unreceivedRequests.exists()) {
-                    if (unreceivedRequests.createNewFile()) {
-                        System.out.println("Successfully created new file.");
-                    } else {
-                        System.err.println("Failed to create new file.");
-                    }
-                }
-                while ((request = requestLine.readLine()) != null) {
-                    if (request.contains("(Email Sent)")) {
-                        String[] array = request.split(" ");
-                        String ingredient = request.substring(request.indexOf(array[4]), request.indexOf("."));
-                        int quantity = Integer.parseInt(array[2]);
-                        this.inventory.addIngredient(ingredient, quantity);
-                        System.out.println("Successfully received " + quantity + " units of " + ingredient + ".");
-                    } else {
-                        unreceivedRequest.write(request);
-                    }
-                }
-                requestReader.close(); //close the file
-                unreceivedRequest.close();
-                if (!(unreceivedRequests.renameTo(requests))) {
-                    System.err.println("Could not rename file into Employees.txt");
-                }
-            } catch (FileNotFoundException e) {
-                System.out.println("File does not exist!");
-            } catch (IOException c) {
-                System.out.println("Unknown file error occurred.");
+            for (PurchaseOrder order : inventory.getPurchaseOrders().receiveSent(inventory)) {
+                System.out.println("Successfully received " + order.getQuantity() + " units of "
+                        + order.getIngredient() + ".");
             }
             if (this instanceof Manager) {
                 ((Manager) this).sendRequests();
@@ -112,6 +84,6 @@ public abstract class Employee {
 
     @Override
     public String toString() {
-        return jobType + "_" + jobId;
+        return EmployeeDirectory.employeeKey(jobType, jobId);
     }
 }
\ No newline at end of file
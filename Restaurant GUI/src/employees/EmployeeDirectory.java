@@ -0,0 +1,153 @@
+package employees;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+
+/**
+ * Keeps track of the employees currently working in the restaurant. Every employee is indexed by their id string
+ * (ex. "Chef_3"), so any employee can be found by role and id without going through the whole staff.
+ * The directory also hands out the job ids for new employees, one id allocator for each kind of employee.
+ */
+public class EmployeeDirectory {
+    private LinkedHashMap<String, Employee> employees; //Maps employee ids to employees, in the order they were hired
+    private HashMap<String, IdAllocator> idAllocators; //Maps job types to the allocator of their ids
+
+    /**
+     * Creates an empty employee directory.
+     */
+    public EmployeeDirectory() {
+        employees = new LinkedHashMap<>();
+        idAllocators = new HashMap<>();
+        idAllocators.put("Chef", new IdAllocator());
+        idAllocators.put("Server", new IdAllocator());
+        idAllocators.put("Manager", new IdAllocator());
+    }
+
+    /**
+     * Returns the id string of an employee of a certain job type, ex. "Chef_3"
+     *
+     * @param jobType The job type of the employee (Chef, Server or Manager)
+     * @param jobId   The job id of the employee
+     * @return The id string of the employee
+     */
+    public static String employeeKey(String jobType, int jobId) {
+        return jobType + "_" + jobId;
+    }
+
+    /**
+     * Returns the smallest job id that is free for a new employee of a certain job type, and marks it as used.
+     * The id should be given to the employee that is hired next.
+     *
+     * @param jobType The job type of the new employee (Chef, Server or Manager)
+     * @return The job id for the new employee
+     */
+    public int allocateId(String jobType) {
+        return idAllocators.get(jobType).allocate();
+    }
+
+    /**
+     * Frees up the id of an employee who was fired before the restaurant started, so that it can be reused.
+     *
+     * @param employeeId The id string of the fired employee, ex. "Chef_4"
+     */
+    public void releaseId(String employeeId) {
+        String[] separate = employeeId.split("_");
+        IdAllocator idAllocator = idAllocators.get(separate[0]);
+        if (idAllocator != null) {
+            idAllocator.release(Integer.parseInt(separate[1]));
+        }
+    }
+
+    /**
+     * Adds a newly hired employee into the directory. Nothing is done if an employee with the same id is
+     * already working.
+     *
+     * @param employee The employee that was hired
+     * @return Whether the employee was added
+     */
+    public synchronized boolean hire(Employee employee) {
+        if (employees.containsKey(employee.toString())) {
+            return false;
+        }
+        employees.put(employee.toString(), employee);
+        idAllocators.get(employee.getJobType()).reserve(employee.getJobId());
+        return true;
+    }
+
+    /**
+     * Removes a fired employee from the directory and frees up their id.
+     *
+     * @param employee The employee that was fired
+     * @return Whether the employee was working in the restaurant
+     */
+    public synchronized boolean fire(Employee employee) {
+        if (employees.remove(employee.toString()) == null) {
+            return false;
+        }
+        idAllocators.get(employee.getJobType()).release(employee.getJobId());
+        return true;
+    }
+
+    /**
+     * Returns the employee with this id string. Returns null if no such employee is working.
+     *
+     * @param employeeId The id string of the employee, ex. "Server_2"
+     * @return The employee with this id
+     */
+    public synchronized Employee getEmployee(String employeeId) {
+        return employees.get(employeeId);
+    }
+
+    /**
+     * Returns the server with this id. Returns null if no such server is working.
+     *
+     * @param jobId The id of the server
+     * @return The server with this id
+     */
+    public synchronized Server getServer(int jobId) {
+        Employee employee = employees.get(employeeKey("Server", jobId));
+        return employee instanceof Server ? (Server) employee : null;
+    }
+
+    /**
+     * Returns the chef with this id. Returns null if no such chef is working.
+     *
+     * @param jobId The id of the chef
+     * @return The chef with this id
+     */
+    public synchronized Chef getChef(int jobId) {
+        Employee employee = employees.get(employeeKey("Chef", jobId));
+        return employee instanceof Chef ? (Chef) employee : null;
+    }
+
+    /**
+     * Returns the manager with this id. Returns null if no such manager is working.
+     *
+     * @param jobId The id of the manager
+     * @return The manager with this id
+     */
+    public synchronized Manager getManager(int jobId) {
+        Employee employee = employees.get(employeeKey("Manager", jobId));
+        return employee instanceof Manager ? (Manager) employee : null;
+    }
+
+    /**
+     * Returns all the employees currently working, in the order they were hired
+     *
+     * @return A copy of the list of employees
+     */
+    public synchronized Collection<Employee> getEmployees() {
+        return new ArrayList<>(employees.values());
+    }
+
+    /**
+     * Returns the number of employees currently working
+     *
+     * @return The number of employees
+     */
+    public synchronized int size() {
+        return employees.size();
+    }
+}
@@ -0,0 +1,139 @@
+package employees;
+
+import storage.LogStore;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the record of hired and fired employees in the restaurant's store. Each employee is a single key, ex.
+ * "employee/Chef_3" is "hired" and "employee/Server_2" is "fired", so hiring or firing someone is one small
+ * transaction, and the ids of fired employees can be reused.
+ */
+public class EmployeeRoster {
+    private static final String PREFIX = "employee/";
+    private static final Pattern RECORD = Pattern.compile("(hire|fire) ((Chef|Server|Manager)_\\d+);");
+    private static final Pattern EMPLOYEE_ID = Pattern.compile("(Chef|Server|Manager)_\\d+");
+
+    private LogStore store;
+
+    /**
+     * Opens the roster kept in a store.
+     *
+     * @param store The store of the restaurant
+     */
+    public EmployeeRoster(LogStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Records that an employee has been hired, and waits until it is on disk. If the employee's id was fired before,
+     * it is no longer free.
+     *
+     * @param employeeId The id of the employee, ex. "Chef_3"
+     * @return Whether it was saved
+     */
+    public boolean hire(String employeeId) {
+        return store.begin().put(PREFIX + employeeId, "hired").commitAndWait();
+    }
+
+    /**
+     * Records that an employee has been fired, which frees up their id to be reused, and waits until it is on disk.
+     *
+     * @param employeeId The id of the employee, ex. "Chef_3"
+     * @return Whether it was saved
+     */
+    public boolean fire(String employeeId) {
+        return store.begin().put(PREFIX + employeeId, "fired").commitAndWait();
+    }
+
+    /**
+     * Returns the ids of the employees currently hired, in the order they were first hired
+     *
+     * @return The ids of the hired employees
+     */
+    public ArrayList<String> getHired() {
+        return withStatus("hired");
+    }
+
+    /**
+     * Returns the ids of the fired employees that have not been reused yet
+     *
+     * @return The ids of the fired employees
+     */
+    public ArrayList<String> getFired() {
+        return withStatus("fired");
+    }
+
+    private ArrayList<String> withStatus(String status) {
+        ArrayList<String> employeeIds = new ArrayList<>();
+        for (Map.Entry<String, String> employee : store.scan(PREFIX).entrySet()) {
+            if (employee.getValue().equals(status)) {
+                employeeIds.add(employee.getKey());
+            }
+        }
+        return employeeIds;
+    }
+
+    /**
+     * Adds the employees kept in text files before the store onto a transaction. They are read from Roster.txt if
+     * there is one, otherwise from the even older Employees.txt and FiredIds.txt.
+     *
+     * @param transaction The transaction to add them to
+     */
+    public static void importTextFiles(LogStore.Transaction transaction) {
+        File roster = new File("Roster.txt");
+        if (roster.exists()) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(roster))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Matcher record = RECORD.matcher(line.trim());
+                    if (record.matches()) {
+                        transaction.put(PREFIX + record.group(2),
+                                record.group(1).equals("hire") ? "hired" : "fired");
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Problem reading " + roster.getName());
+            }
+            return;
+        }
+        ArrayList<String> hired = readEmployeeIds(new File("Employees.txt"));
+        for (String employeeId : hired) {
+            transaction.put(PREFIX + employeeId, "hired");
+        }
+        for (String employeeId : readEmployeeIds(new File("FiredIds.txt"))) {
+            if (!hired.contains(employeeId)) {
+                transaction.put(PREFIX + employeeId, "fired");
+            }
+        }
+    }
+
+    /**
+     * Returns every employee id found in a file, even if more than one id ended up on the same line
+     *
+     * @param file The file to read
+     * @return The employee ids in the file
+     */
+    private static ArrayList<String> readEmployeeIds(File file) {
+        ArrayList<String> employeeIds = new ArrayList<>();
+        if (!file.exists()) {
+            return employeeIds;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher employeeId = EMPLOYEE_ID.matcher(line);
+                while (employeeId.find()) {
+                    employeeIds.add(employeeId.group());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Problem reading " + file.getName());
+        }
+        return employeeIds;
+    }
+}
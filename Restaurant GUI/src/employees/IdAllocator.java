@@ -0,0 +1,66 @@
+package employees;
+
+import java.util.HashSet;
+import java.util.TreeSet;
+
+/**
+ * Hands out job ids for one kind of employee. Ids of fired employees are kept in a sorted set so that the smallest
+ * free id is always reused first, otherwise a new id one bigger than any id used so far is given out. Reserving an
+ * id that is free takes it off the set in logarithmic time.
+ * The allocator itself is not saved; it is rebuilt from the employee roster when the restaurant starts.
+ */
+public class IdAllocator {
+    private TreeSet<Integer> freeIds;
+    private HashSet<Integer> usedIds;
+    private int largestId;
+
+    /**
+     * Creates an allocator where no ids have been used yet.
+     */
+    public IdAllocator() {
+        freeIds = new TreeSet<>();
+        usedIds = new HashSet<>();
+        largestId = 0;
+    }
+
+    /**
+     * Returns the smallest free id and marks it as used.
+     *
+     * @return An id that no other employee of this kind has
+     */
+    public synchronized int allocate() {
+        int id;
+        if (freeIds.isEmpty()) {
+            id = ++largestId;
+        } else {
+            id = freeIds.pollFirst();
+        }
+        usedIds.add(id);
+        return id;
+    }
+
+    /**
+     * Marks an id as used, ex. when an existing employee is loaded from the roster.
+     *
+     * @param id The id that is in use
+     */
+    public synchronized void reserve(int id) {
+        if (usedIds.add(id)) {
+            freeIds.remove(id);
+            largestId = Math.max(largestId, id);
+        }
+    }
+
+    /**
+     * Gives an id back so that it can be reused by the next employee that is hired. This is also used to load
+     * the ids of employees fired before the restaurant started.
+     *
+     * @param id The id of the employee that was fired
+     */
+    public synchronized void release(int id) {
+        usedIds.remove(id);
+        if (freeIds.add(id)) {
+            largestId = Math.max(largestId, id);
+        }
+    }
+}
@@ -1,8 +1,7 @@
 package employees;
 
 import restaurant.Inventory;
-
-import java.io.*;
+import restaurant.PurchaseOrder;
 
 /**
  * The manager class. Will assign receiver duties to other employees and can receive themselves.
@@ -12,17 +11,8 @@ import java.io.*;
  */
 public class Manager extends Employee {
 
-    private static int numOfManagers = 0;
-
-    public Manager(Inventory inventory) {
-        super(true, "Manager", numOfManagers + 1);
-        this.inventory = inventory;
-        setReceiver(true, inventory);
-        numOfManagers++;
-    }
-
-    public Manager(Inventory inventory, int oldId) {
-        super(false, "Manager", oldId);
+    public Manager(Inventory inventory, int jobId) {
+        super(false, "Manager", jobId);
         this.inventory = inventory;
         setReceiver(true, inventory);
     }
@@ -37,41 +27,14 @@ public class Manager extends Employee {
     }
 
     /**
-     * This method has the manager indicate that they have sent the emails for new ingredient requests and will replace
-     * the old requests.txt with a new updated one
+     * This method has the manager indicate that they have sent the emails for the pending ingredient requests,
+     * which marks those purchase orders as sent.
      */
     protected void sendRequests() {
-        try {
-            String request;
-            File requests = new File("Requests.txt");
-            FileReader requestReader = new FileReader(requests);
-            BufferedReader requestLine = new BufferedReader(requestReader);
-            File updatedRequests = new File("tempRequests.txt");
-            BufferedWriter updatedRequest = new BufferedWriter(new FileWriter(updatedRequests, false));
-            if (!updatedRequests.exists()) {
-                if (!updatedRequests.createNewFile()) {
-                    System.err.println("Failed to create new file.");
-                }
-            }
-            while ((request = requestLine.readLine()) != null) {
-                //loop through all the lines of text and add that the email is sent.
-                if (!request.contains("Email")) {
-                    updatedRequest.write(request + "(Email Sent)");
-                } else {
-                    updatedRequest.write(request);
-                }
-            }
-            requestReader.close(); //close the file
-            updatedRequest.close();
-            System.out.println("Emails for new ingredients have been sent.");
-            if (!(updatedRequests.renameTo(requests))) {
-                System.err.println("Could not rename file into Employees.txt");
-            }
-        } catch (FileNotFoundException e) {
-            System.out.println("File does not exist!");
-        } catch (IOException c) {
-            System.out.println("Unknown file error occurred.");
+        for (PurchaseOrder order : inventory.getPurchaseOrders().sendPending()) {
+            System.out.println("Email sent: " + order.toString());
         }
+        System.out.println("Emails for new ingredients have been sent.");
     }
 
     /**
@@ -80,13 +43,4 @@ public class Manager extends Employee {
     public void checkInventory() {
         System.out.println(inventory.toString());
     }
-
-    public static int getNumOfManagers() {
-        return numOfManagers;
-    }
-
-    // used to set the number of managers in case there are already employees in the database.
-    public static void setNumOfManagers(int numManagers) {
-        numOfManagers = numManagers;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+package employees;
+
+import storage.LogStore;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * Checks that the employee roster keeps every hire and fire that was confirmed, however the program is stopped.
+ * <p>
+ * Each round starts another program that keeps hiring and firing random employees in a roster, printing each change
+ * before it makes it and again once it is on disk, and kills that program at a random moment. The roster is then
+ * opened again, and every employee must have the status of the last change confirmed for them, except that the one
+ * change being made when the program was killed may or may not have made it. Every other round also ends the file
+ * with half of a transaction, the way a write cut off by a power cut would, which must be left out.
+ * <p>
+ * The roster is kept in a temporary folder, so this does not touch the data folder. The number of rounds and the
+ * random seed can be given as arguments. Prints whether every round passed, and exits with 1 if one did not.
+ */
+public class RosterCrashCheck {
+    private static final int DEFAULT_ROUNDS = 20;
+    private static final int EMPLOYEES = 40;
+    private static final long MAX_RUN_MILLIS = 800; //The longest a round runs before it is killed
+
+    private File storeFile;
+    private Random random;
+    private HashMap<String, String> expected; //Maps employee ids to their status as of the last round
+
+    private RosterCrashCheck(File storeFile, long seed) {
+        this.storeFile = storeFile;
+        random = new Random(seed);
+        expected = new HashMap<>();
+    }
+
+    /**
+     * Runs one round: starts the other program, kills it, and checks the roster it left behind.
+     *
+     * @return null if the round passed, otherwise what went wrong
+     */
+    private String round(int round) throws IOException, InterruptedException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        File said = new File(storeFile.getParentFile(), "changes.txt");
+        Process child = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                RosterCrashCheck.class.getName(), "child", storeFile.getPath(), Long.toString(random.nextLong()))
+                .redirectOutput(said).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        Thread.sleep(50 + random.nextInt((int) MAX_RUN_MILLIS));
+        child.destroyForcibly().waitFor();
+
+        //What the other program said it did, in order
+        String started = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(said),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ");
+                if (parts.length != 3) {
+                    continue; //Cut off when the program was killed
+                }
+                if (parts[0].equals("start")) {
+                    started = parts[1] + " " + parts[2];
+                } else if (parts[0].equals("done")) {
+                    expected.put(parts[1], parts[2]);
+                    started = null;
+                }
+            }
+        }
+
+        if (round % 2 == 1) {
+            try (FileOutputStream out = new FileOutputStream(storeFile, true)) {
+                out.write("put employee/Chef_1 = fir".getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        LogStore store = LogStore.open(storeFile.getPath());
+        try {
+            EmployeeRoster roster = new EmployeeRoster(store);
+            HashMap<String, String> found = new HashMap<>();
+            for (String employeeId : roster.getHired()) {
+                found.put(employeeId, "hired");
+            }
+            for (String employeeId : roster.getFired()) {
+                found.put(employeeId, "fired");
+            }
+            if (started != null) {
+                String[] change = started.split(" ");
+                if (change[1].equals(found.get(change[0]))) {
+                    expected.put(change[0], change[1]); //The change being made when it was killed made it
+                }
+            }
+            if (!found.equals(expected)) {
+                return "round " + round + " expected " + expected + " but found " + found;
+            }
+            if (!roster.hire("Manager_1") || !roster.fire("Manager_1")) {
+                return "round " + round + " could not write to the roster after opening it again";
+            }
+            expected.put("Manager_1", "fired");
+        } finally {
+            store.close();
+        }
+        return null;
+    }
+
+    /**
+     * Keeps hiring and firing random employees until the program is killed, printing each change before it is made
+     * and once it is on disk.
+     */
+    private static void child(String storeFile, long seed) {
+        Random random = new Random(seed);
+        EmployeeRoster roster = new EmployeeRoster(LogStore.open(storeFile));
+        while (true) {
+            String employeeId = (random.nextBoolean() ? "Chef_" : "Server_") + (1 + random.nextInt(EMPLOYEES));
+            boolean hire = random.nextBoolean();
+            String status = hire ? "hired" : "fired";
+            System.out.println("start " + employeeId + " " + status);
+            System.out.flush();
+            if (hire ? roster.hire(employeeId) : roster.fire(employeeId)) {
+                System.out.println("done " + employeeId + " " + status);
+                System.out.flush();
+            }
+        }
+    }
+
+    /**
+     * Runs the rounds and prints how it went.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 3 && args[0].equals("child")) {
+            child(args[1], Long.parseLong(args[2]));
+            return;
+        }
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROUNDS;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+
+        File folder = Files.createTempDirectory("roster-check").toFile();
+        File storeFile = new File(folder, "Roster.db");
+        RosterCrashCheck check = new RosterCrashCheck(storeFile, seed);
+        String problem = null;
+        for (int round = 0; round < rounds && problem == null; round++) {
+            problem = check.round(round);
+        }
+        for (File file : folder.listFiles()) {
+            file.delete();
+        }
+        folder.delete();
+        if (problem != null) {
+            System.out.println("FAILED with seed " + seed + ": " + problem);
+            System.exit(1);
+        }
+        System.out.println(rounds + " rounds with seed " + seed + " passed");
+    }
+}
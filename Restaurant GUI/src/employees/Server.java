@@ -3,15 +3,24 @@ package employees;
 
 import GUI.BillCreator;
 import GUI.Controllers.LogWriter;
-import com.sun.xml.internal.ws.api.message.ExceptionHasMessage;
 import dishes.*;
 import javafx.stage.Stage;
 import restaurant.Bill;
+import restaurant.BillSplitter;
+import restaurant.BillSummary;
+import restaurant.DishHistory;
+import restaurant.KitchenQueue;
+import restaurant.KitchenStats;
 import restaurant.Menu;
 import restaurant.Order;
+import restaurant.PaymentLedger;
+import restaurant.Table;
 import dishes.DishInterpreter;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * The server class. Can create orders and give them to the chef. Will acknowledge when the order/food is delivered.
@@ -21,18 +30,15 @@ import java.util.ArrayList;
  */
 public class Server extends Employee {
 
-    private static int numOfServers = 0;
     private ArrayList<Order> orders;
+    private PaymentLedger payments;
+    private DishHistory history;
 
-    public Server() {
-        super(false, "Server", numOfServers + 1);
-        this.orders = new ArrayList<>();
-        numOfServers++;
-    }
-
-    public Server(int oldId) {
-        super(false, "Server", oldId);
+    public Server(int jobId, PaymentLedger payments, DishHistory history) {
+        super(false, "Server", jobId);
         this.orders = new ArrayList<>();
+        this.payments = payments;
+        this.history = history;
     }
 
     /**
@@ -42,7 +48,7 @@ public class Server extends Employee {
      * @param menu        The restaurant's menu
      * @return The order so that it can be held in the restaurant's database
      */
-    public Order createOrder(int tableNumber, Menu menu) {
+    public synchronized Order createOrder(int tableNumber, Menu menu) {
         for (Order currOrder : orders) {
             if (currOrder.getStatusDishes("prepared").size() > 0) {
                 return null;
@@ -53,6 +59,53 @@ public class Server extends Employee {
         return order;
     }
 
+    /**
+     * Seats customers at a table and takes the table on, with a new order. This is how both the table screen and
+     * the restaurant service open a table.
+     *
+     * @param table     The table the customers are seated at
+     * @param menu      The restaurant's menu
+     * @param customers The number of customers
+     * @return null if the table was opened, otherwise why not
+     */
+    public String openTable(Table table, Menu menu, int customers) {
+        if (!table.getStatus().equals("unoccupied")) {
+            return "Table " + table.getTableNumber() + " is already " + table.getStatus();
+        }
+        if (customers < 1 || customers > table.getSize()) {
+            return "Table " + table.getTableNumber() + " seats " + table.getSize();
+        }
+        Order order = createOrder(table.getTableNumber(), menu);
+        if (order == null) {
+            return "Server " + getJobId() + " has a dish waiting to be delivered";
+        }
+        table.setStatus("occupied");
+        table.setServer(this);
+        table.setOrder(order);
+        table.setNumberOfOccupants(customers);
+        return null;
+    }
+
+    /**
+     * Clears a table once its customers have left, removing its order from this server's responsibilities. This is
+     * how both the table screen and the restaurant service close a table. If a dish is changed by someone else while
+     * the table is closed, the table is kept, see removeOrder.
+     *
+     * @param table The table
+     * @return null if the table was cleared, otherwise why not
+     */
+    public String closeTable(Table table) {
+        String conflict = removeOrder(table.getOrder());
+        if (conflict != null) {
+            return conflict;
+        }
+        table.setStatus("unoccupied");
+        table.setOrder(null);
+        table.setServer(null);
+        table.setNumberOfOccupants(0);
+        return null;
+    }
+
     /**
      * Adds a specific dish to the specified order.
      *
@@ -80,68 +133,173 @@ public class Server extends Employee {
 
     /**
      * Allows customers to make accommodations to their dishes by adding extra ingredients they want or taking away the
-     * ingredients they do not want. You can only add or subtract existing ingredients.
+     * ingredients they do not want. You can only add or subtract existing ingredients. If a chef or another server
+     * has changed the dish since the server last looked at it, or there is not enough stock for the change, nothing
+     * is changed. The change is checked against the stock, and against any ingredients already reserved for the
+     * dish, before the dish is given a new version stamp, so a change that is turned away does not get in the way
+     * of anyone else.
      *
-     * @param dish       the dish that accommodations are being made on
-     * @param foodName   the specific dishes' name
-     * @param ingredient the ingredient being added or subtracted
-     * @param quantity   the amount that is being added or subtracted
+     * @param dish            the dish that accommodations are being made on
+     * @param expectedVersion the version stamp of the dish when the server last looked at it
+     * @param food            the position of the food in a combo, ex. from Combo.getFoods(), or 0 for a food
+     * @param ingredient      the ingredient being added or subtracted
+     * @param quantity        the amount that is being added or subtracted
+     * @return the new version stamp of the dish
+     * @throws AccommodationException if the dish was changed by someone else or there is not enough stock
      */
-    public void makeAccommodation(Recipe dish, String foodName, String ingredient, int quantity) throws Exception {
-        int accommodationAmount = quantity;
-        if (accommodationAmount < 0) {
-            if (dish.getIngredients().get(ingredient) < accommodationAmount * -1) {
-                accommodationAmount = dish.getIngredients().get(ingredient) * -1;
+    public long makeAccommodation(Recipe dish, long expectedVersion, int food, String ingredient,
+                                  int quantity) throws AccommodationException {
+        //Servers changing the same dish take turns, so a reservation is only put back to what it was changed from
+        synchronized (dish) {
+            if (dish.getVersion() != expectedVersion) {
+                throw changedByOthers(dish);
             }
-            dish.subtractIngredient(ingredient, accommodationAmount * -1);
-        } else {
-            dish.addIngredient(ingredient, accommodationAmount);
+            HashMap<String, Integer> previous = new HashMap<>(dish.getIngredients());
+            int accommodationAmount = quantity;
+            int current = previous.getOrDefault(ingredient, 0);
+            if (accommodationAmount < 0 && current < accommodationAmount * -1) {
+                accommodationAmount = current * -1;
+            }
+            HashMap<String, Integer> changed = new HashMap<>(previous);
+            changed.put(ingredient, current + accommodationAmount);
+            String shortage = dish.reserveChanges(changed);
+            if (shortage != null) {
+                throw new AccommodationException("There is not enough " + shortage + " left to change "
+                        + dish.getName() + ".", false);
+            }
+            long version = dish.stampEdit(expectedVersion);
+            if (version == 0) {
+                dish.reserveChanges(previous);
+                throw changedByOthers(dish);
+            }
+            if (accommodationAmount < 0) {
+                dish.subtractIngredient(ingredient, accommodationAmount * -1);
+            } else {
+                dish.addIngredient(ingredient, accommodationAmount);
+            }
+            writeInstructions(dish, food, ingredient, accommodationAmount);
+            return version;
         }
-        if (dish.isPossible()) {
-            if (dish instanceof Combo) {
-                String previousInstructions = ((Combo) dish).getInstructions().get(foodName);
-                if (previousInstructions.equals("")) {
-                    ((Combo) dish).setInstructions(foodName, accommodationAmount + ": " + ingredient);
-                } else {
-                    ((Combo) dish).setInstructions(foodName,
-                            instructionUpdater(previousInstructions, ingredient, accommodationAmount));
-                }
+    }
+
+    /**
+     * Returns the exception for a dish that someone else changed first.
+     */
+    private AccommodationException changedByOthers(Recipe dish) {
+        return new AccommodationException(dish.getName() + " was changed by someone else and is now "
+                + dish.getStatus() + ".", true);
+    }
+
+    /**
+     * Adds an accommodation onto the instructions for the chef on a dish, or on one food of a combo.
+     */
+    private void writeInstructions(Recipe dish, int food, String ingredient, int accommodationAmount) {
+        if (dish instanceof Combo) {
+            String previousInstructions = ((Combo) dish).getInstructions(food);
+            if (previousInstructions.equals("")) {
+                ((Combo) dish).setInstructions(food, accommodationAmount + ": " + ingredient);
             } else {
-                String previousInstructions = ((Food) dish).getInstructions();
-                if (previousInstructions.equals("")) {
-                    ((Food) dish).setInstructions(accommodationAmount + ": " + ingredient);
-                } else {
-                    ((Food) dish).setInstructions(instructionUpdater(previousInstructions, ingredient,
-                            accommodationAmount));
-                }
+                ((Combo) dish).setInstructions(food,
+                        instructionUpdater(previousInstructions, ingredient, accommodationAmount));
             }
         } else {
-            dish.subtractIngredient(ingredient, accommodationAmount);
-            throw new Exception();
+            String previousInstructions = ((Food) dish).getInstructions();
+            if (previousInstructions.equals("")) {
+                ((Food) dish).setInstructions(accommodationAmount + ": " + ingredient);
+            } else {
+                ((Food) dish).setInstructions(instructionUpdater(previousInstructions, ingredient,
+                        accommodationAmount));
+            }
         }
     }
 
     /**
-     * Removes the specified dish from the order
+     * Removes the specified dish from the order, unless a chef or another server has changed the dish since the
+     * server last looked at it.
      *
-     * @param order the order that the dish is being removed from
-     * @param dish  the dish that is being removed
+     * @param order           the order that the dish is being removed from
+     * @param dish            the dish that is being removed
+     * @param expectedVersion the version stamp of the dish when the server last looked at it
+     * @return null if the dish was removed, otherwise why not
      */
-    public void removeFromOrder(Order order, Recipe dish) {
-        dish.setStatus("cancelled");
+    public String removeFromOrder(Order order, Recipe dish, long expectedVersion) {
+        String conflict = dish.setStatus("cancelled", expectedVersion);
+        if (conflict != null) {
+            return conflict;
+        }
         order.removeDish(dish);
         LogWriter.writeIn("Server " + getJobId() + " has removed " + dish.getName() + " from the order.");
+        return null;
     }
 
     /**
-     * Allows the order to be confirmed. It will log the confirmation to the logger accordingly.
+     * Sends the dishes of a table that have not been confirmed to the kitchen, as one order. This is how both the
+     * table order screen and the restaurant service confirm an order. The ingredients of each dish are reserved as it
+     * is confirmed, and a dish is cancelled if its ingredients have already been promised to other orders. If the
+     * kitchen has no room for another order, nothing changes: the dishes stay unconfirmed and nothing is held for
+     * them. A dish that someone else changes at the same time is left as they set it.
+     *
+     * @param table      The table whose order is confirmed
+     * @param menu       The restaurant's menu
+     * @param chefOrders The queue of orders that the chefs look at
+     * @param cancelled  Where the dishes cancelled for lack of ingredients are added
+     * @param conflicts  Where the reasons are added for the dishes that someone else changed first
+     * @return The order sent to the kitchen, or null if the kitchen is too full to take it
+     */
+    public Order confirmOrder(Table table, Menu menu, KitchenQueue chefOrders, List<Recipe> cancelled,
+                              List<String> conflicts) {
+        if (!chefOrders.makeRoom()) {
+            return null;
+        }
+        Order orderToChef = new Order(table.getTableNumber(), menu);
+        HashMap<Recipe, Long> unavailableDishes = new HashMap<>(); //Maps dishes to their version once unconfirmed
+        for (Recipe dish : table.getOrder().getStatusDishes("unconfirmed")) {
+            String conflict = dish.setStatus("waiting", dish.getVersionIf("unconfirmed"));
+            if (conflict != null) {
+                conflicts.add(conflict);
+            } else if (!dish.reserve()) {
+                dish.unconfirm();
+                unavailableDishes.put(dish, dish.getVersionIf("unconfirmed"));
+            } else {
+                orderToChef.addDish(dish);
+            }
+        }
+        if (!sendOrder(orderToChef, chefOrders)) {
+            return null;
+        }
+        for (Map.Entry<Recipe, Long> dish : unavailableDishes.entrySet()) {
+            String conflict = dish.getKey().setStatus("cancelled", dish.getValue());
+            if (conflict != null) {
+                conflicts.add(conflict);
+            } else {
+                cancelled.add(dish.getKey());
+            }
+        }
+        table.setStatus("ordered");
+        return orderToChef;
+    }
+
+    /**
+     * Sends an order to the kitchen. It will log the confirmation to the logger accordingly. If the kitchen is
+     * too full to take the order, its dishes go back to unconfirmed so that their ingredients are no longer promised
+     * and the order can be confirmed again later.
      *
      * @param order      The order that is ready to be sent of to the chefs
-     * @param chefOrders The global list of orders that the chef look at
+     * @param chefOrders The queue of orders that the chefs look at
+     * @return false if the kitchen could not take the order
      */
-    public void confirmOrder(Order order, ArrayList<Order> chefOrders) {
+    private boolean sendOrder(Order order, KitchenQueue chefOrders) {
+        order.setServerKey(toString());
         if (order.getStatusDishes("waiting").size() > 0) {
-            chefOrders.add(order);
+            if (!chefOrders.offer(order)) {
+                for (Recipe dish : order.getStatusDishes("waiting")) {
+                    dish.unconfirm();
+                }
+                LogWriter.writeIn("Server " + getJobId() + " could not send table " + order.getTableNumber()
+                        + "'s order because the kitchen is full.");
+                return false;
+            }
+            KitchenStats.getStats().recordTicket(System.currentTimeMillis());
             StringBuilder confirmLog = new StringBuilder(200);
             String beginLog = "Server " + getJobId() + " has just taken the following order for table " +
                     order.getTableNumber() + ":\n";
@@ -152,44 +310,84 @@ public class Server extends Employee {
             }
             LogWriter.writeIn(confirmLog.toString());
         }
+        return true;
     }
 
     /**
-     * This method has the server confirm that he food has been delivered to the table
+     * This method has the server confirm that he food has been delivered to the table, unless the dish has been
+     * changed since the server last looked at it.
      *
-     * @param dish The string representation of the food that has been delivered
+     * @param dish            The string representation of the food that has been delivered
+     * @param expectedVersion The version stamp of the dish when the server last looked at it
+     * @return null if the dish was delivered, otherwise why not
      */
-    public void foodDelivered(Order order, Recipe dish) {
-        dish.setStatus("delivered");
+    public String foodDelivered(Order order, Recipe dish, long expectedVersion) {
+        String conflict = dish.setStatus("delivered", expectedVersion);
+        if (conflict != null) {
+            return conflict;
+        }
         LogWriter.writeIn("Server " + getJobId() + " has successfully delivered " +
                 DishInterpreter.dishToString(dish) + " to table " + order.getTableNumber() + ".");
+        return null;
     }
 
     /**
-     * Removes the table from this server's responsibilities and prints the bill
+     * Removes the table from this server's responsibilities and prints the bill. The dishes that were delivered
+     * are recorded as sold in the dish history, and every dish is cancelled. If a chef changes a dish at the same
+     * time, ex. finishes cooking it, that dish is left as the chef set it and the order is kept, so the server can
+     * see what happened and close the table again.
      *
      * @param order The order that needs to be finished
+     * @return null if the order was removed, otherwise why not
      */
-    public void removeOrder(Order order) {
+    public synchronized String removeOrder(Order order) {
         for (Recipe dish : order.getDishes()) {
-            if (!dish.getStatus().equals("cancelled")) {
-                dish.setStatus("cancelled");
+            String status = dish.getStatus();
+            long version = dish.getVersionIf(status);
+            if (status.equals("cancelled")) {
+                continue;
+            }
+            String conflict = version == 0 ? dish.getName() + " was changed by someone else and is now "
+                    + dish.getStatus() + "." : dish.setStatus("cancelled", version);
+            if (conflict != null) {
+                return conflict;
+            }
+            if (status.equals("delivered")) {
+                history.recordSale(dish);
             }
         }
         orders.remove(order);
+        return null;
     }
 
     /**
-     * Will take a complaint of a customer and will make accommodations to the dish accordingly
+     * Will take a complaint of a customer and will send the dish back to be made again, holding its ingredients
+     * again. If there are not enough ingredients left to make it again, the dish is cancelled instead.
      *
-     * @param complaint The complaint from the customer
-     * @param dish      The dish that needs to be dealt with
+     * @param complaint       The complaint from the customer
+     * @param dish            The dish that needs to be dealt with
+     * @param expectedVersion The version stamp of the dish when the server last looked at it
+     * @return null if the dish was sent back, otherwise why not
      */
-    public void complaint(Order order, String complaint, Recipe dish) {
-        dish.sendBack();
+    public String complaint(Order order, String complaint, Recipe dish, long expectedVersion) {
+        long sentBack = dish.claimStatus("waiting", expectedVersion);
+        if (sentBack == 0) {
+            return dish.getName() + " was changed by someone else and is now " + dish.getStatus() + ".";
+        }
+        history.recordComplaint(dish);
         LogWriter.writeIn("Server " + getJobId() + " has received a complaint for the dish" +
                 DishInterpreter.dishToString(dish) + " from table " + order.getTableNumber()
                 + " because " + complaint + ".");
+        if (!dish.reserve()) {
+            String conflict = dish.setStatus("cancelled", sentBack);
+            if (conflict != null) {
+                return conflict;
+            }
+            LogWriter.writeIn("Server " + getJobId() + " has cancelled " + dish.getName() + " for table "
+                    + order.getTableNumber() + " because there are not enough ingredients to make it again.");
+            return "There are not enough ingredients to make " + dish.getName() + " again, so it was cancelled.";
+        }
+        return null;
     }
 
     /**
@@ -232,56 +430,70 @@ public class Server extends Employee {
      * This method creates the bill and the bill popup screen. If there is only one ArrayList in dishes, there
      * is only one customer, otherwise, there are as many customers as there are ArrayLists in dishes.
      *
-     * @param dishes Holds ArrayLists of all the dishes
+     * @param tableNumber The table that the bill is for
+     * @param dishes      Holds ArrayLists of all the dishes
      * @return the billPopUp screen
      */
-    public Stage getBillPopUp(ArrayList<ArrayList<Recipe>> dishes) {
-        return getBillPopUp(dishes, dishes.size());
+    public Stage getBillPopUp(int tableNumber, ArrayList<ArrayList<Recipe>> dishes) {
+        return getBillPopUp(tableNumber, dishes, dishes.size());
     }
 
     /**
      * This method creates the bill and the bill popup screen. Here, you can indicate the number of customers,
      * which is usually used to see if there is guaranteed gratuity on the bill.
      *
+     * @param tableNumber       The table that the bill is for
      * @param dishes            Holds ArrayLists of all the dishes
      * @param numberOfCustomers the number of customers at the table
      * @return the billPopUp screen
      */
-    public Stage getBillPopUp(ArrayList<ArrayList<Recipe>> dishes, int numberOfCustomers) {
+    public Stage getBillPopUp(int tableNumber, ArrayList<ArrayList<Recipe>> dishes, int numberOfCustomers) {
+        return getBillPopUp(tableNumber, new Bill(dishes, numberOfCustomers).getSummary());
+    }
+
+    /**
+     * This method creates the bills and the bill popup screen when the dishes have been split between the
+     * customers, with one bill for each customer.
+     *
+     * @param tableNumber       The table that the bill is for
+     * @param splitter          The dishes and which customers pay for them
+     * @param numberOfCustomers the number of customers at the table
+     * @return the billPopUp screen
+     */
+    public Stage getBillPopUp(int tableNumber, BillSplitter splitter, int numberOfCustomers) {
+        return getBillPopUp(tableNumber, new Bill(splitter, numberOfCustomers).getSummary());
+    }
+
+    /**
+     * Creates the bill popup screen for a worked out bill.
+     *
+     * @param tableNumber The table that the bill is for
+     * @param summary     The worked out bill
+     * @return the billPopUp screen
+     */
+    private Stage getBillPopUp(int tableNumber, BillSummary summary) {
         Stage billPopUp;
-        Bill bill = new Bill(dishes, numberOfCustomers);
-        String[] bills = bill.printBill();
-        BillCreator billCreator = new BillCreator(this);
-        if (bills.length == 1) {
-            billPopUp = billCreator.singleBillStage(bills[0]);
+        BillCreator billCreator = new BillCreator(this, tableNumber);
+        if (summary.getReceipts().size() == 1) {
+            billPopUp = billCreator.singleBillStage(summary);
         } else {
-            billPopUp = billCreator.multipleBillStage(bills);
+            billPopUp = billCreator.multipleBillStage(summary);
         }
         return billPopUp;
     }
 
     /**
-     * This is an method that is called when a bill payment has been confirmed. It will add up the total of all the
-     * bills and log it appropriately in a text file.
+     * This is an method that is called when a bill payment has been confirmed. The payment is recorded in the
+     * payments ledger along with the table and this server.
      *
-     * @param billPopUp The bill popup screen
-     * @param bills     The array of bills
+     * @param billPopUp   The bill popup screen
+     * @param tableNumber The table that paid
+     * @param summary     The bill that was paid
      */
-    public void billPayment(Stage billPopUp, String[] bills) {
-        double totalPayment = 0.0;
-        for (String bill : bills) {
-            String finalLine = bill.split("\n")[bill.split("\n").length - 1];
-            totalPayment += Double.parseDouble(finalLine.split("\\s+")[1]);
-        }
-        LogWriter.earningLogger("Received $" + totalPayment + ".");
+    public void billPayment(Stage billPopUp, int tableNumber, BillSummary summary) {
+        int billId = payments.recordPayment(tableNumber, toString(), summary);
+        LogWriter.writeIn("Server " + getJobId() + " has received $" + summary.getTotal() + " for bill " + billId
+                + " from table " + tableNumber + ".");
         billPopUp.close();
     }
-
-    public static int getNumOfServers() {
-        return numOfServers;
-    }
-
-    public static void setNumOfServers(int numServers) {
-        numOfServers = numServers;
-    }
 }
@@ -4,179 +4,170 @@ import dishes.DishInterpreter;
 import dishes.Recipe;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 
 /**
- * The bill class. It allows the server to print out the bill with a variety of options.
+ * The bill class. It works out the bill for a table with a variety of options. The result is a bill summary,
+ * which can then be formatted for the screen or a printer.
  *
  * @author Victor Huang
  */
 public class Bill {
 
-    private ArrayList<ArrayList<Recipe>>  dishes;
-    private static final int billSize = 40; // The width of the bill
-    private int numberOfCustomers;
-    private HashMap<Recipe, Integer> splitAmounts;
+    private static final String DETAIL_INDENT = "  "; // The indent of the instructions under a dish
+    private static final int TAX_RATE = 1300; // 13 percent, in hundredths of a percent
+    private static final int GRATUITY_RATE = 1500; // 15 percent, in hundredths of a percent
+    private BillSummary summary;
 
+    /**
+     * Creates the bill for a table. If there is only one list of dishes, it is one bill split evenly between the
+     * customers. Otherwise each list is a separate bill, and a dish on more than one bill has its price split evenly
+     * between them.
+     *
+     * @param dishes            the dishes on each bill
+     * @param numberOfCustomers the number of customers at the table
+     */
     public Bill(ArrayList<ArrayList<Recipe>> dishes, int numberOfCustomers) {
-        this.dishes = dishes;
-        this.splitAmounts = findDishOccurrences(dishes);
-        this.numberOfCustomers = numberOfCustomers;
+        this(splitterFor(dishes), dishes.size() > 1 ? 1 : numberOfCustomers, numberOfCustomers);
     }
 
     /**
-     * Creates the bill with the idea of splitting the order evenly between a certain number of customers at the table
+     * Creates the bill for a table where the dishes have been split between the customers, one bill per customer.
      *
-     * @return the bill
+     * @param splitter          the dishes and who pays for them
+     * @param numberOfCustomers the number of customers at the table
      */
-    public String[] printBill() {
-        return bills(dishes, dishes.size(), numberOfCustomers);
+    public Bill(BillSplitter splitter, int numberOfCustomers) {
+        this(splitter, 1, numberOfCustomers);
+    }
+
+    private Bill(BillSplitter splitter, int numberOfSplits, int numberOfCustomers) {
+        Money foodCost = Money.ZERO;
+        for (Recipe dish : splitter.getDishes()) {
+            foodCost = foodCost.plus(dish.getIngredientCost());
+        }
+        this.summary = new BillSummary(receipts(splitter, numberOfSplits, numberOfCustomers), foodCost);
     }
 
     /**
-     * Creates the bill allowing for customers to choose which items they are paying for, and if they are splitting the
-     * bill with others or not
+     * Returns the worked out bill, with every receipt and the amounts for the table as a whole
      *
-     * @param dishes            the dishes that the customers are paying for in this bill
-     * @param numberOfCustomers the number of customers that will split this bill
-     * @return An array of all string representations of the bills
+     * @return the bill summary
      */
-    private String[] bills(ArrayList<ArrayList<Recipe>>  dishes, int numOfCustomBills, int numberOfCustomers) {
-        String[] billRepresentations = new String[numOfCustomBills];
-        //Checks if each person is getting a separate bill
-        if (numOfCustomBills > 1) {
-            int i = 0;
-            for (ArrayList<Recipe>  oneBillDishes : dishes) {
-                billRepresentations[i++] = singleBill(oneBillDishes, 1, numberOfCustomers);
-            }
-            return billRepresentations;
-        }
-        //Will split one bill accordingly
-        billRepresentations[0] = singleBill(dishes.get(0), numberOfCustomers, numberOfCustomers);
-        return billRepresentations;
+    public BillSummary getSummary() {
+        return summary;
     }
 
     /**
-     * Creates a single bill, which will split the prices according to the number of customers.
+     * Creates the bill as plain text, with the idea of splitting the order evenly between a certain number of
+     * customers at the table
      *
-     * @param oneBillDishes     An array that holds all the dishes that will be on this bill
-     * @param numberOfCustomers The number of customers at the table (used to check for gratuity)
-     * @return The string representation of a bill
+     * @return the text of each receipt
      */
-    private String singleBill(ArrayList<Recipe>  oneBillDishes,int numberOfSplits, int numberOfCustomers) {
-        StringBuilder singleBill = new StringBuilder(500);
-        int indent = billSize / 20;
-        double subtotal = 0.00;
-        double gratuityAmount = 0.00;
-        singleBill.append(nextLineAdder(DishInterpreter.charExtender("-", billSize)));
-        singleBill.append(nextLineAdder("NAME" + DishInterpreter.charExtender(" ", billSize - 9) + "PRICE"));
-        singleBill.append(nextLineAdder(DishInterpreter.charExtender("-", billSize)));
-        //Formatted portion for each dish
-        for (Recipe dish : oneBillDishes) {
-            double price = roundToTwo(dish.getPrice() / splitAmounts.get(dish));
-            subtotal += price;
-            String dishLine = formattedBillLine(dish.getName(), price, billSize);
-            singleBill.append(nextLineAdder(dishLine));
-            //Checks for extra instructions, and also prints out the foods in a combo
-            singleBill.append(DishInterpreter.chefDishInfo(dish, DishInterpreter.charExtender(" ", indent)));
-        }
-        singleBill.append(nextLineAdder(DishInterpreter.charExtender("-", billSize)));
-        //If the bill is being split among people,
-        if (numberOfSplits > 1){
-            String indicator = "Bill split among " + numberOfSplits + " people";
-            singleBill.append(indicator);
-            singleBill.append((nextLineAdder(DishInterpreter.charExtender(" ", billSize - indicator.length()))));
-        }
-        //Formatted portion for subtotal, tax, gratuity, and total
-        subtotal = roundToTwo(subtotal/numberOfSplits);
-        singleBill.append(nextLineAdder(formattedBillLine("Sub Total:", subtotal, billSize)));
-        double taxAmount = percentCharges(subtotal, 0.13);
-        singleBill.append(nextLineAdder(formattedBillLine("Tax:", taxAmount, billSize)));
-        //Gratuity is applied to tables of 8 or more customers
-        if (numberOfCustomers >= 8) {
-            gratuityAmount = percentCharges(subtotal, 0.15);
-            singleBill.append(nextLineAdder(formattedBillLine("Gratuity:", gratuityAmount, billSize)));
-        }
-        singleBill.append(formattedBillLine("TOTAL:", roundToTwo(subtotal + taxAmount + gratuityAmount), billSize));
-        return singleBill.toString();
+    public String[] printBill() {
+        return new TextBillRenderer().render(summary);
     }
 
     /**
-     * A method that returns a HashMap with each dish corresponding with the number of times it appears on the
-     * different bills. This is feature that allows any dish to be split amount any bill.
+     * Returns the amount that the table pays, which is the total of every bill
      *
-     * @param dishes the ArrayList that holds all the dishes that will be added to the bill
-     * @return the key-value pairings between a dish and the number of times it appears
+     * @return the total of all the bills
      */
-    private HashMap<Recipe, Integer> findDishOccurrences(ArrayList<ArrayList<Recipe>>  dishes) {
-        HashMap<Recipe, Integer> occurrences = new HashMap<>();
-        for (ArrayList<Recipe>  oneBillDishes : dishes) {
-            for (Recipe dish : oneBillDishes) {
-                if (occurrences.containsKey(dish)) {
-                    occurrences.put(dish, occurrences.get(dish) + 1);
-                } else {
-                    occurrences.put(dish, 1);
-                }
-            }
-        }
-        return occurrences;
+    public Money getTotal() {
+        return summary.getTotal();
     }
 
     /**
-     * Returns the tax on a certain price, rounded to 2 decimal places (nearest cent)
+     * Returns a splitter where each list of dishes is one customer's bill. A dish is a single line however many
+     * bills it is on.
      *
-     * @param price The price to calculate tax on
-     * @param rate  The rate that is being added, given as a decimal (ex: 0.13 = 13 percent)
-     * @return The tax amount on price, rounded to the nearest cent
+     * @param dishes the dishes on each bill
+     * @return the splitter for the dishes
      */
-    private double percentCharges(double price, double rate) {
-        double addedCharges = price * rate;
-        return roundToTwo(addedCharges);
+    private static BillSplitter splitterFor(ArrayList<ArrayList<Recipe>> dishes) {
+        IdentityHashMap<Recipe, Integer> lines = new IdentityHashMap<>(); //Maps each dish to its line
+        ArrayList<Recipe> uniqueDishes = new ArrayList<>();
+        for (ArrayList<Recipe> oneBillDishes : dishes) {
+            for (Recipe dish : oneBillDishes) {
+                if (!lines.containsKey(dish)) {
+                    lines.put(dish, uniqueDishes.size());
+                    uniqueDishes.add(dish);
+                }
+            }
+        }
+        BillSplitter splitter = new BillSplitter(uniqueDishes, dishes.size());
+        for (int customer = 0; customer < dishes.size(); customer++) {
+            for (Recipe dish : dishes.get(customer)) {
+                splitter.assign(lines.get(dish), customer, 1);
+            }
+        }
+        return splitter;
     }
 
     /**
-     * Returns a rounded double to 2 decimal places
+     * Works out one receipt for each customer of the splitter.
      *
-     * @return the rounded double
+     * @param splitter          the dishes and who pays for them
+     * @param numberOfSplits    the number of customers splitting each receipt evenly
+     * @param numberOfCustomers the number of customers at the table (used to check for gratuity)
+     * @return the receipts, in the order of the customers
      */
-    private double roundToTwo(double num) {
-        double rounded = num * 100;
-        rounded = (double) Math.round(rounded);
-        rounded /= 100;
-        return rounded;
+    private List<Receipt> receipts(BillSplitter splitter, int numberOfSplits, int numberOfCustomers) {
+        List<Recipe> dishes = splitter.getDishes();
+        List<Receipt> receipts = new ArrayList<>();
+        for (LinkedHashMap<Integer, Money> shares : splitter.split()) {
+            List<BillLine> lines = new ArrayList<>();
+            for (Integer line : shares.keySet()) {
+                Recipe dish = dishes.get(line);
+                lines.add(new BillLine(dish.getName(), shares.get(line), dishDetails(dish)));
+            }
+            receipts.add(singleReceipt(lines, numberOfSplits, numberOfCustomers));
+        }
+        return receipts;
     }
 
     /**
-     * This is a helper method that formats the words and prices in a well formatted line
+     * Works out a single receipt. Tax and gratuity are worked out on the whole receipt, and if the receipt is split
+     * among several customers, the total is then divided between them so that their shares add up to the total.
      *
-     * @param words    The words either dealing with money or the dish names
-     * @param price    the price for the dish, tax, etc.
-     * @param billSize the width of the bill
-     * @return A well formatted line for the bill
+     * @param lines             The dishes on this receipt and the part of their price paid on it
+     * @param numberOfSplits    The number of customers splitting this receipt
+     * @param numberOfCustomers The number of customers at the table (used to check for gratuity)
+     * @return The receipt
      */
-    private String formattedBillLine(String words, double price, int billSize) {
-        String tempString = words + price;
-        StringBuilder formattedLine = new StringBuilder(60);
-        formattedLine.append(words);
-        if (tempString.charAt(tempString.length() - 2) == '.') {
-            formattedLine.append(DishInterpreter.charExtender(" ", billSize - (tempString.length() + 1)));
-            formattedLine.append(price);
-            formattedLine.append("0");
-        } else {
-            formattedLine.append(DishInterpreter.charExtender(" ", billSize - tempString.length()));
-            formattedLine.append(price);
+    private Receipt singleReceipt(List<BillLine> lines, int numberOfSplits, int numberOfCustomers) {
+        Money subtotal = Money.ZERO;
+        Money gratuityAmount = Money.ZERO;
+        for (BillLine line : lines) {
+            subtotal = subtotal.plus(line.getPrice());
+        }
+        Money taxAmount = subtotal.percent(TAX_RATE);
+        //Gratuity is applied to tables of 8 or more customers
+        boolean gratuityApplied = numberOfCustomers >= 8;
+        if (gratuityApplied) {
+            gratuityAmount = subtotal.percent(GRATUITY_RATE);
         }
-        return formattedLine.toString();
+        Money total = subtotal.plus(taxAmount).plus(gratuityAmount);
+        return new Receipt(lines, subtotal, taxAmount, gratuityAmount, gratuityApplied,
+                Arrays.asList(total.split(numberOfSplits)));
     }
 
     /**
-     * Takes a string and adds a newline to it
+     * Returns the extra instructions of a dish and the foods in a combo, one per line
      *
-     * @param line the string you are adding a newline to
-     * @return the new formatted string
+     * @param dish the dish on the bill
+     * @return the lines shown under the dish
      */
-    private String nextLineAdder(String line) {
-        return line + "\n";
+    private List<String> dishDetails(Recipe dish) {
+        List<String> details = new ArrayList<>();
+        for (String detail : DishInterpreter.chefDishInfo(dish, DETAIL_INDENT).split("\n")) {
+            if (!detail.isEmpty()) {
+                details.add(detail);
+            }
+        }
+        return details;
     }
-
 }
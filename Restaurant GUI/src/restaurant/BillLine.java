@@ -0,0 +1,43 @@
+package restaurant;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single dish on a bill, with the part of its price that goes on that bill. Bill lines cannot be changed once
+ * they are made.
+ */
+public final class BillLine {
+    private final String name;
+    private final Money price;
+    private final List<String> details;
+
+    /**
+     * Creates a line of a bill
+     *
+     * @param name    The name of the dish
+     * @param price   The part of the dish's price on this bill
+     * @param details The extra instructions of the dish and the foods in a combo, one per line
+     */
+    BillLine(String name, Money price, List<String> details) {
+        this.name = name;
+        this.price = price;
+        this.details = Collections.unmodifiableList(new ArrayList<>(details));
+    }
+
+    //returns the name of the dish.
+    public String getName() {
+        return name;
+    }
+
+    //returns the part of the dish's price on this bill.
+    public Money getPrice() {
+        return price;
+    }
+
+    //returns the extra instructions of the dish and the foods in a combo, one per line, already indented.
+    public List<String> getDetails() {
+        return details;
+    }
+}
@@ -0,0 +1,180 @@
+package restaurant;
+
+import dishes.Recipe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Splits the dishes of a table between the customers paying for them. Each dish is a line, found by its position in
+ * the list of dishes, and can be given to one customer or shared between several customers with a weight each, ex.
+ * one customer paying for two shares of a dish and another paying for one.
+ * <p>
+ * The price of a shared dish is split in proportion to the weights, in whole cents. Each customer first gets their
+ * share rounded down, and the cents left over go one at a time to the customers whose shares were rounded down the
+ * most. Ties go to the customer with the larger weight, then to the customer with the lower number, however the
+ * shares were given out. The shares of a dish always add up to its price.
+ */
+public class BillSplitter {
+    private List<Recipe> dishes;
+    private int numberOfCustomers;
+    private ArrayList<LinkedHashMap<Integer, Integer>> weights; //For each line, maps customers to their weight
+
+    /**
+     * Creates a splitter for some dishes and customers, where no dish has been given to anyone yet.
+     *
+     * @param dishes            The dishes being paid for, each one is a line
+     * @param numberOfCustomers The number of customers paying, each one gets their own bill
+     */
+    public BillSplitter(List<Recipe> dishes, int numberOfCustomers) {
+        this.dishes = new ArrayList<>(dishes);
+        this.numberOfCustomers = numberOfCustomers;
+        this.weights = new ArrayList<>();
+        for (int i = 0; i < this.dishes.size(); i++) {
+            weights.add(new LinkedHashMap<>());
+        }
+    }
+
+    /**
+     * Gives a customer a weighted share of a dish. Giving the same customer more of the dish adds onto their weight.
+     *
+     * @param line     The position of the dish in the list of dishes
+     * @param customer The customer, counting from 0
+     * @param weight   How many shares of the dish the customer pays for
+     */
+    public void assign(int line, int customer, int weight) {
+        if (customer < 0 || customer >= numberOfCustomers) {
+            throw new IllegalArgumentException("There is no customer " + customer);
+        }
+        if (weight <= 0) {
+            throw new IllegalArgumentException("A share must have a positive weight");
+        }
+        LinkedHashMap<Integer, Integer> lineWeights = weights.get(line);
+        Integer current = lineWeights.get(customer);
+        lineWeights.put(customer, current == null ? weight : current + weight);
+    }
+
+    /**
+     * Gives a dish entirely to a single customer, ex. the dish ordered by a certain seat.
+     *
+     * @param line     The position of the dish in the list of dishes
+     * @param customer The customer, counting from 0
+     */
+    public void assignToCustomer(int line, int customer) {
+        weights.get(line).clear();
+        assign(line, customer, 1);
+    }
+
+    /**
+     * Splits a dish evenly between every customer.
+     *
+     * @param line The position of the dish in the list of dishes
+     */
+    public void assignToEveryone(int line) {
+        weights.get(line).clear();
+        for (int customer = 0; customer < numberOfCustomers; customer++) {
+            assign(line, customer, 1);
+        }
+    }
+
+    //returns the dishes being paid for, in the order of their lines.
+    public List<Recipe> getDishes() {
+        return new ArrayList<>(dishes);
+    }
+
+    //returns the number of customers paying.
+    public int getNumberOfCustomers() {
+        return numberOfCustomers;
+    }
+
+    /**
+     * Returns whether every dish has been given to at least one customer
+     *
+     * @return true if every line is paid for
+     */
+    public boolean isFullyAssigned() {
+        for (LinkedHashMap<Integer, Integer> lineWeights : weights) {
+            if (lineWeights.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Splits every dish between the customers it was given to.
+     *
+     * @return For each customer, a map from the lines they pay for to the part of the price they pay, in line order
+     */
+    public List<LinkedHashMap<Integer, Money>> split() {
+        List<LinkedHashMap<Integer, Money>> shares = new ArrayList<>();
+        for (int customer = 0; customer < numberOfCustomers; customer++) {
+            shares.add(new LinkedHashMap<>());
+        }
+        for (int line = 0; line < dishes.size(); line++) {
+            LinkedHashMap<Integer, Integer> lineWeights = weights.get(line);
+            if (lineWeights.isEmpty()) {
+                continue;
+            }
+            //In customer order, so that ties do not depend on the order the shares were given out in
+            ArrayList<Integer> customers = new ArrayList<>(lineWeights.keySet());
+            Collections.sort(customers);
+            long[] lineWeightArray = new long[customers.size()];
+            for (int i = 0; i < customers.size(); i++) {
+                lineWeightArray[i] = lineWeights.get(customers.get(i));
+            }
+            long[] cents = allocate(dishes.get(line).getPrice().getCents(), lineWeightArray);
+            for (int i = 0; i < customers.size(); i++) {
+                shares.get(customers.get(i)).put(line, Money.ofCents(cents[i]));
+            }
+        }
+        return shares;
+    }
+
+    /**
+     * Divides an amount of cents in proportion to some weights using the largest remainder method. Of the parts
+     * with the same remainder, the ones with the larger weight get a leftover cent first, then the earlier ones.
+     *
+     * @param cents   The amount to divide
+     * @param weights The weight of each part
+     * @return The cents of each part, adding up to the amount
+     */
+    static long[] allocate(long cents, long[] weights) {
+        long totalWeight = 0;
+        for (long weight : weights) {
+            totalWeight += weight;
+        }
+        long[] parts = new long[weights.length];
+        long[] remainders = new long[weights.length];
+        long leftover = cents;
+        for (int i = 0; i < weights.length; i++) {
+            long scaled = Math.multiplyExact(cents, weights[i]);
+            parts[i] = Math.floorDiv(scaled, totalWeight);
+            remainders[i] = scaled - parts[i] * totalWeight;
+            leftover -= parts[i];
+        }
+        if (leftover > 0) {
+            //Order the parts by largest remainder, then by largest weight, then by position
+            Integer[] order = new Integer[weights.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> {
+                if (remainders[a] != remainders[b]) {
+                    return Long.compare(remainders[b], remainders[a]);
+                }
+                if (weights[a] != weights[b]) {
+                    return Long.compare(weights[b], weights[a]);
+                }
+                return Integer.compare(a, b);
+            });
+            for (int i = 0; i < leftover; i++) {
+                parts[order[i]]++;
+            }
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,136 @@
+package restaurant;
+
+import dishes.Food;
+import dishes.Recipe;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks {@link BillSplitter} against many random tables: the shares of every dish add up to its price, every share
+ * is within a cent of the exact proportional share, a customer with a larger weight never pays less for a dish, and
+ * the split is the same whatever order the shares were given out in.
+ * <p>
+ * The number of tables and the random seed can be given as arguments, so a failure can be run again. Prints whether
+ * every table passed, and exits with 1 if one did not.
+ */
+public class BillSplitterCheck {
+    private static final int DEFAULT_TABLES = 20000;
+    private static final int MAX_DISHES = 12;
+    private static final int MAX_CUSTOMERS = 8;
+    private static final int MAX_WEIGHT = 5;
+
+    private Random random;
+
+    private BillSplitterCheck(long seed) {
+        random = new Random(seed);
+    }
+
+    /**
+     * Splits one random table twice, giving out the same shares in a different order each time, and checks both.
+     *
+     * @return null if it passed, otherwise what went wrong
+     */
+    private String checkOne() {
+        List<Recipe> dishes = new ArrayList<>();
+        for (int i = random.nextInt(MAX_DISHES) + 1; i > 0; i--) {
+            long cents = random.nextInt(5000);
+            dishes.add(new Food(i, "Dish " + i, Money.ofCents(cents), new HashMap<>(), null));
+        }
+        int customers = random.nextInt(MAX_CUSTOMERS) + 1;
+
+        //Each share is a line, a customer and a weight
+        List<int[]> shares = new ArrayList<>();
+        for (int line = 0; line < dishes.size(); line++) {
+            for (int customer = 0; customer < customers; customer++) {
+                if (random.nextInt(3) == 0 || customer == line % customers) {
+                    shares.add(new int[]{line, customer, random.nextInt(MAX_WEIGHT) + 1});
+                }
+            }
+        }
+        List<LinkedHashMap<Integer, Money>> first = split(dishes, customers, shares);
+        Collections.shuffle(shares, random);
+        List<LinkedHashMap<Integer, Money>> second = split(dishes, customers, shares);
+        for (int customer = 0; customer < customers; customer++) {
+            for (int line = 0; line < dishes.size(); line++) {
+                if (!equal(first.get(customer).get(line), second.get(customer).get(line))) {
+                    return "customer " + customer + " pays " + first.get(customer).get(line) + " and "
+                            + second.get(customer).get(line) + " for line " + line + " depending on the order";
+                }
+            }
+        }
+
+        for (int line = 0; line < dishes.size(); line++) {
+            long price = dishes.get(line).getPrice().getCents();
+            long[] weights = new long[customers];
+            long totalWeight = 0;
+            for (int[] share : shares) {
+                if (share[0] == line) {
+                    weights[share[1]] += share[2];
+                    totalWeight += share[2];
+                }
+            }
+            long paid = 0;
+            for (int customer = 0; customer < customers; customer++) {
+                Money share = first.get(customer).get(line);
+                if ((share == null) != (weights[customer] == 0)) {
+                    return "customer " + customer + " has the wrong lines";
+                }
+                if (share == null) {
+                    continue;
+                }
+                paid += share.getCents();
+                long exact = price * weights[customer];
+                if (Math.abs(share.getCents() * totalWeight - exact) >= totalWeight) {
+                    return "customer " + customer + " pays " + share + " of " + Money.ofCents(price)
+                            + " for " + weights[customer] + " of " + totalWeight + " shares";
+                }
+                for (int other = 0; other < customers; other++) {
+                    Money otherShare = first.get(other).get(line);
+                    if (weights[other] > weights[customer] && otherShare.compareTo(share) < 0) {
+                        return "customer " + other + " has the larger weight but pays less for line " + line;
+                    }
+                }
+            }
+            if (paid != price) {
+                return "the shares of line " + line + " add up to " + Money.ofCents(paid) + ", not "
+                        + Money.ofCents(price);
+            }
+        }
+        return null;
+    }
+
+    private static List<LinkedHashMap<Integer, Money>> split(List<Recipe> dishes, int customers, List<int[]> shares) {
+        BillSplitter splitter = new BillSplitter(dishes, customers);
+        for (int[] share : shares) {
+            splitter.assign(share[0], share[1], share[2]);
+        }
+        return splitter.split();
+    }
+
+    private static boolean equal(Money a, Money b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    /**
+     * Checks the tables and prints how it went.
+     */
+    public static void main(String[] args) {
+        int tables = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TABLES;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+
+        BillSplitterCheck check = new BillSplitterCheck(seed);
+        for (int i = 0; i < tables; i++) {
+            String problem = check.checkOne();
+            if (problem != null) {
+                System.out.println("FAILED with seed " + seed + ": " + problem);
+                System.exit(1);
+            }
+        }
+        System.out.println(tables + " tables with seed " + seed + " passed");
+    }
+}
@@ -0,0 +1,73 @@
+package restaurant;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The worked out result of a bill: every receipt handed to the table and the amounts for the table as a whole,
+ * along with what the ingredients of the dishes cost the restaurant.
+ * Payment and reports read their amounts from here instead of from formatted bill text. A bill summary cannot be
+ * changed once it is made.
+ */
+public final class BillSummary {
+    private final List<Receipt> receipts;
+    private final Money subtotal;
+    private final Money tax;
+    private final Money gratuity;
+    private final Money total;
+    private final Money foodCost;
+
+    /**
+     * Creates a bill summary from the receipts of a table
+     *
+     * @param receipts The receipts handed to the table
+     * @param foodCost The cost of the ingredients of the dishes on the bill
+     */
+    BillSummary(List<Receipt> receipts, Money foodCost) {
+        this.receipts = Collections.unmodifiableList(new ArrayList<>(receipts));
+        Money subtotal = Money.ZERO;
+        Money tax = Money.ZERO;
+        Money gratuity = Money.ZERO;
+        for (Receipt receipt : receipts) {
+            subtotal = subtotal.plus(receipt.getSubtotal());
+            tax = tax.plus(receipt.getTax());
+            gratuity = gratuity.plus(receipt.getGratuity());
+        }
+        this.subtotal = subtotal;
+        this.tax = tax;
+        this.gratuity = gratuity;
+        this.total = subtotal.plus(tax).plus(gratuity);
+        this.foodCost = foodCost;
+    }
+
+    //returns the receipts handed to the table.
+    public List<Receipt> getReceipts() {
+        return receipts;
+    }
+
+    //returns the subtotal of every receipt added together.
+    public Money getSubtotal() {
+        return subtotal;
+    }
+
+    //returns the tax of every receipt added together.
+    public Money getTax() {
+        return tax;
+    }
+
+    //returns the gratuity of every receipt added together.
+    public Money getGratuity() {
+        return gratuity;
+    }
+
+    //returns the amount that the table pays, which is the total of every receipt.
+    public Money getTotal() {
+        return total;
+    }
+
+    //returns the cost of the ingredients of the dishes on the bill.
+    public Money getFoodCost() {
+        return foodCost;
+    }
+}
@@ -0,0 +1,84 @@
+package restaurant;
+
+import employees.EmployeeRoster;
+import storage.LogStore;
+
+/**
+ * Imports the text files that the restaurant kept its state in before the store: the ingredients from
+ * Ingredients.txt, the employees from Roster.txt or Employees.txt and FiredIds.txt, the purchase orders from
+ * PurchaseOrders.txt or Requests.txt, and the usage forecast from Forecast.txt. Everything is imported in one transaction, so a store is never left with only
+ * some of it. The text files are left as they are.
+ * <p>
+ * A store imported by an older version of the restaurant is upgraded when it is opened. Each upgrade is made once,
+ * in the same transaction as a key saying it was made, ex. "migration/shelf-lives", so it is never made twice.
+ * <p>
+ * The restaurant does this by itself the first time it starts. Running this in the data folder does it ahead of
+ * time and says what was imported. The name of the store can be given as an argument.
+ */
+public class DataMigration {
+    private static final String SHELF_LIVES = "migration/shelf-lives"; //Shelf lives added after the first import
+    private static final String FORECAST = "migration/forecast"; //Forecast.txt moved into the store
+
+    /**
+     * Imports the text files in the current folder into a store.
+     *
+     * @param store The store
+     * @return false if the import could not be written
+     */
+    public static boolean importTextFiles(LogStore store) {
+        LogStore.Transaction transaction = store.begin();
+        Inventory.importTextFile(transaction);
+        EmployeeRoster.importTextFiles(transaction);
+        PurchaseOrderQueue.importTextFiles(transaction);
+        DemandForecast.importTextFile(transaction);
+        transaction.put(SHELF_LIVES, "done"); //Ingredients.txt already has them
+        transaction.put(FORECAST, "done");
+        return transaction.commitAndWait();
+    }
+
+    /**
+     * Makes the upgrades that a store has not had yet. Shelf lives were added to Ingredients.txt after stores were
+     * first imported from it, so a store imported before then gets them from the file. The forecast was kept in
+     * Forecast.txt until after that too, so it is imported from there.
+     *
+     * @param store The store
+     * @return false if an upgrade could not be written
+     */
+    public static boolean upgrade(LogStore store) {
+        if (store.get(SHELF_LIVES) == null) {
+            LogStore.Transaction transaction = store.begin();
+            int imported = Inventory.importShelfLives(store, transaction);
+            transaction.put(SHELF_LIVES, "done");
+            if (!transaction.commitAndWait()) {
+                return false;
+            }
+            if (imported > 0) {
+                System.err.println("Gave " + imported + " ingredients the shelf life in Ingredients.txt");
+            }
+        }
+        if (store.get(FORECAST) == null) {
+            LogStore.Transaction transaction = store.begin();
+            DemandForecast.importTextFile(transaction);
+            transaction.put(FORECAST, "done");
+            if (!transaction.commitAndWait()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Imports the text files in the current folder, unless the store already has something in it.
+     */
+    public static void main(String[] args) {
+        LogStore store = LogStore.open(args.length > 0 ? args[0] : Restaurant.STORE_FILE);
+        if (!store.isEmpty()) {
+            System.err.println("The store already has data in it, so nothing was imported.");
+        } else if (importTextFiles(store)) {
+            System.out.println("Imported " + store.scan("stock/").size() + " ingredients, "
+                    + store.scan("employee/").size() + " employees and " + store.scan("purchase/").size()
+                    + " purchase orders.");
+        }
+        store.close();
+    }
+}
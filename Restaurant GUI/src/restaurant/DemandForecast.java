@@ -0,0 +1,232 @@
+package restaurant;
+
+import storage.LogStore;
+
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Forecasts how fast each ingredient is used up, so that ingredients are reordered before they run out and in
+ * amounts that fit how much they are used. Usage is counted in hourly periods, and when a period ends its usage is
+ * blended into a smoothed usage rate and variance (exponential smoothing). Recording usage only touches the one
+ * ingredient, and re-planning goes through every ingredient once.
+ * <p>
+ * The reorder point of an ingredient is the usage expected during the supplier's lead time plus some safety stock,
+ * and never lower than the threshold of the ingredient. The amount to order is the economic order quantity,
+ * sqrt(2 * usage rate * order cost / holding cost). Ingredients with little or no usage are ordered 20 at a time.
+ * The smoothed rates are kept in the restaurant's store so they are not lost when the program closes, ex.
+ * "forecast/Bacon" is "period | usage | rate | variance". Saving a plan does not wait for the disk, since plans are
+ * made while a dish is being cooked.
+ */
+public class DemandForecast {
+    static final long PERIOD_MILLIS = 60 * 60 * 1000;
+    static final long PLAN_MILLIS = 60 * 1000;
+    private static final double SMOOTHING = 0.3;
+    private static final double LEAD_TIME = 24; //Periods between sending a purchase order and receiving it
+    private static final double SAFETY_FACTOR = 1.65; //Covers the usage during the lead time about 95% of the time
+    private static final double ORDER_COST = 10; //Cost of making one purchase order
+    private static final double HOLDING_COST = 0.01; //Cost of keeping one unit in stock for one period
+    private static final int DEFAULT_ORDER = 20;
+    private static final String PREFIX = "forecast/";
+    private static final Pattern VALUE = Pattern.compile("(\\d+) \\| (\\d+) \\| ([0-9.Ee-]+) \\| ([0-9.Ee-]+)");
+    private static final Pattern RECORD =
+            Pattern.compile("(.+) \\| (\\d+ \\| \\d+ \\| [0-9.Ee-]+ \\| [0-9.Ee-]+);");
+
+    private LogStore store;
+    private HashMap<String, IngredientForecast> forecasts;
+    private long lastPlan;
+
+    /**
+     * The usage forecast of a single ingredient.
+     */
+    private static class IngredientForecast {
+        private long period; //The period that usage is being counted for
+        private int usage; //The usage counted so far in this period
+        private double rate; //The smoothed usage per period
+        private double variance; //The smoothed variance of the usage per period
+        private int reorderPoint;
+        private int orderQuantity = DEFAULT_ORDER;
+    }
+
+    /**
+     * Opens the forecast kept in a store, or starts with no usage history if it has none.
+     *
+     * @param store The store of the restaurant
+     */
+    public DemandForecast(LogStore store) {
+        this.store = store;
+        forecasts = new HashMap<>();
+        for (Map.Entry<String, String> entry : store.scan(PREFIX).entrySet()) {
+            Matcher value = VALUE.matcher(entry.getValue());
+            if (value.matches()) {
+                IngredientForecast forecast = new IngredientForecast();
+                forecast.period = Long.parseLong(value.group(1));
+                forecast.usage = Integer.parseInt(value.group(2));
+                forecast.rate = Double.parseDouble(value.group(3));
+                forecast.variance = Double.parseDouble(value.group(4));
+                update(forecast);
+                forecasts.put(entry.getKey(), forecast);
+            } else {
+                System.err.println("Skipped unreadable forecast " + entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Records that an amount of an ingredient was used, ex. when a dish was created.
+     *
+     * @param ingredient The ingredient that was used
+     * @param quantity   The amount that was used
+     * @param time       The time it was used, in milliseconds
+     */
+    public synchronized void record(String ingredient, int quantity, long time) {
+        IngredientForecast forecast = forecasts.get(ingredient);
+        if (forecast == null) {
+            forecast = new IngredientForecast();
+            forecast.period = time / PERIOD_MILLIS;
+            forecasts.put(ingredient, forecast);
+        }
+        roll(forecast, time / PERIOD_MILLIS);
+        forecast.usage += quantity;
+    }
+
+    /**
+     * Returns the stock level at which an ingredient should be reordered
+     *
+     * @param ingredient The ingredient
+     * @param threshold  The lowest reorder point allowed, ex. the threshold of the ingredient in the inventory
+     * @return The reorder point of the ingredient
+     */
+    public synchronized int getReorderPoint(String ingredient, int threshold) {
+        IngredientForecast forecast = forecasts.get(ingredient);
+        return forecast == null ? threshold : Math.max(threshold, forecast.reorderPoint);
+    }
+
+    /**
+     * Returns the amount of an ingredient that should be ordered when it is reordered
+     *
+     * @param ingredient The ingredient
+     * @return The amount to order
+     */
+    public synchronized int getOrderQuantity(String ingredient) {
+        IngredientForecast forecast = forecasts.get(ingredient);
+        return forecast == null ? DEFAULT_ORDER : forecast.orderQuantity;
+    }
+
+    /**
+     * Re-plans every ingredient if a minute has passed since the last plan.
+     *
+     * @param time The current time, in milliseconds
+     * @return Whether a new plan was made
+     */
+    public synchronized boolean planIfDue(long time) {
+        if (time - lastPlan < PLAN_MILLIS) {
+            return false;
+        }
+        plan(time);
+        return true;
+    }
+
+    /**
+     * Closes the usage periods that have ended for every ingredient, updates their reorder points and order
+     * quantities, and saves the forecast.
+     *
+     * @param time The current time, in milliseconds
+     */
+    public synchronized void plan(long time) {
+        long period = time / PERIOD_MILLIS;
+        for (IngredientForecast forecast : forecasts.values()) {
+            roll(forecast, period);
+        }
+        lastPlan = time;
+        save();
+    }
+
+    /**
+     * Blends the usage of every period that has ended into the smoothed rate and variance. The periods after the
+     * first one had no usage at all.
+     *
+     * @param forecast The forecast of the ingredient
+     * @param period   The current period
+     */
+    private void roll(IngredientForecast forecast, long period) {
+        if (period <= forecast.period) {
+            return;
+        }
+        long ended = period - forecast.period;
+        smooth(forecast, forecast.usage);
+        //Only a few empty periods are blended in, after that the rate and variance have already faded to nothing
+        for (long i = 1; i < ended && i < 64; i++) {
+            smooth(forecast, 0);
+        }
+        forecast.period = period;
+        forecast.usage = 0;
+        update(forecast);
+    }
+
+    /**
+     * Blends the usage of one period into the smoothed rate and variance.
+     */
+    private void smooth(IngredientForecast forecast, int usage) {
+        double error = usage - forecast.rate;
+        forecast.rate += SMOOTHING * error;
+        forecast.variance = (1 - SMOOTHING) * (forecast.variance + SMOOTHING * error * error);
+    }
+
+    /**
+     * Works out the reorder point and order quantity of an ingredient from its smoothed usage.
+     */
+    private void update(IngredientForecast forecast) {
+        double safetyStock = SAFETY_FACTOR * Math.sqrt(forecast.variance * LEAD_TIME);
+        forecast.reorderPoint = (int) Math.ceil(forecast.rate * LEAD_TIME + safetyStock);
+        //Ingredients that are barely used any more are ordered as if they had no usage history
+        if (forecast.rate * LEAD_TIME >= 1) {
+            forecast.orderQuantity = Math.max(1,
+                    (int) Math.ceil(Math.sqrt(2 * forecast.rate * ORDER_COST / HOLDING_COST)));
+        } else {
+            forecast.orderQuantity = DEFAULT_ORDER;
+        }
+    }
+
+    /**
+     * Adds the smoothed usage of every ingredient onto a transaction and commits it, without waiting for the disk.
+     */
+    private void save() {
+        LogStore.Transaction transaction = store.begin();
+        for (String ingredient : forecasts.keySet()) {
+            IngredientForecast forecast = forecasts.get(ingredient);
+            transaction.put(PREFIX + ingredient, forecast.period + " | " + forecast.usage + " | " + forecast.rate
+                    + " | " + forecast.variance);
+        }
+        transaction.commit();
+    }
+
+    /**
+     * Adds the forecast kept in Forecast.txt before the store onto a transaction, if there is such a file. Each line
+     * is the ingredient, period, usage, rate and variance, ex. "Bacon | 480000 | 3 | 2.5 | 0.75;".
+     *
+     * @param transaction The transaction to add it to
+     */
+    public static void importTextFile(LogStore.Transaction transaction) {
+        File forecastFile = new File("Forecast.txt");
+        if (!forecastFile.exists()) {
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(new FileReader(forecastFile))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher record = RECORD.matcher(line.trim());
+                if (record.matches()) {
+                    transaction.put(PREFIX + record.group(1), record.group(2));
+                } else if (!line.trim().isEmpty()) {
+                    System.err.println("Skipped unreadable forecast record: " + line);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Problem reading " + forecastFile.getName());
+        }
+    }
+}
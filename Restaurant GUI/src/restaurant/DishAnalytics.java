@@ -0,0 +1,107 @@
+package restaurant;
+
+/**
+ * The sales of a single dish over some period of the dish history, added up by {@link MenuAnalytics}.
+ */
+public class DishAnalytics {
+    private String name;
+    private long sold;
+    private long accommodated;
+    private long complaints;
+    private long revenueCents;
+    private long ingredientCostCents;
+    private boolean missingCosts; //Whether some ingredient of the dish has no unit cost
+
+    DishAnalytics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Adds one sale of the dish.
+     */
+    void addSale(long priceCents, long ingredientCostCents, boolean accommodated, boolean missingCosts) {
+        sold++;
+        revenueCents += priceCents;
+        this.ingredientCostCents += ingredientCostCents;
+        if (accommodated) {
+            this.accommodated++;
+        }
+        this.missingCosts |= missingCosts;
+    }
+
+    /**
+     * Adds one complaint about the dish.
+     */
+    void addComplaint() {
+        complaints++;
+    }
+
+    /**
+     * Adds the sales of the same dish counted somewhere else onto these.
+     */
+    void merge(DishAnalytics other) {
+        sold += other.sold;
+        accommodated += other.accommodated;
+        complaints += other.complaints;
+        revenueCents += other.revenueCents;
+        ingredientCostCents += other.ingredientCostCents;
+        missingCosts |= other.missingCosts;
+    }
+
+    //returns the name of the dish.
+    public String getName() {
+        return name;
+    }
+
+    //returns the number of times the dish was sold.
+    public long getSold() {
+        return sold;
+    }
+
+    //returns the number of complaints about the dish.
+    public long getComplaints() {
+        return complaints;
+    }
+
+    //returns the money made from selling the dish.
+    public Money getRevenue() {
+        return Money.ofCents(revenueCents);
+    }
+
+    //returns the cost of the ingredients that went into the dishes sold.
+    public Money getIngredientCost() {
+        return Money.ofCents(ingredientCostCents);
+    }
+
+    //returns whether some ingredient of the dish had no unit cost, so its ingredient cost is too low.
+    public boolean isMissingCosts() {
+        return missingCosts;
+    }
+
+    /**
+     * Returns the average contribution margin of the dish, the price minus the cost of its ingredients
+     *
+     * @return The margin of one sale, rounded down to the cent, or zero if it was never sold
+     */
+    public Money getContributionMargin() {
+        return sold == 0 ? Money.ZERO : Money.ofCents(Math.floorDiv(revenueCents - ingredientCostCents, sold));
+    }
+
+    /**
+     * Returns how often the dish was sold with accommodations
+     *
+     * @return The fraction of sales that had accommodations, from 0 to 1
+     */
+    public double getAccommodationRate() {
+        return sold == 0 ? 0 : (double) accommodated / sold;
+    }
+
+    /**
+     * Returns how often the dish was complained about
+     *
+     * @return The number of complaints per sale
+     */
+    public double getComplaintRate() {
+        return sold == 0 ? 0 : (double) complaints / sold;
+    }
+}
@@ -0,0 +1,122 @@
+package restaurant;
+
+import dishes.Combo;
+import dishes.Food;
+import dishes.Recipe;
+
+import java.io.*;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+/**
+ * The record of every dish sold or complained about, kept in DishHistory.txt for the menu analytics. Every event is a
+ * single line appended onto the end of the file and is never changed afterwards, ex.
+ * "2024-03-08T19:42:10 | sold | Burger | 899 | 1 | Bacon:2,Buns:1,Patty:1;" for the time, event, dish, price in
+ * cents, whether the dish had accommodations, and the ingredients that went into it.
+ * <p>
+ * Nothing is kept in memory; the history is only read by {@link MenuAnalytics}.
+ */
+public class DishHistory {
+    private File historyFile;
+
+    /**
+     * Opens the history in DishHistory.txt, creating it when the first event is recorded.
+     */
+    public DishHistory() {
+        this("DishHistory.txt");
+    }
+
+    /**
+     * Opens the history kept in a certain file.
+     *
+     * @param fileName The name of the history file
+     */
+    public DishHistory(String fileName) {
+        historyFile = new File(fileName);
+        if (historyFile.exists()) {
+            endUnfinishedRecord();
+        }
+    }
+
+    /**
+     * Records that a dish was delivered and paid for.
+     *
+     * @param dish The dish that was sold
+     */
+    public void recordSale(Recipe dish) {
+        append("sold", dish);
+    }
+
+    /**
+     * Records that a customer complained about a dish.
+     *
+     * @param dish The dish that was complained about
+     */
+    public void recordComplaint(Recipe dish) {
+        append("complaint", dish);
+    }
+
+    //returns the file the history is kept in.
+    public File getFile() {
+        return historyFile;
+    }
+
+    /**
+     * Appends an event onto the end of the file.
+     */
+    private synchronized void append(String event, Recipe dish) {
+        StringBuilder record = new StringBuilder(100);
+        record.append(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)).append(" | ").append(event).append(" | ")
+                .append(dish.getName()).append(" | ").append(dish.getPrice().getCents()).append(" | ")
+                .append(isAccommodated(dish) ? 1 : 0).append(" | ");
+        boolean first = true;
+        for (Map.Entry<String, Integer> ingredient : dish.getIngredients().entrySet()) {
+            if (!first) {
+                record.append(",");
+            }
+            record.append(ingredient.getKey()).append(":").append(ingredient.getValue());
+            first = false;
+        }
+        record.append(";\n");
+        try (FileOutputStream out = new FileOutputStream(historyFile, true)) {
+            out.write(record.toString().getBytes("UTF-8"));
+            out.getFD().sync();
+        } catch (IOException e) {
+            System.err.println("Problem writing to " + historyFile.getName());
+        }
+    }
+
+    /**
+     * Returns whether ingredients were added to or taken out of a dish for the customer
+     */
+    private boolean isAccommodated(Recipe dish) {
+        if (dish instanceof Combo) {
+            for (int i = 0; i < ((Combo) dish).getFoods().length; i++) {
+                if (!((Combo) dish).getInstructions(i).equals("")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return dish instanceof Food && !((Food) dish).getInstructions().equals("");
+    }
+
+    /**
+     * Ends the last line of the file if the program closed in the middle of writing it, so that the next event
+     * starts on its own line. The cut off line is skipped by the analytics.
+     */
+    private void endUnfinishedRecord() {
+        try (RandomAccessFile file = new RandomAccessFile(historyFile, "rw")) {
+            if (file.length() > 0) {
+                file.seek(file.length() - 1);
+                if (file.read() != '\n') {
+                    file.write('\n');
+                    file.getFD().sync();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Problem writing to " + historyFile.getName());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package restaurant;
+
+import dishes.Recipe;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * Writes off expired stock every minute, on a thread of its own so that nobody cooking waits for it. Only the lot
+ * of each ingredient that expires first has to be looked at to find out whether anything has expired, so a sweep
+ * costs little when nothing has. What was written off is printed as an error, since it is stock lost.
+ * <p>
+ * When a dish loses the ingredients reserved for it to expiry, the server of its order is told with an
+ * "ingredients expired" notification, so the customer can be asked to choose again before the chef finds out.
+ */
+public class ExpirySweeper implements Closeable {
+    private static final long SWEEP_MILLIS = 60 * 1000; //How long to wait between sweeps
+
+    private Inventory inventory;
+    private KitchenQueue kitchen;
+    private Thread thread;
+
+    /**
+     * Starts sweeping the inventory.
+     *
+     * @param inventory The inventory to write off expired stock from
+     * @param kitchen   The orders in the kitchen, whose servers are told when a dish loses its ingredients
+     */
+    ExpirySweeper(Inventory inventory, KitchenQueue kitchen) {
+        this.inventory = inventory;
+        this.kitchen = kitchen;
+        thread = new Thread(this::sweep, "expiry-sweeper");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Writes off expired stock every minute, until the sweeper is closed. A sweep that fails, ex. because the store
+     * stopped after a write failed, is printed and tried again the next minute, so the sweeper never stops quietly.
+     */
+    private void sweep() {
+        try {
+            while (true) {
+                try {
+                    sweepOnce(System.currentTimeMillis());
+                } catch (RuntimeException e) {
+                    System.err.println("Could not write off expired stock, trying again in a minute: " + e);
+                }
+                Thread.sleep(SWEEP_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            //The sweeper was closed
+        }
+    }
+
+    /**
+     * Writes off the stock that has expired by now, and tells the servers of the dishes that lost their ingredients.
+     */
+    private void sweepOnce(long now) {
+        ArrayList<Recipe> released = new ArrayList<>();
+        for (Map.Entry<String, Integer> writtenOff : inventory.writeOffExpired(now, released).entrySet()) {
+            System.err.println("Wrote off " + writtenOff.getValue() + " " + writtenOff.getKey() + ", which expired");
+        }
+        for (Recipe dish : released) {
+            tellServer(dish, now);
+        }
+    }
+
+    /**
+     * Tells the server of the order a dish is in that the ingredients reserved for it expired.
+     */
+    private void tellServer(Recipe dish, long now) {
+        for (Order order : kitchen) {
+            if (order.getDishes().contains(dish)) {
+                NotificationBus.getBus().publish(new Notification("ingredients expired", order.getTableNumber(),
+                        order.getServerKey(), dish.getName(), now));
+                return;
+            }
+        }
+        System.err.println("The ingredients reserved for " + dish.getName() + " expired, but it is in no order "
+                + "in the kitchen");
+    }
+
+    /**
+     * Stops writing off expired stock.
+     */
+    @Override
+    public void close() {
+        thread.interrupt();
+    }
+}
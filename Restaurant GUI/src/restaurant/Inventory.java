@@ -1,48 +1,240 @@
 package restaurant;
 
 import dishes.DishInterpreter;
+import dishes.Recipe;
+import storage.LogStore;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.FileNotFoundException;
-import java.io.File;
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 /**
  * Responsible for storing and keeping track of ingredients.
+ * <p>
+ * Ingredients for a dish are reserved when its order is confirmed, and held until the dish is cooked or cancelled,
+ * so two orders can never be promised the same ingredients. The stock available for new dishes is the quantity on
+ * hand minus everything that is reserved.
+ * <p>
+ * Each ingredient is kept in the restaurant's store as its quantity, threshold, an optional unit cost and an optional
+ * shelf life in hours, ex. "stock/Lettuce" is "100 | 40 | 0.10 | 72", the same columns as the Ingredients.txt it was
+ * first imported from. A change to an ingredient only writes that ingredient, and changes made while cooking do not
+ * wait for the disk. Whoever works out costs from the unit costs can listen for them to change, and whoever needs to
+ * know what can still be made can listen for the available stock of an ingredient to change.
+ * <p>
+ * The stock of an ingredient is made up of lots, one for each delivery, ex. "lot/Lettuce/12" is "40 | received |
+ * expires" in milliseconds. Cooking uses up the lot that expires first, so taking an amount out only looks at the
+ * lots it empties. Lots of an ingredient without a shelf life never expire and are used in the order they came in.
+ * Expired lots are written off as waste by the expiry sweeper.
  *
  * @author Thomas Leung
  */
 public class Inventory {
+    private static final String PREFIX = "stock/";
+    private static final String LOT_PREFIX = "lot/";
+    private static final String WASTE_PREFIX = "waste/";
+    private static final long HOUR_MILLIS = 60 * 60 * 1000;
+    private static final long NEVER = Long.MAX_VALUE; //When a lot without a shelf life expires
+    //Lots that expire first come first, then lots that came in first
+    private static final Comparator<Lot> FIRST_TO_EXPIRE = Comparator.comparingLong((Lot lot) -> lot.expires)
+            .thenComparingLong(lot -> lot.received).thenComparingLong(lot -> lot.id);
+
+    private LogStore store;
     private HashMap<String, int[]> ingredients;
+    private PurchaseOrderQueue purchaseOrders;
+    private DemandForecast forecast;
+    private HashMap<String, Integer> reserved; //Maps ingredients to the total amount reserved by confirmed dishes
+    private LinkedHashMap<Recipe, HashMap<String, Integer>> reservations; //Dishes to what they reserved, oldest first
+    private HashMap<String, Money> unitCosts; //Maps ingredients to the cost of one unit, if it is known
+    private ArrayList<Consumer<String>> costListeners; //Told the name of every ingredient whose unit cost changes
+    private ArrayList<Consumer<String>> stockListeners; //Told the name of every ingredient whose available stock changes
+    private HashMap<String, PriorityQueue<Lot>> lots; //Maps ingredients to their lots, the first to expire at the head
+    private HashMap<String, Integer> shelfLives; //Maps perishable ingredients to how many hours a delivery keeps
+    private HashMap<String, Integer> wasted; //Maps ingredients to the total amount written off after expiring
+    private long nextLotId;
 
     /**
-     * instantiate a new inventory object and adds all the ingredients into the hash map appropriately.
+     * One delivery of an ingredient, and how much of it is left.
      */
-    public Inventory() {
+    private static final class Lot {
+        private final long id;
+        private final long received; //When it came in, in milliseconds
+        private final long expires; //When it expires, in milliseconds, or NEVER
+        private int quantity;
+
+        private Lot(long id, int quantity, long received, long expires) {
+            this.id = id;
+            this.quantity = quantity;
+            this.received = received;
+            this.expires = expires;
+        }
+    }
+
+    /**
+     * instantiate a new inventory object and adds all the ingredients kept in the store into the hash map
+     * appropriately. Stock that is not in any lot, ex. stock kept from before lots were, is put in a lot received
+     * now.
+     *
+     * @param store the store of the restaurant.
+     */
+    public Inventory(LogStore store) {
+        this.store = store;
         ingredients = new HashMap<>();
+        purchaseOrders = new PurchaseOrderQueue(store);
+        forecast = new DemandForecast(store);
+        reserved = new HashMap<>();
+        reservations = new LinkedHashMap<>();
+        unitCosts = new HashMap<>();
+        costListeners = new ArrayList<>();
+        stockListeners = new ArrayList<>();
+        lots = new HashMap<>();
+        shelfLives = new HashMap<>();
+        wasted = new HashMap<>();
+        for (Map.Entry<String, String> entry : store.scan(PREFIX).entrySet()) {
+            try {
+                readIngredient(entry.getKey(), entry.getValue().split("\\|"));
+            } catch (RuntimeException e) {
+                System.err.println("Skipped unreadable ingredient " + entry.getKey());
+            }
+        }
+        for (Map.Entry<String, String> entry : store.scan(LOT_PREFIX).entrySet()) {
+            try {
+                readLot(entry.getKey(), entry.getValue().split("\\|"));
+            } catch (RuntimeException e) {
+                System.err.println("Skipped unreadable lot " + entry.getKey());
+            }
+        }
+        for (Map.Entry<String, String> entry : store.scan(WASTE_PREFIX).entrySet()) {
+            wasted.put(entry.getKey(), Integer.parseInt(entry.getValue()));
+        }
+        LogStore.Transaction transaction = store.begin();
+        for (String ingredient : ingredients.keySet()) {
+            int inLots = 0;
+            for (Lot lot : lots.get(ingredient)) {
+                inLots += lot.quantity;
+            }
+            int quantity = Math.max(ingredients.get(ingredient)[0], 0);
+            if (quantity > inLots) {
+                addLot(ingredient, quantity - inLots, System.currentTimeMillis(), transaction);
+            } else if (quantity < inLots) {
+                takeFromLots(ingredient, inLots - quantity, transaction);
+            }
+        }
+        if (!transaction.isEmpty()) {
+            transaction.commit();
+        }
+    }
+
+    /**
+     * Adds an ingredient from its columns: the quantity, the threshold, an optional unit cost and an optional
+     * shelf life in hours. The unit cost is left empty if there is a shelf life but no unit cost.
+     */
+    private void readIngredient(String ingredient, String[] input) {
+        int[] tempArray = {Integer.parseInt(input[0].trim()), Integer.parseInt(input[1].trim())};
+        ingredients.put(ingredient, tempArray);
+        lots.put(ingredient, new PriorityQueue<>(FIRST_TO_EXPIRE));
+        if (input.length > 2 && !input[2].trim().isEmpty()) {
+            unitCosts.put(ingredient, Money.parse(input[2]));
+        }
+        if (input.length > 3) {
+            shelfLives.put(ingredient, Integer.parseInt(input[3].trim()));
+        }
+    }
+
+    /**
+     * Adds a lot from its key, ex. "Lettuce/12", and its columns: the quantity left, when it was received and when
+     * it expires.
+     */
+    private void readLot(String key, String[] input) {
+        String ingredient = key.substring(0, key.lastIndexOf('/'));
+        long id = Long.parseLong(key.substring(key.lastIndexOf('/') + 1));
+        String expires = input[2].trim();
+        Lot lot = new Lot(id, Integer.parseInt(input[0].trim()), Long.parseLong(input[1].trim()),
+                expires.equals("never") ? NEVER : Long.parseLong(expires));
+        if (lots.containsKey(ingredient)) {
+            lots.get(ingredient).add(lot);
+        }
+        nextLotId = Math.max(nextLotId, id + 1);
+    }
+
+    /**
+     * Adds the shelf lives in Ingredients.txt onto a transaction, for a store that was imported before ingredients
+     * had them. Each ingredient in the store that has a shelf life in the file but not in the store gets it, and
+     * its lots that never expire are given the expiry they would have had.
+     *
+     * @param store       the store of the restaurant.
+     * @param transaction the transaction to add them to.
+     * @return the number of ingredients given a shelf life.
+     */
+    static int importShelfLives(LogStore store, LogStore.Transaction transaction) {
+        int imported = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader("Ingredients.txt"))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] input = line.split("\\|");
+                if (input.length < 5 || input[4].trim().isEmpty()) {
+                    continue;
+                }
+                String ingredient = input[0].trim();
+                int hours = Integer.parseInt(input[4].trim());
+                String stored = store.get(PREFIX + ingredient);
+                if (stored == null || stored.split("\\|").length > 3) {
+                    continue; //Not in the store, or it already has a shelf life
+                }
+                String[] columns = stored.split("\\|");
+                transaction.put(PREFIX + ingredient, columns[0].trim() + " | " + columns[1].trim() + " | "
+                        + (columns.length > 2 ? columns[2].trim() : "") + " | " + hours);
+                for (Map.Entry<String, String> lot : store.scan(LOT_PREFIX + ingredient + "/").entrySet()) {
+                    String[] lotColumns = lot.getValue().split("\\|");
+                    if (lotColumns[2].trim().equals("never")) {
+                        long received = Long.parseLong(lotColumns[1].trim());
+                        transaction.put(LOT_PREFIX + ingredient + "/" + lot.getKey(), lotColumns[0].trim() + " | "
+                                + received + " | " + (received + hours * HOUR_MILLIS));
+                    }
+                }
+                imported++;
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Problem reading the shelf lives in Ingredients.txt");
+        }
+        return imported;
+    }
+
+    /**
+     * Adds the ingredients kept in Ingredients.txt before the store onto a transaction. Each line of the file is
+     * the ingredient name, starting quantity, threshold, an optional cost and an optional shelf life in hours, ex.
+     * "Bacon | 80 | 30 | 0.45" or "Lettuce | 100 | 40 | | 72".
+     *
+     * @param transaction the transaction to add them to.
+     */
+    public static void importTextFile(LogStore.Transaction transaction) {
         String ingredient;
         String[] input;
 
         try{
-            File requests = new File("Requests.txt");
-            if(!requests.exists()){
-                if (requests.createNewFile()){System.out.println("New Requests.txt has been created.");}
-            }
-
             FileReader ingredientGetter = new FileReader("Ingredients.txt");
             BufferedReader ingredientLine = new BufferedReader(ingredientGetter);
 
-            //loop through all the lines of text to pull out the ingredient name, starting quantity and threshold.
+            //loop through all the lines of text to pull out the ingredient name, starting quantity, threshold and cost.
             while((ingredient = ingredientLine.readLine()) != null){
-                input = ingredient.split("\\|");
-                int[] tempArray = {Integer.parseInt(input[1].trim()),
-                Integer.parseInt(input[2].trim())};
-                ingredients.put(input[0].trim(), tempArray);
+                input = ingredient.split("\\|", 2);
+                if(input.length > 1){
+                    transaction.put(PREFIX + input[0].trim(), input[1].trim());
+                }
             }
             ingredientGetter.close(); //close the file
         }
@@ -51,51 +243,48 @@ public class Inventory {
     }
 
     /**
-     * The automated function that will run when an ingredient reaches a specified thresh hold
+     * The automated function that will run when an ingredient reaches its reorder point. The amount requested is
+     * worked out from how fast the ingredient is used. The ingredient is not requested again if an earlier request
+     * for it has not been received yet.
      *
      * @param ingredient the specified ingredient that will be requested for restock.
      */
     private void automatedRequest(String ingredient) {
-        try {
-            File requests = new File("Requests.txt");
-
-            BufferedWriter request = new BufferedWriter(new FileWriter(requests, true));
-            request.write("Please order 20 of " + ingredient + ".\n");
-
-            request.close();
-        } catch (Exception e) {
-            System.out.println("Error reading/opening file");
-        }
+        purchaseOrders.automatedRequest(ingredient, forecast.getOrderQuantity(ingredient));
     }
 
     /**
      * A manual write in request for ingredients.
      *
      * @param ingredient the specified ingredient that will be requested for restock.
+     * @return whether the ingredient is in the inventory and the request was saved.
      */
      public boolean manualRequest(String ingredient, int requestQuantity) {
-         for(String key: ingredients.keySet())
-         {
-             if(key.equals(ingredient)){
-                 try {
-                     File requests = new File("Requests.txt");
-
-                     BufferedWriter request = new BufferedWriter(new FileWriter(requests, true));
-                     request.write("Please order " + requestQuantity + " of " + ingredient + ".\n");
-
-                     request.close();
-                     System.out.println("finished");
-                 } catch (Exception e) {
-                     System.out.println("Error reading/opening file");
-                 }
-                 return true;
-             }
+         if (ingredients.containsKey(ingredient)) {
+             return purchaseOrders.request(ingredient, requestQuantity);
          }
         return false;
     }
 
+    //returns the usage forecast of the ingredients.
+    public DemandForecast getForecast() {
+        return forecast;
+    }
+
+    //returns the queue of purchase orders for the supplier.
+    public PurchaseOrderQueue getPurchaseOrders() {
+        return purchaseOrders;
+    }
+
+    //returns the names of every ingredient in the inventory, sorted.
+    public synchronized ArrayList<String> getIngredientNames() {
+        ArrayList<String> names = new ArrayList<>(ingredients.keySet());
+        Collections.sort(names);
+        return names;
+    }
+
     //returns the quantity of the specified ingredient.
-    public int getQuantity(String ingredient) {
+    public synchronized int getQuantity(String ingredient) {
         //Check to see if the ingredient is part of the menu first.
         try {
             return ingredients.get(ingredient)[0];
@@ -106,70 +295,475 @@ public class Inventory {
         }
     }
 
+    //returns the quantity of the specified ingredient that is not reserved by any dish.
+    public synchronized int getAvailable(String ingredient) {
+        Integer amountReserved = reserved.get(ingredient);
+        return getQuantity(ingredient) - (amountReserved == null ? 0 : amountReserved);
+    }
+
+    /**
+     * Reserves the ingredients of a dish until it is cooked or cancelled. Nothing is reserved if any of the
+     * ingredients are not available.
+     *
+     * @param dish the dish that the ingredients are reserved for.
+     * @return whether the ingredients were reserved, or were already reserved for this dish.
+     */
+    public synchronized boolean reserve(Recipe dish) {
+        if (reservations.containsKey(dish)) {
+            return true;
+        }
+        HashMap<String, Integer> dishIngredients = new HashMap<>(dish.getIngredients());
+        if (findShortage(dish, dishIngredients) != null) {
+            return false;
+        }
+        hold(dish, dishIngredients);
+        return true;
+    }
+
+    /**
+     * Checks whether a dish could be made with changed ingredients, ex. after a customer asks for extra bacon. If
+     * the dish has ingredients reserved, the reservation is changed to the new ingredients, so the extra is held
+     * for it too and what it no longer needs is freed.
+     *
+     * @param dish               the dish that is being changed.
+     * @param changedIngredients the ingredients the dish would have after the change.
+     * @return null if the dish could be made, otherwise an ingredient there is not enough of.
+     */
+    public synchronized String reserveChanges(Recipe dish, Map<String, Integer> changedIngredients) {
+        String shortage = findShortage(dish, changedIngredients);
+        if (shortage == null && reservations.containsKey(dish)) {
+            release(dish);
+            hold(dish, new HashMap<>(changedIngredients));
+        }
+        return shortage;
+    }
+
+    //returns whether the specified dish can be made, counting the ingredients reserved for it.
+    public synchronized boolean canMake(Recipe dish) {
+        return findShortage(dish, dish.getIngredients()) == null;
+    }
+
+    /**
+     * Returns an ingredient there is not enough of to make a dish, counting the ingredients reserved for it.
+     *
+     * @return null if there is enough of every ingredient.
+     */
+    private String findShortage(Recipe dish, Map<String, Integer> dishIngredients) {
+        HashMap<String, Integer> dishReservation = reservations.get(dish);
+        for (Map.Entry<String, Integer> ingredient : dishIngredients.entrySet()) {
+            int held = dishReservation == null ? 0 : dishReservation.getOrDefault(ingredient.getKey(), 0);
+            if (ingredient.getValue() > getAvailable(ingredient.getKey()) + held) {
+                return ingredient.getKey();
+            }
+        }
+        return null;
+    }
+
     /**
-     * Adds the new shipment of ingredients into the inventory.
+     * Reserves some ingredients for a dish that has nothing reserved.
+     */
+    private void hold(Recipe dish, HashMap<String, Integer> dishIngredients) {
+        for (String ingredient : dishIngredients.keySet()) {
+            reserved.put(ingredient, reserved.getOrDefault(ingredient, 0) + dishIngredients.get(ingredient));
+            stockChanged(ingredient);
+        }
+        reservations.put(dish, dishIngredients);
+    }
+
+    /**
+     * Releases the ingredients reserved for a dish, ex. when the dish is cancelled. Nothing is done if the dish
+     * has nothing reserved.
+     *
+     * @param dish the dish whose ingredients are released.
+     */
+    public synchronized void release(Recipe dish) {
+        HashMap<String, Integer> dishIngredients = reservations.remove(dish);
+        if (dishIngredients == null) {
+            return;
+        }
+        for (String ingredient : dishIngredients.keySet()) {
+            int amountReserved = reserved.get(ingredient) - dishIngredients.get(ingredient);
+            if (amountReserved <= 0) {
+                reserved.remove(ingredient);
+            } else {
+                reserved.put(ingredient, amountReserved);
+            }
+            stockChanged(ingredient);
+        }
+    }
+
+    //returns whether the ingredients of the specified dish are reserved.
+    public synchronized boolean isReserved(Recipe dish) {
+        return reservations.containsKey(dish);
+    }
+
+    /**
+     * Uses up the ingredients of a dish that is being cooked. The dish may use its own reservation, along with any
+     * ingredients that are available. Nothing is used if there are not enough ingredients.
+     *
+     * @param dish the dish that is being cooked.
+     * @return whether the ingredients were used.
+     */
+    public synchronized boolean consume(Recipe dish) {
+        HashMap<String, Integer> dishIngredients = dish.getIngredients();
+        if (findShortage(dish, dishIngredients) != null) {
+            return false;
+        }
+        release(dish);
+        LogStore.Transaction transaction = store.begin();
+        for (String ingredient : dishIngredients.keySet()) {
+            subtractIngredient(ingredient, dishIngredients.get(ingredient), transaction);
+        }
+        transaction.commit();
+        return true;
+    }
+
+    /**
+     * Adds the new shipment of ingredients into the inventory, as a lot received now. A negative quantity takes
+     * stock out, starting from the lot that expires first.
      *
      * @param ingredient the specified ingredient that will be receiving an increase in quantity.
      * @param quantity   the amount that will be added into the inventory.
+     * @return whether the ingredient is in the inventory and the change was saved.
      */
     public boolean addIngredient(String ingredient, int quantity) {
-        for(String key: ingredients.keySet()) {
-            if(key.equals(ingredient)) {
-                ingredients.get(ingredient)[0] += quantity;
-                writeInChange();
-                return true;
+        CompletableFuture<Void> written;
+        synchronized (this) {
+            LogStore.Transaction transaction = store.begin();
+            if (!addIngredient(ingredient, quantity, transaction)) {
+                return false;
             }
+            written = transaction.commit();
         }
-        return false;
+        return LogStore.waitFor(written);
+    }
+
+    /**
+     * Adds the new shipment of ingredients into the inventory, as part of a larger transaction.
+     *
+     * @param ingredient  the specified ingredient that will be receiving an increase in quantity.
+     * @param quantity    the amount that will be added into the inventory.
+     * @param transaction the transaction that the new quantity is saved in.
+     */
+    synchronized boolean addIngredient(String ingredient, int quantity, LogStore.Transaction transaction) {
+        if (!ingredients.containsKey(ingredient)) {
+            return false;
+        }
+        int[] stock = ingredients.get(ingredient);
+        if (quantity < 0) {
+            takeFromLots(ingredient, -quantity, transaction);
+        } else if (Math.min(quantity, stock[0] + quantity) > 0) {
+            //Stock that was used before it came in is paid back first
+            addLot(ingredient, Math.min(quantity, stock[0] + quantity), System.currentTimeMillis(), transaction);
+        }
+        stock[0] += quantity;
+        save(ingredient, transaction);
+        stockChanged(ingredient);
+        return true;
     }
 
     /**
-     * Removes the quantity of said ingredient after use.
+     * Removes the quantity of said ingredient after use. The use is recorded in the forecast and the kitchen
+     * dashboard, and the ingredient is requested once it reaches its reorder point, which is never lower than its threshold.
      *
      * @param ingredient the specified ingredient that will be receiving a decrease in quantity.
      * @param quantity   the amount that will  be used in the inventory.
      */
-    public void subtractIngredient(String ingredient, int quantity) {
+    public synchronized void subtractIngredient(String ingredient, int quantity) {
+        LogStore.Transaction transaction = store.begin();
+        subtractIngredient(ingredient, quantity, transaction);
+        transaction.commit();
+    }
+
+    private void subtractIngredient(String ingredient, int quantity, LogStore.Transaction transaction) {
+        long now = System.currentTimeMillis();
+        takeFromLots(ingredient, quantity, transaction);
         ingredients.get(ingredient)[0] -= quantity;
-        writeInChange();
-        if (ingredients.get(ingredient)[0] <= ingredients.get(ingredient)[1]) {
+        save(ingredient, transaction);
+        stockChanged(ingredient);
+        forecast.record(ingredient, quantity, now);
+        forecast.planIfDue(now);
+        KitchenStats.getStats().recordIngredientUse(ingredient, quantity, now);
+        checkReorderPoint(ingredient);
+    }
+
+    /**
+     * Requests an ingredient if it has reached its reorder point, which is never lower than its threshold.
+     */
+    private void checkReorderPoint(String ingredient) {
+        if (ingredients.get(ingredient)[0] <= forecast.getReorderPoint(ingredient, ingredients.get(ingredient)[1])) {
             automatedRequest(ingredient);
         }
     }
 
+    /**
+     * Adds a lot of an ingredient onto a transaction. It expires after the shelf life of the ingredient, if it has
+     * one.
+     *
+     * @param received when the lot was received, in milliseconds.
+     */
+    private void addLot(String ingredient, int quantity, long received, LogStore.Transaction transaction) {
+        Integer shelfLife = shelfLives.get(ingredient);
+        Lot lot = new Lot(nextLotId++, quantity, received,
+                shelfLife == null ? NEVER : received + shelfLife * HOUR_MILLIS);
+        lots.get(ingredient).add(lot);
+        saveLot(ingredient, lot, transaction);
+    }
+
+    /**
+     * Takes an amount of an ingredient out of its lots, starting from the lot that expires first, until the amount
+     * is taken or there are no lots left. Only the lots that are emptied are taken off the queue, and the lot after
+     * them only has its quantity lowered, which does not change where it is in the queue.
+     */
+    private void takeFromLots(String ingredient, int amount, LogStore.Transaction transaction) {
+        PriorityQueue<Lot> queue = lots.get(ingredient);
+        while (amount > 0 && !queue.isEmpty()) {
+            Lot first = queue.peek();
+            int taken = Math.min(amount, first.quantity);
+            first.quantity -= taken;
+            amount -= taken;
+            if (first.quantity == 0) {
+                queue.poll();
+                transaction.delete(LOT_PREFIX + ingredient + "/" + first.id);
+            } else {
+                saveLot(ingredient, first, transaction);
+            }
+        }
+    }
+
+    /**
+     * Writes off every lot that has expired as waste. The stock of each ingredient written off drops, which may
+     * take menu items off the menu and request the ingredient again. If some of what expired was reserved, so that
+     * more of the ingredient is reserved than is left, the newest reservations of it are released until it is not.
+     *
+     * @param now      the current time, in milliseconds.
+     * @param released where the dishes whose reservations were released are added, so their servers can be told.
+     * @return a map from the ingredients written off to the amount of each, sorted by ingredient.
+     */
+    public synchronized LinkedHashMap<String, Integer> writeOffExpired(long now, List<Recipe> released) {
+        LinkedHashMap<String, Integer> writtenOff = new LinkedHashMap<>();
+        LogStore.Transaction transaction = store.begin();
+        for (String ingredient : getIngredientNames()) {
+            PriorityQueue<Lot> queue = lots.get(ingredient);
+            int expired = 0;
+            while (!queue.isEmpty() && queue.peek().expires <= now) {
+                Lot lot = queue.poll();
+                expired += lot.quantity;
+                transaction.delete(LOT_PREFIX + ingredient + "/" + lot.id);
+            }
+            if (expired > 0) {
+                ingredients.get(ingredient)[0] -= expired;
+                wasted.put(ingredient, wasted.getOrDefault(ingredient, 0) + expired);
+                transaction.put(WASTE_PREFIX + ingredient, Integer.toString(wasted.get(ingredient)));
+                save(ingredient, transaction);
+                stockChanged(ingredient);
+                releaseOverReserved(ingredient, released);
+                checkReorderPoint(ingredient);
+                writtenOff.put(ingredient, expired);
+            }
+        }
+        if (!transaction.isEmpty()) {
+            transaction.commit();
+        }
+        return writtenOff;
+    }
+
+    /**
+     * Releases the newest reservations of an ingredient until no more of it is reserved than there is. The oldest
+     * reservations are kept, since their dishes are the most likely to be cooking already.
+     *
+     * @param released where the dishes whose reservations were released are added.
+     */
+    private void releaseOverReserved(String ingredient, List<Recipe> released) {
+        ArrayList<Recipe> newestFirst = new ArrayList<>(reservations.keySet());
+        Collections.reverse(newestFirst);
+        for (Recipe dish : newestFirst) {
+            if (getAvailable(ingredient) >= 0) {
+                return;
+            }
+            if (reservations.get(dish).containsKey(ingredient)) {
+                release(dish);
+                released.add(dish);
+            }
+        }
+    }
+
+    /**
+     * Starts writing off expired stock in the background.
+     *
+     * @param kitchen the orders in the kitchen, whose servers are told when a dish loses its ingredients to expiry.
+     * @return the sweeper, which stops once it is closed.
+     */
+    public ExpirySweeper sweepExpired(KitchenQueue kitchen) {
+        return new ExpirySweeper(this, kitchen);
+    }
+
+    //returns the total amount of the specified ingredient written off after expiring.
+    public synchronized int getWasted(String ingredient) {
+        return wasted.getOrDefault(ingredient, 0);
+    }
+
+    //returns when the first lot of the specified ingredient expires, in milliseconds, or 0 if none of it expires.
+    public synchronized long getNextExpiry(String ingredient) {
+        PriorityQueue<Lot> queue = lots.get(ingredient);
+        return queue == null || queue.isEmpty() || queue.peek().expires == NEVER ? 0 : queue.peek().expires;
+    }
+
+    //returns how many hours a delivery of the specified ingredient keeps, or null if it does not expire.
+    public synchronized Integer getShelfLife(String ingredient) {
+        return shelfLives.get(ingredient);
+    }
+
+    /**
+     * Changes how many hours a delivery of an ingredient keeps. Lots already received keep their expiry.
+     *
+     * @param ingredient the ingredient.
+     * @param hours      the new shelf life in hours, or null if the ingredient does not expire.
+     * @return whether the ingredient is in the inventory and the change was saved.
+     */
+    public boolean setShelfLife(String ingredient, Integer hours) {
+        CompletableFuture<Void> written;
+        synchronized (this) {
+            if (!ingredients.containsKey(ingredient)) {
+                return false;
+            }
+            if (hours == null) {
+                shelfLives.remove(ingredient);
+            } else {
+                shelfLives.put(ingredient, hours);
+            }
+            LogStore.Transaction transaction = store.begin();
+            save(ingredient, transaction);
+            written = transaction.commit();
+        }
+        return LogStore.waitFor(written);
+    }
+
+    //returns the cost of one unit of the specified ingredient, or null if it is not known.
+    public synchronized Money getUnitCost(String ingredient) {
+        return unitCosts.get(ingredient);
+    }
+
+    /**
+     * Changes the cost of one unit of an ingredient, ex. when the supplier changes their price, and tells every
+     * cost listener about it.
+     *
+     * @param ingredient the ingredient whose cost changed.
+     * @param unitCost   the new cost of one unit.
+     * @return whether the ingredient is in the inventory and the change was saved.
+     */
+    public boolean setUnitCost(String ingredient, Money unitCost) {
+        ArrayList<Consumer<String>> listeners;
+        CompletableFuture<Void> written;
+        synchronized (this) {
+            if (!ingredients.containsKey(ingredient)) {
+                return false;
+            }
+            unitCosts.put(ingredient, unitCost);
+            LogStore.Transaction transaction = store.begin();
+            save(ingredient, transaction);
+            written = transaction.commit();
+            listeners = new ArrayList<>(costListeners);
+        }
+        for (Consumer<String> listener : listeners) {
+            listener.accept(ingredient);
+        }
+        return LogStore.waitFor(written);
+    }
+
+    /**
+     * Adds a listener that is told the name of an ingredient whenever its unit cost changes.
+     *
+     * @param listener the listener.
+     */
+    public synchronized void addCostListener(Consumer<String> listener) {
+        costListeners.add(listener);
+    }
+
+    /**
+     * Adds a listener that is told the name of an ingredient whenever the amount of it available for new dishes
+     * changes. The listener is called while the inventory is locked, so it must not wait on other locks.
+     *
+     * @param listener the listener.
+     */
+    public synchronized void addStockListener(Consumer<String> listener) {
+        stockListeners.add(listener);
+    }
+
+    /**
+     * Tells every stock listener that the available stock of an ingredient changed.
+     */
+    private void stockChanged(String ingredient) {
+        for (Consumer<String> listener : stockListeners) {
+            listener.accept(ingredient);
+        }
+    }
+
+    /**
+     * Returns the cost of some ingredients. Ingredients without a unit cost count as free.
+     *
+     * @param amounts a map from ingredients to the amount of each one.
+     * @return the total cost of the ingredients.
+     */
+    public synchronized Money getCost(Map<String, Integer> amounts) {
+        Money cost = Money.ZERO;
+        for (Map.Entry<String, Integer> amount : amounts.entrySet()) {
+            Money unitCost = unitCosts.get(amount.getKey());
+            if (unitCost != null) {
+                cost = cost.plus(unitCost.times(amount.getValue()));
+            }
+        }
+        return cost;
+    }
+
     //returns a string representation of all ingredients in the inventory and their quantity.
     @Override
-    public String toString() {
+    public synchronized String toString() {
         //print out the ingredient name and the quantity.
         StringBuilder messageBuild = new StringBuilder(200);
         for (String ingredient : ingredients.keySet()) {
             String ingredientName = ingredient + DishInterpreter.charExtender(" ", 25 - ingredient.length());
             String quantity = "Quantity: " + ingredients.get(ingredient)[0];
             String threshold = "Threshold: " + ingredients.get(ingredient)[1];
+            Money unitCost = unitCosts.get(ingredient);
+            long nextExpiry = getNextExpiry(ingredient);
             messageBuild.append(ingredientName);
             messageBuild.append(quantity);
             messageBuild.append(DishInterpreter.charExtender(" ", 25 - quantity.length()));
             messageBuild.append(threshold);
+            if (unitCost != null) {
+                messageBuild.append(DishInterpreter.charExtender(" ", 25 - threshold.length()));
+                messageBuild.append("Unit Cost: $").append(unitCost);
+            }
+            if (nextExpiry != 0) {
+                LocalDateTime expiry = LocalDateTime.ofInstant(Instant.ofEpochMilli(nextExpiry), ZoneId.systemDefault());
+                messageBuild.append("    Next Expiry: ").append(expiry.truncatedTo(ChronoUnit.MINUTES));
+            }
             messageBuild.append("\n");
         }
         return messageBuild.toString();
     }
 
     /**
-     * Writes changes in the Ingredients.txt to retain changes for when the program closes.
+     * Adds the current quantity, threshold, unit cost and shelf life of an ingredient onto a transaction.
      */
-    private void writeInChange(){
-        try{
-            File ingredients = new File("Ingredients.txt");
-
-            BufferedWriter writer = new BufferedWriter(new FileWriter(ingredients));
-            for(Map.Entry<String, int[]> entry: this.ingredients.entrySet()){
-                writer.write(entry.getKey() + " | " + entry.getValue()[0] + " | " + entry.getValue()[1] + "\n");
-            }
-            writer.close();
-        }
-        catch(Exception e){
-            System.err.println("Error working with file!");
+    private void save(String ingredient, LogStore.Transaction transaction) {
+        Money unitCost = unitCosts.get(ingredient);
+        Integer shelfLife = shelfLives.get(ingredient);
+        String value = ingredients.get(ingredient)[0] + " | " + ingredients.get(ingredient)[1];
+        if (shelfLife != null) {
+            value += " | " + (unitCost == null ? "" : unitCost) + " | " + shelfLife;
+        } else if (unitCost != null) {
+            value += " | " + unitCost;
         }
+        transaction.put(PREFIX + ingredient, value);
+    }
+
+    /**
+     * Adds the quantity left in a lot, when it was received and when it expires onto a transaction.
+     */
+    private void saveLot(String ingredient, Lot lot, LogStore.Transaction transaction) {
+        transaction.put(LOT_PREFIX + ingredient + "/" + lot.id, lot.quantity + " | " + lot.received + " | "
+                + (lot.expires == NEVER ? "never" : lot.expires));
     }
 }
@@ -0,0 +1,123 @@
+package restaurant;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Measures how long dishes take in the kitchen: the time from being confirmed until a chef acknowledges them, from
+ * being acknowledged until they are cooked, and from being cooked until they are delivered. Each time is recorded
+ * in a histogram for the dish, one for the chef, and one for the whole kitchen, ex. "cook.dish.Cheese Burger",
+ * "cook.chef.Chef_1" and "cook.all". There are no kitchen stations, so the chef is the finest place a dish is
+ * tracked to.
+ * <p>
+ * The metrics can be read through JMX once they have been registered, ex. with jconsole or a JMX exporter.
+ */
+public class KitchenMetrics implements KitchenMetricsMXBean {
+    public static final String OBJECT_NAME = "restaurant:type=KitchenMetrics";
+    private static final KitchenMetrics metrics = new KitchenMetrics();
+
+    private ConcurrentHashMap<String, LatencyHistogram> histograms;
+
+    private KitchenMetrics() {
+        histograms = new ConcurrentHashMap<>();
+    }
+
+    //returns the metrics of the kitchen.
+    public static KitchenMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Makes the kitchen metrics readable through JMX. Nothing is done if they are already registered.
+     */
+    public static void register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(metrics, name);
+            }
+        } catch (JMException e) {
+            System.err.println("Problem registering the kitchen metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Records how long a dish waited before a chef acknowledged it.
+     *
+     * @param dishName The name of the dish
+     * @param chefId   The id of the chef, ex. "Chef_1"
+     * @param millis   The time it took, in milliseconds
+     */
+    public void recordAcknowledge(String dishName, String chefId, long millis) {
+        record("acknowledge", dishName, chefId, millis);
+    }
+
+    /**
+     * Records how long a dish took to cook after it was acknowledged.
+     *
+     * @param dishName The name of the dish
+     * @param chefId   The id of the chef, ex. "Chef_1"
+     * @param millis   The time it took, in milliseconds
+     */
+    public void recordCook(String dishName, String chefId, long millis) {
+        record("cook", dishName, chefId, millis);
+    }
+
+    /**
+     * Records how long a dish waited to be delivered after it was cooked.
+     *
+     * @param dishName The name of the dish
+     * @param chefId   The id of the chef who cooked it, ex. "Chef_1"
+     * @param millis   The time it took, in milliseconds
+     */
+    public void recordDeliver(String dishName, String chefId, long millis) {
+        record("deliver", dishName, chefId, millis);
+    }
+
+    @Override
+    public List<LatencySnapshot> getSnapshots() {
+        ConcurrentSkipListMap<String, LatencyHistogram> sorted = new ConcurrentSkipListMap<>(histograms);
+        List<LatencySnapshot> snapshots = new ArrayList<>();
+        for (Map.Entry<String, LatencyHistogram> entry : sorted.entrySet()) {
+            snapshots.add(entry.getValue().snapshot(entry.getKey()));
+        }
+        return snapshots;
+    }
+
+    @Override
+    public String getReport() {
+        StringBuilder report = new StringBuilder(500);
+        for (LatencySnapshot snapshot : getSnapshots()) {
+            report.append(snapshot).append("\n");
+        }
+        return report.toString();
+    }
+
+    /**
+     * Records a time in the histograms of the dish, the chef and the whole kitchen.
+     */
+    private void record(String stage, String dishName, String chefId, long millis) {
+        histogram(stage + ".all").record(millis);
+        histogram(stage + ".dish." + dishName).record(millis);
+        histogram(stage + ".chef." + (chefId == null ? "unassigned" : chefId)).record(millis);
+    }
+
+    /**
+     * Returns the histogram with a name, creating it the first time it is used.
+     */
+    private LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+        }
+        return histogram;
+    }
+}
@@ -0,0 +1,23 @@
+package restaurant;
+
+import java.util.List;
+
+/**
+ * The kitchen metrics as seen through JMX, under the name "restaurant:type=KitchenMetrics".
+ */
+public interface KitchenMetricsMXBean {
+
+    /**
+     * Returns a snapshot of every latency histogram, sorted by name
+     *
+     * @return The snapshots
+     */
+    List<LatencySnapshot> getSnapshots();
+
+    /**
+     * Returns every snapshot as text, one per line
+     *
+     * @return The report
+     */
+    String getReport();
+}
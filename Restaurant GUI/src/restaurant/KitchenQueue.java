@@ -0,0 +1,133 @@
+package restaurant;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * The orders sent to the kitchen, in the order they were sent. Servers add orders and chefs take them off, from any
+ * thread.
+ * <p>
+ * The orders are kept in an array that is never changed once it is shared: adding or removing an order makes a new
+ * array and swaps it in with a compare-and-set, trying again if another thread swapped first. Nobody ever waits on a
+ * lock, and looping over the queue sees every order that was in it at one moment, even if orders are added or removed
+ * during the loop. Copying is cheap because the kitchen only holds a few dozen orders at a time, and it is bounded so
+ * that a kitchen that has fallen behind turns new orders away instead of piling them up.
+ */
+public class KitchenQueue implements Iterable<Order> {
+    public static final int DEFAULT_CAPACITY = 64;
+    private static final Order[] EMPTY = new Order[0];
+
+    private final int capacity;
+    private final AtomicReference<Order[]> orders;
+
+    /**
+     * Creates an empty kitchen queue.
+     *
+     * @param capacity The most orders the kitchen can have at once
+     */
+    public KitchenQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A kitchen queue must fit at least one order");
+        }
+        this.capacity = capacity;
+        orders = new AtomicReference<>(EMPTY);
+    }
+
+    /**
+     * Adds an order at the back of the queue, unless the queue is full.
+     *
+     * @param order The order sent to the kitchen
+     * @return false if the kitchen already has as many orders as it can take
+     */
+    public boolean offer(Order order) {
+        while (true) {
+            Order[] current = orders.get();
+            if (current.length >= capacity) {
+                return false;
+            }
+            Order[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = order;
+            if (orders.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Takes an order off the queue.
+     *
+     * @param order The order to take off
+     * @return false if the order was not in the queue
+     */
+    public boolean remove(Order order) {
+        return removeIf(queued -> queued == order);
+    }
+
+    /**
+     * Takes every order that matches a condition off the queue. The condition may be checked more than once for an
+     * order if another thread changes the queue at the same time.
+     *
+     * @param condition Whether an order should be taken off
+     * @return true if any orders were taken off
+     */
+    public boolean removeIf(Predicate<Order> condition) {
+        while (true) {
+            Order[] current = orders.get();
+            Order[] next = new Order[current.length];
+            int kept = 0;
+            for (Order order : current) {
+                if (!condition.test(order)) {
+                    next[kept++] = order;
+                }
+            }
+            if (kept == current.length) {
+                return false;
+            }
+            if (orders.compareAndSet(current, kept == 0 ? EMPTY : Arrays.copyOf(next, kept))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Clears out the orders whose dishes have all been delivered or cancelled, and returns whether there is room
+     * for another order. Servers check this before promising ingredients to a new order.
+     *
+     * @return true if another order fits in the queue
+     */
+    public boolean makeRoom() {
+        removeIf(Order::isFinished);
+        return orders.get().length < capacity;
+    }
+
+    /**
+     * Returns the orders in the queue at this moment. Later changes to the queue do not change the list.
+     *
+     * @return The orders, oldest first
+     */
+    public List<Order> snapshot() {
+        return Collections.unmodifiableList(Arrays.asList(orders.get()));
+    }
+
+    /**
+     * Loops over the orders in the queue at the moment the loop starts, oldest first.
+     */
+    @Override
+    public Iterator<Order> iterator() {
+        return snapshot().iterator();
+    }
+
+    //returns the number of orders in the queue.
+    public int size() {
+        return orders.get().length;
+    }
+
+    //returns the most orders the queue can hold.
+    public int getCapacity() {
+        return capacity;
+    }
+}
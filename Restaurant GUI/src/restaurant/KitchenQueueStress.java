@@ -0,0 +1,162 @@
+package restaurant;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Has many servers send orders to one {@link KitchenQueue} while many chefs take them off, and checks that the queue
+ * never loses an order, never hands the same order to two chefs, never holds more orders than it fits, and keeps the
+ * orders of each server in the order they were sent.
+ * <p>
+ * Every order's table number says which server sent it and in what position, so the queue can be checked from what
+ * is in it alone. The number of servers, chefs and orders per server, and the capacity of the queue, can be given as
+ * arguments. Prints whether the queue passed, and exits with 1 if it did not.
+ */
+public class KitchenQueueStress {
+    private static final int DEFAULT_SERVERS = 8;
+    private static final int DEFAULT_CHEFS = 4;
+    private static final int DEFAULT_ORDERS = 20000;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int PER_SERVER = 1000000; //Table numbers are server * PER_SERVER + position
+
+    private KitchenQueue queue;
+    private int servers;
+    private int orders;
+    private ConcurrentHashMap<Integer, Boolean> taken; //Maps the table numbers of the orders taken off to true
+    private AtomicInteger sent;
+    private AtomicReference<String> problem; //The first thing found wrong with the queue, or null
+    private volatile boolean sending;
+
+    private KitchenQueueStress(int servers, int orders, int capacity) {
+        this.servers = servers;
+        this.orders = orders;
+        queue = new KitchenQueue(capacity);
+        taken = new ConcurrentHashMap<>();
+        sent = new AtomicInteger();
+        problem = new AtomicReference<>();
+    }
+
+    /**
+     * Runs the servers and chefs until every order has been sent and taken off.
+     *
+     * @return null if the queue passed, otherwise the first problem found
+     */
+    private String run(int chefs) throws InterruptedException {
+        CountDownLatch serversDone = new CountDownLatch(servers);
+        CountDownLatch chefsDone = new CountDownLatch(chefs);
+        sending = true;
+        for (int i = 0; i < servers; i++) {
+            int server = i;
+            start("server-" + i, () -> send(server), serversDone);
+        }
+        for (int i = 0; i < chefs; i++) {
+            start("chef-" + i, this::take, chefsDone);
+        }
+        serversDone.await();
+        sending = false;
+        chefsDone.await();
+
+        if (problem.get() != null) {
+            return problem.get();
+        }
+        if (queue.size() != 0) {
+            return queue.size() + " orders were left in the queue";
+        }
+        if (taken.size() != servers * orders) {
+            return (servers * orders - taken.size()) + " orders were lost";
+        }
+        return null;
+    }
+
+    private void start(String name, Runnable work, CountDownLatch done) {
+        new Thread(() -> {
+            try {
+                work.run();
+            } finally {
+                done.countDown();
+            }
+        }, name).start();
+    }
+
+    /**
+     * Sends every order of one server, waiting for room whenever the kitchen is full.
+     */
+    private void send(int server) {
+        for (int position = 0; position < orders; position++) {
+            Order order = new Order(server * PER_SERVER + position, null);
+            while (!queue.offer(order)) {
+                if (problem.get() != null) {
+                    return; //The chefs have stopped
+                }
+                Thread.yield();
+            }
+            sent.incrementAndGet();
+        }
+    }
+
+    /**
+     * Keeps taking the oldest order off the queue, checking the queue each time, until every order is sent and
+     * the queue is empty.
+     */
+    private void take() {
+        while (problem.get() == null && (sending || queue.size() > 0)) {
+            List<Order> snapshot = queue.snapshot();
+            check(snapshot);
+            if (snapshot.isEmpty()) {
+                Thread.yield();
+                continue;
+            }
+            Order oldest = snapshot.get(0);
+            if (queue.remove(oldest) && taken.put(oldest.getTableNumber(), true) != null) {
+                report("order " + oldest.getTableNumber() + " was taken off twice");
+            }
+        }
+    }
+
+    /**
+     * Checks that a snapshot of the queue fits in it and has the orders of each server in the order they were sent.
+     */
+    private void check(List<Order> snapshot) {
+        if (snapshot.size() > queue.getCapacity()) {
+            report("the queue held " + snapshot.size() + " orders but fits " + queue.getCapacity());
+        }
+        int[] last = new int[servers];
+        for (Order order : snapshot) {
+            int server = order.getTableNumber() / PER_SERVER;
+            int position = order.getTableNumber() % PER_SERVER + 1;
+            if (position <= last[server]) {
+                report("server " + server + "'s orders were out of order");
+            }
+            last[server] = position;
+        }
+    }
+
+    private void report(String found) {
+        problem.compareAndSet(null, found);
+    }
+
+    /**
+     * Runs the stress test and prints how it went.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int servers = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SERVERS;
+        int chefs = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CHEFS;
+        int orders = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_ORDERS;
+        int capacity = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_CAPACITY;
+
+        KitchenQueueStress stress = new KitchenQueueStress(servers, orders, capacity);
+        long start = System.nanoTime();
+        String problem = stress.run(chefs);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.println(servers + " servers, " + chefs + " chefs, " + stress.sent.get()
+                + " orders through a queue of " + capacity + " in " + String.format("%.1f", elapsed) + "s");
+        if (problem != null) {
+            System.out.println("FAILED: " + problem);
+            System.exit(1);
+        }
+        System.out.println("passed");
+    }
+}
@@ -0,0 +1,207 @@
+package restaurant;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps a live picture of how busy the kitchen is, for the manager dashboard. It is fed every ticket sent to the
+ * kitchen, every change of a dish's status, and every ingredient used, and keeps:
+ * <ul>
+ * <li>tickets and cooked dishes per minute, counted in one bucket per minute over the last hour,</li>
+ * <li>the number of dishes in each kitchen status right now,</li>
+ * <li>the dishes waiting for a chef, in the order they started waiting, so the oldest one is always first,</li>
+ * <li>the ingredients used per minute, in the same minute buckets.</li>
+ * </ul>
+ * Every event only touches its own counters, and reading the dashboard only looks at the buckets of the window, so
+ * neither gets slower as more orders are taken during the day.
+ */
+public class KitchenStats {
+    static final int WINDOW_MINUTES = 60; //The longest window the dashboard can ask for
+    private static final long MINUTE_MILLIS = 60 * 1000;
+    private static final KitchenStats stats = new KitchenStats();
+
+    private MinuteCounter tickets;
+    private MinuteCounter cookedDishes;
+    private HashMap<String, MinuteCounter> ingredientsUsed;
+    private HashMap<String, Integer> backlog; //Maps kitchen statuses to the number of dishes in them
+    private LinkedHashMap<Object, Long> waitingDishes; //Maps waiting dishes to when they started waiting, oldest first
+
+    /**
+     * Counts something in one bucket per minute, reusing the bucket of a minute an hour ago once it has passed.
+     */
+    private static class MinuteCounter {
+        private long[] counts = new long[WINDOW_MINUTES];
+        private long[] minutes = new long[WINDOW_MINUTES]; //The minute that each bucket is counting
+
+        private void add(long minute, long amount) {
+            int bucket = (int) (minute % WINDOW_MINUTES);
+            if (minutes[bucket] != minute) {
+                minutes[bucket] = minute;
+                counts[bucket] = 0;
+            }
+            counts[bucket] += amount;
+        }
+
+        private long sum(long currentMinute, int windowMinutes) {
+            long total = 0;
+            for (int i = 0; i < windowMinutes; i++) {
+                int bucket = (int) ((currentMinute - i) % WINDOW_MINUTES);
+                if (minutes[bucket] == currentMinute - i) {
+                    total += counts[bucket];
+                }
+            }
+            return total;
+        }
+    }
+
+    KitchenStats() {
+        tickets = new MinuteCounter();
+        cookedDishes = new MinuteCounter();
+        ingredientsUsed = new HashMap<>();
+        backlog = new HashMap<>();
+        waitingDishes = new LinkedHashMap<>();
+    }
+
+    //returns the live statistics of the kitchen.
+    public static KitchenStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Records that a ticket (a confirmed order) was sent to the kitchen.
+     *
+     * @param time The time it was sent, in milliseconds
+     */
+    public synchronized void recordTicket(long time) {
+        tickets.add(time / MINUTE_MILLIS, 1);
+    }
+
+    /**
+     * Records that a dish changed status, keeping the backlog, the waiting dishes and the cooked dishes up to date.
+     *
+     * @param dish      The dish
+     * @param oldStatus The status the dish had, which may be null
+     * @param newStatus The status the dish has now
+     * @param time      The time of the change, in milliseconds
+     */
+    public synchronized void recordStatusChange(Object dish, String oldStatus, String newStatus, long time) {
+        if (isKitchenStatus(oldStatus)) {
+            int count = backlog.getOrDefault(oldStatus, 0) - 1;
+            if (count <= 0) {
+                backlog.remove(oldStatus);
+            } else {
+                backlog.put(oldStatus, count);
+            }
+        }
+        if (isKitchenStatus(newStatus)) {
+            backlog.put(newStatus, backlog.getOrDefault(newStatus, 0) + 1);
+        }
+        waitingDishes.remove(dish);
+        if (newStatus.equals("waiting")) {
+            waitingDishes.put(dish, time);
+        } else if (newStatus.equals("prepared")) {
+            cookedDishes.add(time / MINUTE_MILLIS, 1);
+        }
+    }
+
+    /**
+     * Records that an amount of an ingredient was used.
+     *
+     * @param ingredient The ingredient
+     * @param quantity   The amount used
+     * @param time       The time it was used, in milliseconds
+     */
+    public synchronized void recordIngredientUse(String ingredient, int quantity, long time) {
+        ingredientsUsed.computeIfAbsent(ingredient, i -> new MinuteCounter()).add(time / MINUTE_MILLIS, quantity);
+    }
+
+    /**
+     * Returns the average number of tickets sent to the kitchen per minute over the last few minutes
+     *
+     * @param windowMinutes The number of minutes to average over, at most 60
+     * @param time          The current time, in milliseconds
+     * @return The tickets per minute
+     */
+    public synchronized double getTicketsPerMinute(int windowMinutes, long time) {
+        int window = clampWindow(windowMinutes);
+        return (double) tickets.sum(time / MINUTE_MILLIS, window) / window;
+    }
+
+    /**
+     * Returns the average number of dishes cooked per minute over the last few minutes
+     *
+     * @param windowMinutes The number of minutes to average over, at most 60
+     * @param time          The current time, in milliseconds
+     * @return The dishes cooked per minute
+     */
+    public synchronized double getDishesCookedPerMinute(int windowMinutes, long time) {
+        int window = clampWindow(windowMinutes);
+        return (double) cookedDishes.sum(time / MINUTE_MILLIS, window) / window;
+    }
+
+    /**
+     * Returns the number of dishes in each kitchen status, "waiting", "acknowledged" and "prepared"
+     *
+     * @return A map from each status to its number of dishes
+     */
+    public synchronized LinkedHashMap<String, Integer> getBacklog() {
+        LinkedHashMap<String, Integer> counts = new LinkedHashMap<>();
+        for (String status : new String[]{"waiting", "acknowledged", "prepared"}) {
+            counts.put(status, backlog.getOrDefault(status, 0));
+        }
+        return counts;
+    }
+
+    /**
+     * Returns how long the dish that has waited the longest for a chef has been waiting
+     *
+     * @param time The current time, in milliseconds
+     * @return The time it has waited in milliseconds, or 0 if no dish is waiting
+     */
+    public synchronized long getOldestWaitingMillis(long time) {
+        Iterator<Long> oldest = waitingDishes.values().iterator();
+        return oldest.hasNext() ? Math.max(0, time - oldest.next()) : 0;
+    }
+
+    /**
+     * Returns how much of each ingredient has been used per minute over the last few minutes, fastest first.
+     * Ingredients that were not used in that time are left out.
+     *
+     * @param windowMinutes The number of minutes to average over, at most 60
+     * @param time          The current time, in milliseconds
+     * @return The ingredients and the amount used per minute
+     */
+    public synchronized List<Map.Entry<String, Double>> getBurnRates(int windowMinutes, long time) {
+        int window = clampWindow(windowMinutes);
+        long minute = time / MINUTE_MILLIS;
+        List<Map.Entry<String, Double>> rates = new ArrayList<>();
+        for (Map.Entry<String, MinuteCounter> entry : ingredientsUsed.entrySet()) {
+            long used = entry.getValue().sum(minute, window);
+            if (used > 0) {
+                rates.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), (double) used / window));
+            }
+        }
+        rates.sort(Collections.reverseOrder(Map.Entry.comparingByValue()));
+        return rates;
+    }
+
+    /**
+     * Returns whether a status is one of the statuses a dish has while the kitchen is working on it
+     */
+    private boolean isKitchenStatus(String status) {
+        return "waiting".equals(status) || "acknowledged".equals(status) || "prepared".equals(status);
+    }
+
+    /**
+     * Returns a window size that the minute buckets can answer
+     */
+    private int clampWindow(int windowMinutes) {
+        return Math.max(1, Math.min(WINDOW_MINUTES, windowMinutes));
+    }
+}
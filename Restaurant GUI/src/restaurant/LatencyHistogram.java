@@ -0,0 +1,112 @@
+package restaurant;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts how long something took, in milliseconds, using buckets that grow with the size of the value (like an HDR
+ * histogram). Values under 32 each have their own bucket, and every doubling after that is split into 16 buckets, so
+ * any percentile is accurate to within about 6% however long the wait was. Recording a value only adds to a couple
+ * of counters and never locks, so it is cheap enough to do on every status change.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; //Buckets in each doubling
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS; //Values below this have a bucket each
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS + SUB_BUCKETS;
+
+    private final AtomicLongArray counts;
+    private final AtomicLong count;
+    private final AtomicLong sum;
+    private final AtomicLong max;
+
+    /**
+     * Creates a histogram with nothing recorded yet.
+     */
+    public LatencyHistogram() {
+        counts = new AtomicLongArray(BUCKETS);
+        count = new AtomicLong();
+        sum = new AtomicLong();
+        max = new AtomicLong();
+    }
+
+    /**
+     * Records how long something took. Negative values are counted as zero.
+     *
+     * @param millis The time it took, in milliseconds
+     */
+    public void record(long millis) {
+        long value = Math.max(0, millis);
+        counts.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long currentMax;
+        while (value > (currentMax = max.get()) && !max.compareAndSet(currentMax, value)) {
+            //Another thread changed the max, try again
+        }
+    }
+
+    /**
+     * Returns the counts of this histogram at this moment, with its count, mean and percentiles worked out.
+     *
+     * @param name The name to give the snapshot, ex. "cook.dish.Cheese Burger"
+     * @return The snapshot
+     */
+    public LatencySnapshot snapshot(String name) {
+        long[] bucketCounts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            bucketCounts[i] = counts.get(i);
+            total += bucketCounts[i];
+        }
+        double mean = total == 0 ? 0 : (double) sum.get() / count.get();
+        return new LatencySnapshot(name, total, mean, percentile(bucketCounts, total, 0.5),
+                percentile(bucketCounts, total, 0.9), percentile(bucketCounts, total, 0.99), max.get());
+    }
+
+    /**
+     * Returns the value that a certain fraction of the recorded values are at or below
+     *
+     * @param bucketCounts The count of each bucket
+     * @param total        The total of the counts
+     * @param fraction     The fraction, ex. 0.99 for the 99th percentile
+     * @return The upper end of the bucket that the percentile falls in
+     */
+    private long percentile(long[] bucketCounts, long total, double fraction) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Returns the bucket that a value is counted in
+     */
+    static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = 64 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS + 1);
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Returns the largest value that is counted in a bucket
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
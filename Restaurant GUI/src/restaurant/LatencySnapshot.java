@@ -0,0 +1,66 @@
+package restaurant;
+
+/**
+ * The times recorded by a latency histogram at one moment, in milliseconds. Snapshots cannot be changed, and are
+ * what the kitchen metrics hand out to monitoring.
+ */
+public final class LatencySnapshot {
+    private final String name;
+    private final long count;
+    private final double mean;
+    private final long p50;
+    private final long p90;
+    private final long p99;
+    private final long max;
+
+    LatencySnapshot(String name, long count, double mean, long p50, long p90, long p99, long max) {
+        this.name = name;
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.max = max;
+    }
+
+    //returns the name of the histogram, ex. "cook.chef.Chef_1".
+    public String getName() {
+        return name;
+    }
+
+    //returns the number of times recorded.
+    public long getCount() {
+        return count;
+    }
+
+    //returns the average time.
+    public double getMean() {
+        return mean;
+    }
+
+    //returns the median time.
+    public long getP50() {
+        return p50;
+    }
+
+    //returns the time that 90% of the recorded times are at or below.
+    public long getP90() {
+        return p90;
+    }
+
+    //returns the time that 99% of the recorded times are at or below.
+    public long getP99() {
+        return p99;
+    }
+
+    //returns the longest time recorded.
+    public long getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s count=%d mean=%.1fms p50=%dms p90=%dms p99=%dms max=%dms", name, count, mean, p50,
+                p90, p99, max);
+    }
+}
@@ -3,24 +3,38 @@ package restaurant;
 import dishes.Combo;
 import dishes.Food;
 import dishes.Recipe;
+import javafx.application.Platform;
 import javafx.scene.control.Alert;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * The class representing the restaurant's menu. The items are read from the menu.txt text file, which can be edited
+ * while the restaurant is open: once the file is saved, it is read again in the background, checked, and swapped in
+ * as a new version of the menu all at once, so nobody ever sees half of an edit. A menu with mistakes in it is
+ * turned away and the old one kept.
+ * <p>
+ * The menu keeps an index from each ingredient to the menu items that use it and how much of it they use. When the
+ * unit cost of an ingredient changes, only those menu items are costed again, and when the stock of an ingredient
+ * changes, only those menu items are checked again. A menu item that cannot be made with the stock that is left is
+ * taken off the menu (86'd) until the ingredients it is missing come back.
  *
  * @author Jian Xian Li (Jason Li)
  */
 public class Menu {
     private String menuFile = "menu.txt";
-    private ArrayList<Food> defaultFoods;
-    private ArrayList<Combo> defaultCombos;
     private Inventory inventory;
+    private volatile MenuVersion current;
+    private final Object reloading = new Object(); //Held while a new version is being read, so only one is at a time
 
 
     private Menu() {
@@ -28,38 +42,284 @@ public class Menu {
     }
 
     /**
-     * Constructs a menu object with the current information on the menu.txt file
+     * Constructs a menu object with the current information on the menu.txt file. Lines with mistakes in them are
+     * left out.
      *
      * @param inventory The inventory of the restaurant which this menu refers to
      */
     public Menu(Inventory inventory) {
         this();
         this.inventory = inventory;
-        defaultFoods = new ArrayList<>();
-        retrieveFoods(menuFile);
-        defaultCombos = new ArrayList<>();
-        retrieveCombos(menuFile);
+        ArrayList<String> problems = new ArrayList<>();
+        MenuVersion first = readMenu(1, problems);
+        for (String problem : problems) {
+            System.err.println(menuFile + ": " + problem);
+        }
+        synchronized (this) {
+            first.refresh();
+            current = first;
+        }
+        inventory.addCostListener(this::costChanged);
+        inventory.addStockListener(this::stockChanged);
     }
 
+    /**
+     * Reads menu.txt again and swaps it in as the new version of the menu, if it has no mistakes in it. Orders
+     * already taken keep their dishes as they were. Whoever is reading the menu carries on with the old version
+     * until the new one is swapped in, and is never held up while the file is read.
+     *
+     * @return What changed, or what is wrong with the file if it was turned away
+     */
+    public String reload() {
+        synchronized (reloading) {
+            MenuVersion old = current;
+            ArrayList<String> problems = new ArrayList<>();
+            MenuVersion next = readMenu(old.getNumber() + 1, problems);
+            if (!problems.isEmpty()) {
+                return "The menu was not changed, because " + menuFile + " has mistakes:\n"
+                        + String.join("\n", problems);
+            }
+            List<String> changes = next.describeChanges(old);
+            if (changes.isEmpty()) {
+                return "The menu has not changed.";
+            }
+            synchronized (this) {
+                next.refresh();
+                current = next;
+            }
+            //Stock that changed while the new version was being checked was only seen by the old one
+            for (Recipe menuItem : next.getMenuItems()) {
+                next.checkAvailable(menuItem);
+            }
+            return "The menu was changed to version " + next.getNumber() + ":\n" + String.join("\n", changes);
+        }
+    }
 
     /**
-     * Fill the default food array with data from a file. The file must be in the specified menu format.
+     * Starts reading menu.txt again every time it is saved.
      *
-     * @param menuFile The name of the file that the menu data is on
+     * @return The watcher, which stops watching once it is closed
+     * @throws IOException if the folder of the file cannot be watched
      */
-    private void retrieveFoods(String menuFile) {
-        try (BufferedReader fileReader = new BufferedReader(new FileReader(menuFile))) {
-            String line = fileReader.readLine();
-            while (line != null) {
-                String[] splitList = line.split("\\s-\\s");
-                //Deals with non-combos first
-                if (splitList.length == 4) {
-                    defaultFoods.add(getFood(splitList));
-                }
-                line = fileReader.readLine();
+    public MenuWatcher watchFile() throws IOException {
+        return new MenuWatcher(this, Paths.get(menuFile));
+    }
+
+    //returns the number of the version of the menu in use, counting up from 1 each time the menu is read.
+    public long getVersion() {
+        return current.getNumber();
+    }
+
+    /**
+     * Checks again whether the menu items that use an ingredient can be made, after the stock of the ingredient
+     * has changed. This is called while the inventory is locked, so it only touches the index, which does not
+     * change, and the set of unavailable menu items, which can be changed from any thread.
+     *
+     * @param ingredient The ingredient whose stock changed
+     */
+    private void stockChanged(String ingredient) {
+        MenuVersion menu = current;
+        LinkedHashMap<Recipe, Integer> menuItems = menu.getRecipesUsing(ingredient);
+        if (menuItems == null) {
+            return;
+        }
+        for (Recipe menuItem : menuItems.keySet()) {
+            menu.checkAvailable(menuItem);
+        }
+    }
+
+    /**
+     * Returns the menu items that use an ingredient, and how much of it each one uses
+     *
+     * @param ingredient The ingredient
+     * @return A map from menu item names to the amount of the ingredient they use, in the order of the menu
+     */
+    public LinkedHashMap<String, Integer> getDishesUsing(String ingredient) {
+        LinkedHashMap<String, Integer> dishes = new LinkedHashMap<>();
+        LinkedHashMap<Recipe, Integer> menuItems = current.getRecipesUsing(ingredient);
+        if (menuItems != null) {
+            for (Map.Entry<Recipe, Integer> menuItem : menuItems.entrySet()) {
+                dishes.put(menuItem.getKey().getName(), menuItem.getValue());
             }
+        }
+        return dishes;
+    }
+
+    /**
+     * Returns every item on the menu and its price
+     *
+     * @return A map from menu item names to their prices, foods first and then combos, in the order of the menu
+     */
+    public LinkedHashMap<String, Money> getMenuItems() {
+        LinkedHashMap<String, Money> menuItems = new LinkedHashMap<>();
+        for (Recipe menuItem : current.getMenuItems()) {
+            menuItems.put(menuItem.getName(), menuItem.getPrice());
+        }
+        return menuItems;
+    }
+
+    /**
+     * Returns whether a menu item can be made with the stock that is left
+     *
+     * @param dishName The name of the menu item
+     * @return false if the menu item has been 86'd
+     */
+    public boolean isAvailable(String dishName) {
+        return !current.getUnavailable().contains(dishName);
+    }
+
+    /**
+     * Returns the menu items that have been 86'd because there is not enough stock left to make them
+     *
+     * @return The names of the unavailable menu items, sorted
+     */
+    public ArrayList<String> getUnavailable() {
+        ArrayList<String> names = new ArrayList<>(current.getUnavailable());
+        Collections.sort(names);
+        return names;
+    }
+
+    /**
+     * Costs again the menu items that use an ingredient, after the unit cost of the ingredient has changed.
+     *
+     * @param ingredient The ingredient whose unit cost changed
+     */
+    private synchronized void costChanged(String ingredient) {
+        LinkedHashMap<Recipe, Integer> menuItems = current.getRecipesUsing(ingredient);
+        if (menuItems == null) {
+            return;
+        }
+        for (Recipe menuItem : menuItems.keySet()) {
+            current.getCosts().put(menuItem.getName(), menuItem.getIngredientCost());
+        }
+    }
+
+    /**
+     * Returns the cost of the ingredients of a menu item, without any accommodations
+     *
+     * @param dishName The name of the menu item
+     * @return The cost of its ingredients, or null if there is no such menu item
+     */
+    public synchronized Money getIngredientCost(String dishName) {
+        return current.getCosts().get(dishName);
+    }
+
+    /**
+     * Returns the food cost percentage of every menu item, the cost of its ingredients as a percentage of its price
+     *
+     * @return A map from menu item names to their food cost percentage, in the order of the menu
+     */
+    public synchronized LinkedHashMap<String, Double> getFoodCostPercentages() {
+        LinkedHashMap<String, Double> percentages = new LinkedHashMap<>();
+        for (Recipe menuItem : current.getMenuItems()) {
+            percentages.put(menuItem.getName(),
+                    current.getCosts().get(menuItem.getName()).percentOf(menuItem.getPrice()));
+        }
+        return percentages;
+    }
+
+
+    /**
+     * Reads menu.txt into a new version of the menu and checks it. Every food must have a number and name of its
+     * own and a price, every prep item, food and combo must be made of things that exist, and nothing may be made of
+     * itself. Lines with mistakes are left out of the version and described in the problems, along with anything
+     * made from them.
+     * <p>
+     * The foods and combos of the version carry only the ingredients in the inventory: the prep items in a food and
+     * the foods in a combo are worked out down to their ingredients when the menu is read, not when a dish is made.
+     *
+     * @param number   The number of the new version
+     * @param problems Where the mistakes found are added, ex. "line 4: there is no ingredient Bacn"
+     * @return The new version
+     */
+    private MenuVersion readMenu(long number, List<String> problems) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(Paths.get(menuFile), StandardCharsets.UTF_8);
         } catch (IOException e) {
-            System.err.println("Menu file does not exist");
+            problems.add("the file could not be read");
+            lines = new ArrayList<>();
+        }
+        RecipeGraph graph = new RecipeGraph(inventory.getIngredientNames());
+        ArrayList<Food> written = new ArrayList<>();
+        LinkedHashMap<String, Money> comboPrices = new LinkedHashMap<>();
+        retrieveRecipes(lines, graph, written, comboPrices, problems);
+        graph.compile(problems);
+        ArrayList<Food> foods = new ArrayList<>();
+        for (Food food : written) {
+            if (graph.isCompiled(food.getName())) {
+                foods.add(new Food(food.getItemNum(), food.getName(), food.getPrice(),
+                        graph.getIngredients(food.getName()), inventory));
+            }
+        }
+        ArrayList<Combo> combos = new ArrayList<>();
+        for (Map.Entry<String, Money> combo : comboPrices.entrySet()) {
+            if (graph.isCompiled(combo.getKey())) {
+                String[] comboFoods = graph.getFoods(combo.getKey()).toArray(new String[0]);
+                combos.add(new Combo(combo.getValue(), combo.getKey(), comboFoods,
+                        graph.getIngredients(combo.getKey()), inventory));
+            }
+        }
+        if (foods.isEmpty() && combos.isEmpty() && problems.isEmpty()) {
+            problems.add("there is nothing on the menu");
+        }
+        return new MenuVersion(number, foods, combos);
+    }
+
+    /**
+     * Adds every prep item, food and combo on the lines of a file to a recipe graph. The file must be in the
+     * specified menu format.
+     *
+     * @param lines       The lines of the file that the menu data is on
+     * @param graph       The graph the recipes are added to
+     * @param foods       The list the foods are added to, with their recipes as written
+     * @param comboPrices The map the names of the combos are added to, mapped to their prices
+     * @param problems    Where the mistakes found are added
+     */
+    private void retrieveRecipes(List<String> lines, RecipeGraph graph, List<Food> foods,
+                                 Map<String, Money> comboPrices, List<String> problems) {
+        HashMap<Integer, String> numbers = new HashMap<>(); //Maps menu item numbers to the food using them
+        for (int i = 0; i < lines.size(); i++) {
+            String[] splitList = lines.get(i).split("\\s-\\s");
+            String mistake = null;
+            try {
+                if (splitList.length == 3 && splitList[0].equals("Prep")) {
+                    mistake = graph.add(RecipeGraph.PREP, splitList[1], createIngredients(splitList[2]), i + 1);
+                } else if (splitList.length == 4) {
+                    Food food = getFood(splitList);
+                    if (numbers.containsKey(food.getItemNum())) {
+                        mistake = "the number " + food.getItemNum() + " is already used by "
+                                + numbers.get(food.getItemNum());
+                    } else if (food.getPrice().compareTo(Money.ZERO) < 0) {
+                        mistake = "the price of " + food.getName() + " is below zero";
+                    } else {
+                        mistake = graph.add(RecipeGraph.FOOD, food.getName(),
+                                new LinkedHashMap<>(food.getIngredients()), i + 1);
+                    }
+                    if (mistake == null) {
+                        numbers.put(food.getItemNum(), food.getName());
+                        foods.add(food);
+                    }
+                } else if (splitList.length == 3) {
+                    String name = splitList[0];
+                    Money price = Money.parse(splitList[2]);
+                    if (price.compareTo(Money.ZERO) < 0) {
+                        mistake = "the price of " + name + " is below zero";
+                    } else {
+                        mistake = graph.add(RecipeGraph.COMBO, name, createComboParts(splitList[1]), i + 1);
+                    }
+                    if (mistake == null) {
+                        comboPrices.put(name, price);
+                    }
+                } else if (!lines.get(i).trim().isEmpty()) {
+                    mistake = "not in the menu format";
+                }
+            } catch (RuntimeException e) {
+                mistake = "not in the menu format";
+            }
+            if (mistake != null) {
+                problems.add("line " + (i + 1) + ": " + mistake);
+            }
         }
     }
 
@@ -69,84 +329,65 @@ public class Menu {
      *
      * @param splitList For index i: 0 - menu item id, 1 - food name, 2 - price, 3 - ingredients String format, see
      *                  createIngredients method
-     * @return A food based on this array
+     * @return A food based on this array, with its recipe as written
      */
     private Food getFood(String[] splitList) {
         int menuID = Integer.parseInt(splitList[0]);
         String foodName = splitList[1];
-        double foodPrice = Double.parseDouble(splitList[2]);
+        Money foodPrice = Money.parse(splitList[2]);
         HashMap<String, Integer> ingredients = createIngredients(splitList[3]);
         return new Food(menuID, foodName, foodPrice, ingredients, inventory);
     }
 
     /**
-     * Creates an ingredients HashMap using a string with format ex. "[ing1:1, ing2:1, ing3:3]"
+     * Creates an ingredients map using a string with format ex. "[ing1:1, ing2:1, ing3:3]". The ingredients can
+     * also be prep items.
      *
      * @param ingredients The string of specified format
-     * @return The HashMap equivalent to what is represented by ingredients
+     * @return The map equivalent to what is represented by ingredients, in the order written
      */
-    private HashMap<String, Integer> createIngredients(String ingredients) {
+    private LinkedHashMap<String, Integer> createIngredients(String ingredients) {
         ingredients = ingredients.substring(1, ingredients.length() - 1);
         String[] ingArray = ingredients.split(",\\s");
 
-        HashMap<String, Integer> ingMap = new HashMap<>();
+        LinkedHashMap<String, Integer> ingMap = new LinkedHashMap<>();
         for (String ingredient : ingArray) {
             String[] ingData = ingredient.split(":"); //ingData[0] is ingredient name, ingData[1] is quantity
-            ingMap.put(ingData[0], Integer.parseInt(ingData[1]));
+            ingMap.merge(ingData[0], Integer.parseInt(ingData[1]), Integer::sum);
         }
 
         return ingMap;
     }
 
-
-    private void retrieveCombos(String menuFile) {
-        try (BufferedReader fileReader = new BufferedReader(new FileReader(menuFile))) {
-            String line = fileReader.readLine();
-            while (line != null) {
-                String[] splitList = line.split("\\s-\\s");
-                if (splitList.length == 3) {
-                    defaultCombos.add(getCombo(splitList));
-                }
-                line = fileReader.readLine();
-            }
-        } catch (IOException e) {
-            System.err.println("Menu file does not exist");
-        }
-    }
-
     /**
-     * Creates a Combo with a String array of a specific format
+     * Creates a map of what is in a combo using a string with format ex. "[food1, food2, combo1]". Something in
+     * the combo more than once is counted that many times.
      *
-     * @param splitList For index i: 0 - "C" + menu item id, 1 - [food name 1, food name 2, ...], 2 - price
-     * @return A combo corresponding to the array
+     * @param parts The string of specified format
+     * @return A map from the names of the foods and combos in the combo to how many of each it has
      */
-    private Combo getCombo(String[] splitList) {
-        double price = Double.parseDouble(splitList[2]);
-        String name = splitList[0];
-        splitList[1] = splitList[1].substring(1, splitList[1].length() - 1);
-        String[] foodNames = splitList[1].split(",\\s");
-        Food[] foods = new Food[foodNames.length];
-        for (int i = 0; i < foodNames.length; i++) {
-            foods[i] = getDefaultFood(foodNames[i]);
+    private LinkedHashMap<String, Integer> createComboParts(String parts) {
+        LinkedHashMap<String, Integer> partMap = new LinkedHashMap<>();
+        for (String part : parts.substring(1, parts.length() - 1).split(",\\s")) {
+            partMap.merge(part, 1, Integer::sum);
         }
-        Combo c = new Combo(price, name, foods, inventory);
-        return new Combo(price, name, foods, inventory);
+        return partMap;
     }
 
     /**
      * Returns a new instance of a food initialized with default values given the name of the food. If this name
-     * is not on the menu (that is, menu.txt), null will be returned
+     * is not among the foods, null will be returned
      *
-     * @param foodName The name of the food to be returned (needs to be on menu)
+     * @param foods    The foods to look in
+     * @param foodName The name of the food to be returned
      * @return A copy of a food corresponding to foodName, given default values
      */
-    private Food getDefaultFood(String foodName) {
-        for (Food food : defaultFoods) {
+    private static Food findFood(List<Food> foods, String foodName) {
+        for (Food food : foods) {
             if (food.getName().equals(foodName)) {
                 return food.getCopy();
             }
         }
-        System.err.println("There is no food by the name of " + foodName + " on the menu");
         return null;
     }
 
@@ -160,21 +401,19 @@ public class Menu {
      * @return A dish corresponding to dishName
      */
     public Recipe getDefaultDish(String dishName) {
+        MenuVersion menu = current;
         //Check foods first
-        for (Food food : defaultFoods) {
-            if (food.getName().equals(dishName)) {
-                return food.getCopy();
-            }
+        Food food = findFood(menu.getFoods(), dishName);
+        if (food != null) {
+            return food;
         }
         //Then check combos
-        for (Combo combo : defaultCombos) {
+        for (Combo combo : menu.getCombos()) {
             if (combo.getName().equals(dishName)) {
                 return combo.getCopy();
             }
         }
-        Alert alert = new Alert(Alert.AlertType.ERROR);
-        alert.setContentText("No menu item corresponding to " + dishName);
-        alert.showAndWait();
+        showMissing("No menu item corresponding to " + dishName);
         return null;
     }
 
@@ -186,21 +425,34 @@ public class Menu {
      * @return A dish corresponding to menuItemNumber
      */
     public Recipe getDefaultDish(int menuItemNumber) {
+        MenuVersion menu = current;
         //Check foods first
-        for (Food food : defaultFoods) {
+        for (Food food : menu.getFoods()) {
             if (food.getItemNum() == menuItemNumber) {
                 return food.getCopy();
             }
         }
-        for (Combo combo : defaultCombos) {
+        for (Combo combo : menu.getCombos()) {
             if (combo.getItemNum() == menuItemNumber) {
                 return combo.getCopy();
             }
         }
-        Alert alert = new Alert(Alert.AlertType.ERROR);
-        alert.setContentText("No menu item number corresponding to " + menuItemNumber);
-        alert.showAndWait();
+        showMissing("No menu item number corresponding to " + menuItemNumber);
         return null;
     }
 
+    /**
+     * Tells whoever asked for a dish that it is not on the menu, with an alert if they are at a terminal. A dish
+     * can also go missing when the menu is reloaded between checking for it and ordering it.
+     */
+    private void showMissing(String message) {
+        if (Platform.isFxApplicationThread()) {
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setContentText(message);
+            alert.showAndWait();
+        } else {
+            System.err.println(message);
+        }
+    }
+
 }
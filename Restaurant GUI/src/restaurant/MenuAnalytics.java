@@ -0,0 +1,199 @@
+package restaurant;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * An offline job that works out which dishes on the menu make money, from the dish history. For every dish it adds
+ * up how often it was sold, its contribution margin (its price minus the cost of the ingredients that went into it),
+ * how often it was accommodated and how often it was complained about.
+ * <p>
+ * The history is streamed through once, split between every core, and only the totals of each dish are kept, so
+ * months of history never have to fit in memory. Each dish is then placed in the usual menu engineering groups:
+ * a dish is popular if its share of sales is at least 70% of an even share, and profitable if its margin is at least
+ * the average margin of everything sold.
+ * <ul>
+ * <li>Star: popular and profitable</li>
+ * <li>Plowhorse: popular but not profitable</li>
+ * <li>Puzzle: profitable but not popular</li>
+ * <li>Dog: neither</li>
+ * </ul>
+ */
+public class MenuAnalytics {
+    private static final Pattern RECORD =
+            Pattern.compile("(\\d{4}-\\d{2}-\\d{2})T\\S+ \\| (sold|complaint) \\| (.+) \\| (\\d+) \\| ([01]) \\| ((?:[^,:]+:\\d+,?)*);");
+
+    private Map<String, Money> unitCosts;
+    private LocalDate from;
+    private LocalDate to;
+
+    /**
+     * Creates a job over the whole dish history.
+     *
+     * @param unitCosts The cost of one unit of each ingredient
+     */
+    public MenuAnalytics(Map<String, Money> unitCosts) {
+        this(unitCosts, LocalDate.MIN, LocalDate.MAX);
+    }
+
+    /**
+     * Creates a job over the part of the dish history between two days.
+     *
+     * @param unitCosts The cost of one unit of each ingredient
+     * @param from      The first day to count
+     * @param to        The last day to count
+     */
+    public MenuAnalytics(Map<String, Money> unitCosts, LocalDate from, LocalDate to) {
+        this.unitCosts = new HashMap<>(unitCosts);
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Adds up the sales of every dish in a dish history file.
+     *
+     * @param historyFile The dish history
+     * @return The sales of every dish, most sold first
+     * @throws IOException if the history could not be read
+     */
+    public List<DishAnalytics> analyze(File historyFile) throws IOException {
+        HashMap<String, DishAnalytics> dishes;
+        try (Stream<String> lines = Files.lines(historyFile.toPath(), StandardCharsets.UTF_8)) {
+            dishes = lines.parallel().collect(HashMap::new, this::add, MenuAnalytics::merge);
+        }
+        List<DishAnalytics> results = new ArrayList<>(dishes.values());
+        results.sort((a, b) -> a.getSold() != b.getSold()
+                ? Long.compare(b.getSold(), a.getSold()) : a.getName().compareTo(b.getName()));
+        return results;
+    }
+
+    /**
+     * Returns the menu engineering report of some dishes, with their popularity, margin, accommodation rate,
+     * complaint rate and group.
+     *
+     * @param dishes The sales of each dish
+     * @return The report as text
+     */
+    public static String getReport(List<DishAnalytics> dishes) {
+        long totalSold = 0;
+        long totalMarginCents = 0;
+        for (DishAnalytics dish : dishes) {
+            totalSold += dish.getSold();
+            totalMarginCents += dish.getRevenue().minus(dish.getIngredientCost()).getCents();
+        }
+        double popularShare = dishes.isEmpty() ? 0 : 0.7 / dishes.size();
+        double averageMargin = totalSold == 0 ? 0 : (double) totalMarginCents / totalSold;
+
+        StringBuilder report = new StringBuilder(1000);
+        report.append(String.format("%-20s %6s %7s %9s %9s %7s %7s  %s%n",
+                "Dish", "Sold", "Mix", "Price", "Margin", "Accom", "Compl", "Group"));
+        for (DishAnalytics dish : dishes) {
+            double share = totalSold == 0 ? 0 : (double) dish.getSold() / totalSold;
+            boolean popular = share >= popularShare;
+            boolean profitable = dish.getContributionMargin().getCents() >= averageMargin;
+            String group = popular ? (profitable ? "Star" : "Plowhorse") : (profitable ? "Puzzle" : "Dog");
+            Money averagePrice = dish.getSold() == 0 ? Money.ZERO
+                    : Money.ofCents(dish.getRevenue().getCents() / dish.getSold());
+            report.append(String.format("%-20s %6d %6.1f%% %9s %9s %6.1f%% %6.1f%%  %s%s%n",
+                    dish.getName(), dish.getSold(), share * 100, averagePrice, dish.getContributionMargin(),
+                    dish.getAccommodationRate() * 100, dish.getComplaintRate() * 100, group,
+                    dish.isMissingCosts() ? " (missing ingredient costs)" : ""));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Reads the unit cost of each ingredient in an inventory. Ingredients without a cost are left out.
+     *
+     * @param inventory The inventory
+     * @return A map from ingredients to their unit costs
+     */
+    public static HashMap<String, Money> readUnitCosts(Inventory inventory) {
+        HashMap<String, Money> costs = new HashMap<>();
+        for (String ingredient : inventory.getIngredientNames()) {
+            Money unitCost = inventory.getUnitCost(ingredient);
+            if (unitCost != null) {
+                costs.put(ingredient, unitCost);
+            }
+        }
+        return costs;
+    }
+
+    /**
+     * Adds one event of the dish history onto the totals of its dish. Lines that cannot be read, ex. one cut off
+     * when the program closed, and events outside of the days being counted are skipped.
+     */
+    private void add(HashMap<String, DishAnalytics> dishes, String line) {
+        Matcher record = RECORD.matcher(line.trim());
+        if (!record.matches()) {
+            return;
+        }
+        LocalDate day;
+        try {
+            day = LocalDate.parse(record.group(1));
+        } catch (DateTimeParseException e) {
+            return;
+        }
+        if (day.isBefore(from) || day.isAfter(to)) {
+            return;
+        }
+        DishAnalytics dish = dishes.computeIfAbsent(record.group(3), DishAnalytics::new);
+        if (record.group(2).equals("complaint")) {
+            dish.addComplaint();
+            return;
+        }
+        long costCents = 0;
+        boolean missingCosts = false;
+        if (!record.group(6).isEmpty()) {
+            for (String ingredient : record.group(6).split(",")) {
+                int separator = ingredient.lastIndexOf(':');
+                Money unitCost = unitCosts.get(ingredient.substring(0, separator));
+                if (unitCost == null) {
+                    missingCosts = true;
+                } else {
+                    costCents += unitCost.times(Long.parseLong(ingredient.substring(separator + 1))).getCents();
+                }
+            }
+        }
+        dish.addSale(Long.parseLong(record.group(4)), costCents, record.group(5).equals("1"), missingCosts);
+    }
+
+    /**
+     * Adds the totals counted by one core onto the totals counted by another.
+     */
+    private static void merge(HashMap<String, DishAnalytics> into, HashMap<String, DishAnalytics> from) {
+        for (DishAnalytics dish : from.values()) {
+            DishAnalytics existing = into.get(dish.getName());
+            if (existing == null) {
+                into.put(dish.getName(), dish);
+            } else {
+                existing.merge(dish);
+            }
+        }
+    }
+
+    /**
+     * Prints the menu engineering report of DishHistory.txt, using the unit costs in the restaurant's store. The first
+     * and last days to count can be given as arguments, ex. "2024-01-01 2024-03-31".
+     */
+    public static void main(String[] args) {
+        LocalDate from = args.length > 0 ? LocalDate.parse(args[0]) : LocalDate.MIN;
+        LocalDate to = args.length > 1 ? LocalDate.parse(args[1]) : LocalDate.MAX;
+        MenuAnalytics analytics = new MenuAnalytics(readUnitCosts(new Inventory(Restaurant.openStore())), from, to);
+        try {
+            System.out.print(getReport(analytics.analyze(new File("DishHistory.txt"))));
+        } catch (IOException e) {
+            System.err.println("Problem reading DishHistory.txt");
+        }
+    }
+}
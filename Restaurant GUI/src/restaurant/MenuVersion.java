@@ -0,0 +1,153 @@
+package restaurant;
+
+import dishes.Combo;
+import dishes.Food;
+import dishes.Recipe;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One version of the menu, as it was read from menu.txt. The menu items of a version and the index from
+ * ingredients to the menu items using them never change, so a version can be read from any thread without locks.
+ * Only the cost and availability of its menu items change, as the unit costs and stock of ingredients do.
+ * <p>
+ * When menu.txt is edited, a whole new version is made and swapped in for the old one. Dishes already ordered are
+ * copies of the menu items, so they are not changed by the swap.
+ */
+final class MenuVersion {
+    private final long number;
+    private final List<Food> foods;
+    private final List<Combo> combos;
+    private final Map<String, LinkedHashMap<Recipe, Integer>> recipesByIngredient; //Ingredient -> menu item -> amount
+    private final HashMap<String, Money> costs; //Maps menu item names to the cost of their ingredients
+    private final Set<String> unavailable; //The names of the menu items that cannot be made with the stock left
+
+    /**
+     * Makes a version of the menu and builds its index from ingredients to the menu items using them.
+     *
+     * @param number The number of this version, counting up from 1 each time the menu is read
+     * @param foods  The foods, in the order of the menu
+     * @param combos The combos, in the order of the menu
+     */
+    MenuVersion(long number, List<Food> foods, List<Combo> combos) {
+        this.number = number;
+        this.foods = Collections.unmodifiableList(new ArrayList<>(foods));
+        this.combos = Collections.unmodifiableList(new ArrayList<>(combos));
+        HashMap<String, LinkedHashMap<Recipe, Integer>> index = new HashMap<>();
+        for (Recipe menuItem : getMenuItems()) {
+            for (Map.Entry<String, Integer> ingredient : menuItem.getIngredients().entrySet()) {
+                index.computeIfAbsent(ingredient.getKey(), i -> new LinkedHashMap<>())
+                        .put(menuItem, ingredient.getValue());
+            }
+        }
+        recipesByIngredient = Collections.unmodifiableMap(index);
+        costs = new HashMap<>();
+        unavailable = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Works out the cost and availability of every menu item in this version from scratch. The costs must be
+     * guarded by the menu's lock.
+     */
+    void refresh() {
+        for (Recipe menuItem : getMenuItems()) {
+            costs.put(menuItem.getName(), menuItem.getIngredientCost());
+            checkAvailable(menuItem);
+        }
+    }
+
+    /**
+     * Checks whether a menu item can be made with the stock left, and takes it off or puts it back on the menu.
+     */
+    void checkAvailable(Recipe menuItem) {
+        if (menuItem.isPossible()) {
+            unavailable.remove(menuItem.getName());
+        } else {
+            unavailable.add(menuItem.getName());
+        }
+    }
+
+    /**
+     * Returns what changed on the menu since an older version, ex. "added Salad" or "Coke: 1.99 -> 2.49".
+     *
+     * @param older The older version
+     * @return A line for each menu item that was added, removed or changed, in the order of the menu
+     */
+    List<String> describeChanges(MenuVersion older) {
+        LinkedHashMap<String, Recipe> before = older.byName();
+        LinkedHashMap<String, Recipe> after = byName();
+        ArrayList<String> changes = new ArrayList<>();
+        for (Recipe menuItem : after.values()) {
+            Recipe previous = before.get(menuItem.getName());
+            if (previous == null) {
+                changes.add("added " + menuItem.getName());
+            } else {
+                if (!previous.getPrice().equals(menuItem.getPrice())) {
+                    changes.add(menuItem.getName() + ": " + previous.getPrice() + " -> " + menuItem.getPrice());
+                }
+                if (!Objects.equals(previous.getIngredients(), menuItem.getIngredients())) {
+                    changes.add(menuItem.getName() + ": new recipe");
+                }
+            }
+        }
+        for (String name : before.keySet()) {
+            if (!after.containsKey(name)) {
+                changes.add("removed " + name);
+            }
+        }
+        return changes;
+    }
+
+    private LinkedHashMap<String, Recipe> byName() {
+        LinkedHashMap<String, Recipe> menuItems = new LinkedHashMap<>();
+        for (Recipe menuItem : getMenuItems()) {
+            menuItems.put(menuItem.getName(), menuItem);
+        }
+        return menuItems;
+    }
+
+    //returns every menu item, foods first and then combos, in the order of the menu.
+    List<Recipe> getMenuItems() {
+        ArrayList<Recipe> menuItems = new ArrayList<>(foods);
+        menuItems.addAll(combos);
+        return menuItems;
+    }
+
+    //returns the number of this version.
+    long getNumber() {
+        return number;
+    }
+
+    //returns the foods, in the order of the menu.
+    List<Food> getFoods() {
+        return foods;
+    }
+
+    //returns the combos, in the order of the menu.
+    List<Combo> getCombos() {
+        return combos;
+    }
+
+    //returns the menu items that use an ingredient and how much they use, or null if none do.
+    LinkedHashMap<Recipe, Integer> getRecipesUsing(String ingredient) {
+        return recipesByIngredient.get(ingredient);
+    }
+
+    //returns the costs of the menu items, which must be guarded by the menu's lock.
+    HashMap<String, Money> getCosts() {
+        return costs;
+    }
+
+    //returns the names of the menu items that cannot be made with the stock left.
+    Set<String> getUnavailable() {
+        return unavailable;
+    }
+}
@@ -0,0 +1,87 @@
+package restaurant;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloads the menu every time menu.txt is saved, on a thread of its own so that nobody using the menu waits for it.
+ * Editors often save a file in more than one write, so the file is only read once it has stopped changing for a
+ * moment. What changed, or why the new menu was turned away, is printed.
+ */
+public class MenuWatcher implements Closeable {
+    private static final long SETTLE_MILLIS = 250; //How long the file must stay unchanged before it is read
+
+    private Menu menu;
+    private Path menuFile;
+    private WatchService watcher;
+
+    /**
+     * Starts watching the menu file.
+     *
+     * @param menu     The menu to reload
+     * @param menuFile The file the menu is read from
+     * @throws IOException if the folder of the file cannot be watched
+     */
+    MenuWatcher(Menu menu, Path menuFile) throws IOException {
+        this.menu = menu;
+        this.menuFile = menuFile.toAbsolutePath();
+        watcher = FileSystems.getDefault().newWatchService();
+        this.menuFile.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread thread = new Thread(this::watch, "menu-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Waits for the menu file to change and reloads the menu, until the watcher is closed.
+     */
+    private void watch() {
+        try {
+            while (true) {
+                if (!menuChanged(watcher.take())) {
+                    continue;
+                }
+                WatchKey key;
+                while ((key = watcher.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    menuChanged(key);
+                }
+                System.out.println(menu.reload());
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            //The watcher was closed
+        }
+    }
+
+    /**
+     * Takes the events off a key and gets it ready for the next ones.
+     *
+     * @return whether any of the events were about the menu file
+     */
+    private boolean menuChanged(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path && menuFile.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * Stops watching the menu file.
+     */
+    @Override
+    public void close() throws IOException {
+        watcher.close();
+    }
+}
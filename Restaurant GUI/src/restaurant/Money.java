@@ -0,0 +1,141 @@
+package restaurant;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money, kept as a whole number of cents so that adding up prices never drifts the way doubles do.
+ * Money is immutable; every operation returns a new amount. Percentages are rounded half up to the nearest cent,
+ * and amounts that are split never lose or gain a cent.
+ */
+public final class Money implements Comparable<Money> {
+    public static final Money ZERO = new Money(0);
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    /**
+     * Returns an amount of money from a number of cents
+     *
+     * @param cents The number of cents
+     * @return The amount of money
+     */
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * Returns the amount of money written in a string, ex. "4.20". Amounts with more than two decimal places
+     * are rounded half up to the nearest cent.
+     *
+     * @param amount The amount written as dollars and cents
+     * @return The amount of money
+     * @throws NumberFormatException if the string is not an amount of money
+     */
+    public static Money parse(String amount) {
+        BigDecimal dollars = new BigDecimal(amount.trim());
+        return ofCents(dollars.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact());
+    }
+
+    //returns the number of cents in this amount.
+    public long getCents() {
+        return cents;
+    }
+
+    /**
+     * Returns the sum of this amount and another amount
+     *
+     * @param other The amount to add
+     * @return The sum
+     */
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    /**
+     * Returns this amount with another amount taken away
+     *
+     * @param other The amount to take away
+     * @return The difference
+     */
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    /**
+     * Returns this amount multiplied by a whole number
+     *
+     * @param times The number to multiply by
+     * @return The product
+     */
+    public Money times(long times) {
+        return ofCents(Math.multiplyExact(cents, times));
+    }
+
+    /**
+     * Returns a percentage of this amount, rounded half up to the nearest cent
+     *
+     * @param basisPoints The percentage in hundredths of a percent, ex. 1300 for 13 percent
+     * @return The percentage of this amount
+     */
+    public Money percent(int basisPoints) {
+        long scaled = Math.multiplyExact(cents, basisPoints);
+        long rounded = Math.floorDiv(Math.addExact(scaled, 5000), 10000);
+        return ofCents(rounded);
+    }
+
+    /**
+     * Splits this amount into a number of parts that add back up to exactly this amount. The parts differ by at
+     * most a cent, and the leftover cents go to the first parts.
+     *
+     * @param parts The number of parts
+     * @return The parts, in order
+     */
+    public Money[] split(int parts) {
+        if (parts <= 0) {
+            throw new IllegalArgumentException("Cannot split money into " + parts + " parts");
+        }
+        Money[] shares = new Money[parts];
+        long base = Math.floorDiv(cents, parts);
+        long leftover = cents - base * parts;
+        for (int i = 0; i < parts; i++) {
+            shares[i] = ofCents(i < leftover ? base + 1 : base);
+        }
+        return shares;
+    }
+
+    /**
+     * Returns what percentage of another amount this amount is, ex. the food cost of a dish as a percentage of its
+     * price
+     *
+     * @param whole The amount this is a part of
+     * @return The percentage, or 0 if the other amount is zero
+     */
+    public double percentOf(Money whole) {
+        return whole.cents == 0 ? 0 : 100.0 * cents / whole.cents;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Money && ((Money) other).cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    //returns the amount written as dollars and cents, ex. "4.20".
+    @Override
+    public String toString() {
+        return BigDecimal.valueOf(cents, 2).toPlainString();
+    }
+}
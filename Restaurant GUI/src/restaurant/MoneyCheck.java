@@ -0,0 +1,92 @@
+package restaurant;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+/**
+ * Checks {@link Money} against many random amounts: splitting an amount never loses or gains a cent and gives parts
+ * at most a cent apart, a percentage is the exact percentage rounded half up, writing an amount out and reading it
+ * back gives the same amount, and adding then taking away an amount gets back to where it started.
+ * <p>
+ * The number of amounts and the random seed can be given as arguments, so a failure can be run again. Prints whether
+ * every amount passed, and exits with 1 if one did not.
+ */
+public class MoneyCheck {
+    private static final int DEFAULT_AMOUNTS = 200000;
+    private static final long MAX_CENTS = 100000000L; //Amounts go up to a million dollars either way
+
+    private Random random;
+
+    private MoneyCheck(long seed) {
+        random = new Random(seed);
+    }
+
+    /**
+     * Checks one random amount.
+     *
+     * @return null if it passed, otherwise what went wrong
+     */
+    private String checkOne() {
+        Money amount = Money.ofCents(cents());
+
+        int parts = 1 + random.nextInt(50);
+        Money[] shares = amount.split(parts);
+        Money total = Money.ZERO;
+        Money smallest = shares[0];
+        Money largest = shares[0];
+        for (Money share : shares) {
+            total = total.plus(share);
+            smallest = share.compareTo(smallest) < 0 ? share : smallest;
+            largest = share.compareTo(largest) > 0 ? share : largest;
+        }
+        if (!total.equals(amount)) {
+            return amount + " split " + parts + " ways adds up to " + total;
+        }
+        if (largest.minus(smallest).getCents() > 1) {
+            return amount + " split " + parts + " ways has parts " + smallest + " and " + largest;
+        }
+
+        Money price = Money.ofCents(Math.abs(amount.getCents()));
+        int basisPoints = random.nextInt(10001);
+        long expected = BigDecimal.valueOf(price.getCents()).multiply(BigDecimal.valueOf(basisPoints))
+                .divide(BigDecimal.valueOf(10000), 0, RoundingMode.HALF_UP).longValueExact();
+        if (price.percent(basisPoints).getCents() != expected) {
+            return basisPoints + " basis points of " + price + " gave " + price.percent(basisPoints) + ", not "
+                    + Money.ofCents(expected);
+        }
+
+        Money read = Money.parse(amount.toString());
+        if (!read.equals(amount)) {
+            return amount + " was read back as " + read;
+        }
+
+        Money other = Money.ofCents(cents());
+        if (!amount.plus(other).minus(other).equals(amount)) {
+            return amount + " plus and minus " + other + " gave " + amount.plus(other).minus(other);
+        }
+        return null;
+    }
+
+    private long cents() {
+        return (long) (random.nextDouble() * 2 * MAX_CENTS) - MAX_CENTS;
+    }
+
+    /**
+     * Checks the amounts and prints how it went.
+     */
+    public static void main(String[] args) {
+        int amounts = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_AMOUNTS;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+
+        MoneyCheck check = new MoneyCheck(seed);
+        for (int i = 0; i < amounts; i++) {
+            String problem = check.checkOne();
+            if (problem != null) {
+                System.out.println("FAILED with seed " + seed + ": " + problem);
+                System.exit(1);
+            }
+        }
+        System.out.println(amounts + " amounts with seed " + seed + " passed");
+    }
+}
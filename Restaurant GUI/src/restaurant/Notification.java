@@ -0,0 +1,85 @@
+package restaurant;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Something the kitchen tells a server about one of their tables, ex. that dishes are prepared and waiting at the
+ * pass. Notifications about the same table of the same kind that have not been delivered yet are merged into one.
+ */
+public final class Notification {
+    private final String kind;
+    private final int tableNumber;
+    private final String serverKey;
+    private final List<String> dishes;
+    private final long time;
+
+    /**
+     * Creates a notification about one dish.
+     *
+     * @param kind        What happened to the dish, ex. "prepared" or "cancelled"
+     * @param tableNumber The table the dish is for
+     * @param serverKey   The server of the table, ex. "Server_2"
+     * @param dishName    The name of the dish
+     * @param time        When it happened, in milliseconds
+     */
+    public Notification(String kind, int tableNumber, String serverKey, String dishName, long time) {
+        this(kind, tableNumber, serverKey, Collections.singletonList(dishName), time);
+    }
+
+    private Notification(String kind, int tableNumber, String serverKey, List<String> dishes, long time) {
+        this.kind = kind;
+        this.tableNumber = tableNumber;
+        this.serverKey = serverKey;
+        this.dishes = dishes;
+        this.time = time;
+    }
+
+    /**
+     * Returns this notification together with a later one about the same table
+     *
+     * @param later The later notification
+     * @return A notification with the dishes of both, at the time of the first
+     */
+    Notification merge(Notification later) {
+        List<String> allDishes = new ArrayList<>(dishes);
+        allDishes.addAll(later.dishes);
+        return new Notification(kind, tableNumber, serverKey, Collections.unmodifiableList(allDishes), time);
+    }
+
+    //returns the key that notifications about the same thing are merged by.
+    String getKey() {
+        return kind + " " + tableNumber;
+    }
+
+    //returns what happened, ex. "prepared" or "cancelled".
+    public String getKind() {
+        return kind;
+    }
+
+    //returns the table the dishes are for.
+    public int getTableNumber() {
+        return tableNumber;
+    }
+
+    //returns the server of the table, ex. "Server_2".
+    public String getServerKey() {
+        return serverKey;
+    }
+
+    //returns the names of the dishes, in the order it happened to them.
+    public List<String> getDishes() {
+        return dishes;
+    }
+
+    //returns when it first happened, in milliseconds.
+    public long getTime() {
+        return time;
+    }
+
+    @Override
+    public String toString() {
+        return "Table " + tableNumber + " " + kind + ": " + String.join(", ", dishes);
+    }
+}
@@ -0,0 +1,121 @@
+package restaurant;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Tells servers' terminals what the kitchen has done as soon as it happens, so a server does not have to look at
+ * every table to find out that food is waiting at the pass.
+ * <p>
+ * Each subscriber has its own queue, drained on the subscriber's own executor, ex. the JavaFX thread, so a slow
+ * terminal never holds up the kitchen or any other terminal. While a subscriber's queue is waiting to be drained,
+ * notifications about the same table of the same kind are merged, so a queue never holds more than one notification
+ * per table and kind however far behind its terminal is.
+ */
+public class NotificationBus {
+    private static final NotificationBus bus = new NotificationBus();
+
+    private CopyOnWriteArrayList<Subscription> subscriptions;
+
+    /**
+     * A terminal listening for the notifications of one server, or of every server.
+     */
+    public static class Subscription {
+        private String serverKey; //The server listened for, or null for every server
+        private Executor executor;
+        private Consumer<Notification> listener;
+        private LinkedHashMap<String, Notification> pending; //Maps merge keys to notifications not delivered yet
+        private boolean scheduled; //Whether a drain of the queue has been handed to the executor
+
+        private Subscription(String serverKey, Executor executor, Consumer<Notification> listener) {
+            this.serverKey = serverKey;
+            this.executor = executor;
+            this.listener = listener;
+            pending = new LinkedHashMap<>();
+        }
+
+        /**
+         * Adds a notification onto the queue, merging it with one about the same table if there is one.
+         *
+         * @return true if the queue needs to be drained
+         */
+        private synchronized boolean enqueue(Notification notification) {
+            pending.merge(notification.getKey(), notification, Notification::merge);
+            if (scheduled) {
+                return false;
+            }
+            scheduled = true;
+            return true;
+        }
+
+        /**
+         * Delivers everything on the queue to the listener.
+         */
+        private void drain() {
+            List<Notification> notifications;
+            synchronized (this) {
+                notifications = new ArrayList<>(pending.values());
+                pending.clear();
+                scheduled = false;
+            }
+            for (Notification notification : notifications) {
+                try {
+                    listener.accept(notification);
+                } catch (RuntimeException e) {
+                    System.err.println("Problem delivering \"" + notification + "\": " + e);
+                }
+            }
+        }
+    }
+
+    NotificationBus() {
+        subscriptions = new CopyOnWriteArrayList<>();
+    }
+
+    //returns the notification bus of the restaurant.
+    public static NotificationBus getBus() {
+        return bus;
+    }
+
+    /**
+     * Starts listening for the notifications of a server.
+     *
+     * @param serverKey The server to listen for, ex. "Server_2", or null to listen for every server
+     * @param executor  Where the listener is run, ex. Platform::runLater
+     * @param listener  What to do with each notification
+     * @return The subscription, used to stop listening
+     */
+    public Subscription subscribe(String serverKey, Executor executor, Consumer<Notification> listener) {
+        Subscription subscription = new Subscription(serverKey, executor, listener);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Stops listening. Notifications already on the queue are still delivered.
+     *
+     * @param subscription The subscription returned when subscribing
+     */
+    public void unsubscribe(Subscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    /**
+     * Sends a notification to every terminal listening for its server.
+     *
+     * @param notification The notification
+     */
+    public void publish(Notification notification) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.serverKey == null || subscription.serverKey.equals(notification.getServerKey())) {
+                if (subscription.enqueue(notification)) {
+                    subscription.executor.execute(subscription::drain);
+                }
+            }
+        }
+    }
+}
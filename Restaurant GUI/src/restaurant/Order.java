@@ -18,6 +18,7 @@ public class Order {
     private Button orderButton;
     private boolean acknowledge;
     private Chef designatedChef;
+    private String serverKey; //The server who sent the order to the kitchen, ex. "Server_2"
 
     /**
      * Create an order for a table
@@ -197,8 +198,41 @@ public class Order {
         return finalList;
     }
 
+    /**
+     * Returns the dishes on this order. The list is a copy, so it can be looped over while dishes are added to or
+     * removed from the order.
+     *
+     * @return The dishes, in the order they were added
+     */
     public ArrayList<Recipe> getDishes(){
-        return dishOrders;
+        return new ArrayList<>(dishOrders);
+    }
+
+    /**
+     * Returns whether every dish on this order has been delivered or cancelled, so the kitchen is done with it
+     *
+     * @return true if there is nothing left to do for this order
+     */
+    public boolean isFinished() {
+        return dishOrders.size() == getStatusDishes("delivered").size() + getStatusDishes("cancelled").size();
+    }
+
+    /**
+     * Returns the food cost percentage of this order, the cost of the ingredients of every dish that has not been
+     * cancelled as a percentage of their prices
+     *
+     * @return The food cost percentage
+     */
+    public double getFoodCostPercent() {
+        Money cost = Money.ZERO;
+        Money price = Money.ZERO;
+        for (Recipe dish : dishOrders) {
+            if (!dish.getStatus().equals("cancelled")) {
+                cost = cost.plus(dish.getIngredientCost());
+                price = price.plus(dish.getPrice());
+            }
+        }
+        return cost.percentOf(price);
     }
 
     /**
@@ -233,4 +267,12 @@ public class Order {
     public Chef getDesignatedChef(){
         return designatedChef;
     }
+
+    public void setServerKey(String serverKey){
+        this.serverKey = serverKey;
+    }
+
+    public String getServerKey(){
+        return serverKey;
+    }
 }
@@ -0,0 +1,225 @@
+package restaurant;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The record of every bill paid in the restaurant, kept in Payments.txt. Every payment is a single line appended onto
+ * the end of the file and is never changed afterwards, ex.
+ * "12 | 2024-03-08T19:42:10 | 5 | Server_2 | 41.20 | 5.36 | 0.00 | 11.85;" for the bill id, time, table, server,
+ * subtotal, tax, gratuity and food cost. Payments recorded before food costs were kept have no food cost.
+ * <p>
+ * The revenue of each day, of each server on each day, and of each hour of each day is added up as payments come in,
+ * so a report never has to read through the day's payments again. The file is only read through once, when the
+ * ledger is opened.
+ */
+public class PaymentLedger {
+    private static final Pattern RECORD = Pattern.compile(
+            "(\\d+) \\| (\\S+) \\| (\\d+) \\| (\\S+) \\| (-?\\d+\\.\\d{2}) \\| (-?\\d+\\.\\d{2}) \\| (-?\\d+\\.\\d{2})"
+            + "(?: \\| (-?\\d+\\.\\d{2}))?;");
+
+    private File ledgerFile;
+    private int nextBillId;
+    private HashMap<LocalDate, RevenueTotals> dailyTotals;
+    private HashMap<LocalDate, HashMap<String, RevenueTotals>> serverTotals; //Maps days to each server's revenue
+    private HashMap<LocalDate, RevenueTotals[]> hourlyTotals; //Maps days to the revenue of each of their 24 hours
+
+    /**
+     * Opens the ledger in Payments.txt, or starts an empty ledger if there is no such file.
+     */
+    public PaymentLedger() {
+        this("Payments.txt");
+    }
+
+    /**
+     * Opens the ledger kept in a certain file.
+     *
+     * @param fileName The name of the ledger file
+     */
+    public PaymentLedger(String fileName) {
+        ledgerFile = new File(fileName);
+        nextBillId = 1;
+        dailyTotals = new HashMap<>();
+        serverTotals = new HashMap<>();
+        hourlyTotals = new HashMap<>();
+        if (ledgerFile.exists()) {
+            replay();
+            endUnfinishedRecord();
+        }
+    }
+
+    /**
+     * Records that a bill has been paid, and adds it to the revenue reports.
+     *
+     * @param tableNumber The table that paid
+     * @param serverId    The id of the server of the table, ex. "Server_2"
+     * @param summary     The bill that was paid
+     * @return The id given to the bill
+     */
+    public synchronized int recordPayment(int tableNumber, String serverId, BillSummary summary) {
+        return recordPayment(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS), tableNumber, serverId,
+                summary.getSubtotal(), summary.getTax(), summary.getGratuity(), summary.getFoodCost());
+    }
+
+    /**
+     * Records that a bill has been paid at a certain time, and adds it to the revenue reports.
+     *
+     * @param time        The time of the payment
+     * @param tableNumber The table that paid
+     * @param serverId    The id of the server of the table
+     * @param subtotal    The subtotal of the bill
+     * @param tax         The tax of the bill
+     * @param gratuity    The gratuity of the bill
+     * @param foodCost    The cost of the ingredients of the dishes on the bill
+     * @return The id given to the bill
+     */
+    public synchronized int recordPayment(LocalDateTime time, int tableNumber, String serverId, Money subtotal,
+                                          Money tax, Money gratuity, Money foodCost) {
+        int billId = nextBillId++;
+        String record = billId + " | " + time + " | " + tableNumber + " | " + serverId + " | " + subtotal + " | "
+                + tax + " | " + gratuity + " | " + foodCost + ";\n";
+        try (FileOutputStream out = new FileOutputStream(ledgerFile, true)) {
+            out.write(record.getBytes("UTF-8"));
+            out.getFD().sync();
+        } catch (IOException e) {
+            System.err.println("Problem writing to " + ledgerFile.getName());
+        }
+        addToTotals(time, serverId, subtotal, tax, gratuity, foodCost);
+        return billId;
+    }
+
+    /**
+     * Returns the revenue of a day
+     *
+     * @param day The day
+     * @return The revenue of every payment on that day
+     */
+    public synchronized RevenueTotals getDailyTotals(LocalDate day) {
+        return dailyTotals.getOrDefault(day, RevenueTotals.NONE);
+    }
+
+    /**
+     * Returns the revenue of each server on a day
+     *
+     * @param day The day
+     * @return A map from server ids to their revenue, sorted by server id
+     */
+    public synchronized TreeMap<String, RevenueTotals> getServerTotals(LocalDate day) {
+        HashMap<String, RevenueTotals> totals = serverTotals.get(day);
+        return totals == null ? new TreeMap<>() : new TreeMap<>(totals);
+    }
+
+    /**
+     * Returns the revenue of each hour of a day
+     *
+     * @param day The day
+     * @return An array of 24 totals, where index 0 is from midnight to 1 AM
+     */
+    public synchronized RevenueTotals[] getHourlyTotals(LocalDate day) {
+        RevenueTotals[] totals = hourlyTotals.get(day);
+        if (totals == null) {
+            totals = emptyHours();
+        }
+        return totals.clone();
+    }
+
+    /**
+     * Returns the end of day report of a day, with the revenue of the whole day, of each server and of each hour
+     * that had payments.
+     *
+     * @param day The day
+     * @return The report as text
+     */
+    public synchronized String getEndOfDayReport(LocalDate day) {
+        StringBuilder report = new StringBuilder(500);
+        report.append("Revenue for ").append(day).append("\n");
+        report.append("Day: ").append(getDailyTotals(day)).append("\n");
+        for (Map.Entry<String, RevenueTotals> entry : getServerTotals(day).entrySet()) {
+            report.append(entry.getKey()).append(": ").append(entry.getValue()).append("\n");
+        }
+        RevenueTotals[] hours = getHourlyTotals(day);
+        for (int hour = 0; hour < hours.length; hour++) {
+            if (hours[hour].getPayments() > 0) {
+                report.append(String.format("%02d:00-%02d:00: ", hour, hour + 1)).append(hours[hour]).append("\n");
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * Adds a payment onto the revenue of its day, its server on that day, and its hour.
+     */
+    private void addToTotals(LocalDateTime time, String serverId, Money subtotal, Money tax, Money gratuity,
+                             Money foodCost) {
+        LocalDate day = time.toLocalDate();
+        dailyTotals.put(day, getDailyTotals(day).plus(subtotal, tax, gratuity, foodCost));
+        HashMap<String, RevenueTotals> servers = serverTotals.computeIfAbsent(day, d -> new HashMap<>());
+        servers.put(serverId, servers.getOrDefault(serverId, RevenueTotals.NONE)
+                .plus(subtotal, tax, gratuity, foodCost));
+        RevenueTotals[] hours = hourlyTotals.computeIfAbsent(day, d -> emptyHours());
+        hours[time.getHour()] = hours[time.getHour()].plus(subtotal, tax, gratuity, foodCost);
+    }
+
+    /**
+     * Returns the totals of a day where no hour has had any payments
+     */
+    private RevenueTotals[] emptyHours() {
+        RevenueTotals[] hours = new RevenueTotals[24];
+        for (int hour = 0; hour < hours.length; hour++) {
+            hours[hour] = RevenueTotals.NONE;
+        }
+        return hours;
+    }
+
+    /**
+     * Ends the last line of the file if it was cut off, so that the next payment starts on a line of its own.
+     */
+    private void endUnfinishedRecord() {
+        try (RandomAccessFile file = new RandomAccessFile(ledgerFile, "rw")) {
+            if (file.length() > 0) {
+                file.seek(file.length() - 1);
+                if (file.read() != '\n') {
+                    file.write('\n');
+                    file.getFD().sync();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Problem writing to " + ledgerFile.getName());
+        }
+    }
+
+    /**
+     * Reads every payment in the file to rebuild the revenue reports.
+     */
+    private void replay() {
+        try (BufferedReader reader = new BufferedReader(new FileReader(ledgerFile))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher record = RECORD.matcher(line.trim());
+                if (record.matches()) {
+                    try {
+                        addToTotals(LocalDateTime.parse(record.group(2)), record.group(4),
+                                Money.parse(record.group(5)), Money.parse(record.group(6)),
+                                Money.parse(record.group(7)),
+                                record.group(8) == null ? Money.ZERO : Money.parse(record.group(8)));
+                        nextBillId = Math.max(nextBillId, Integer.parseInt(record.group(1)) + 1);
+                    } catch (DateTimeParseException e) {
+                        System.err.println("Skipped payment with an unreadable time: " + line);
+                    }
+                } else if (!line.trim().isEmpty()) {
+                    System.err.println("Skipped unfinished payment record: " + line);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Problem reading " + ledgerFile.getName());
+        }
+    }
+}
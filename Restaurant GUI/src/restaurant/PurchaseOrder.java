@@ -0,0 +1,63 @@
+package restaurant;
+
+/**
+ * A request to the supplier for a certain amount of one ingredient. A purchase order starts off as "pending",
+ * becomes "sent" once the manager has emailed the supplier, and is "received" once the shipment is added into
+ * the inventory.
+ */
+public class PurchaseOrder {
+    private int id;
+    private String ingredient;
+    private int quantity;
+    private String status; //Can be "pending", "sent" or "received"
+
+    /**
+     * Creates a purchase order
+     *
+     * @param id         The number of this purchase order
+     * @param ingredient The ingredient being ordered
+     * @param quantity   The amount of the ingredient being ordered
+     * @param status     The status of this purchase order, either "pending", "sent" or "received"
+     */
+    PurchaseOrder(int id, String ingredient, int quantity, String status) {
+        this.id = id;
+        this.ingredient = ingredient;
+        this.quantity = quantity;
+        this.status = status;
+    }
+
+    //returns the number of this purchase order.
+    public int getId() {
+        return id;
+    }
+
+    //returns the ingredient being ordered.
+    public String getIngredient() {
+        return ingredient;
+    }
+
+    //returns the amount of the ingredient being ordered.
+    public int getQuantity() {
+        return quantity;
+    }
+
+    //returns the status of this purchase order.
+    public String getStatus() {
+        return status;
+    }
+
+    //adds on to the amount being ordered while the order is still pending.
+    void addQuantity(int quantity) {
+        this.quantity += quantity;
+    }
+
+    //sets the status of this purchase order.
+    void setStatus(String status) {
+        this.status = status;
+    }
+
+    @Override
+    public String toString() {
+        return "Please order " + quantity + " of " + ingredient + ".";
+    }
+}
@@ -0,0 +1,292 @@
+package restaurant;
+
+import storage.LogStore;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The queue of purchase orders for the supplier, kept in the restaurant's store. Each purchase order that has not
+ * been received is a single key, ex. "purchase/3" is "sent | Bacon | 20", and the key is deleted once the order is
+ * received, in the same transaction that adds the shipment into the inventory.
+ * <p>
+ * There is at most one pending purchase order for each ingredient. Automated requests are skipped while an
+ * ingredient is already on its way, so the same ingredient is not ordered again for every dish that is cooked.
+ * <p>
+ * The inventory makes automated requests while it is locked, so the inventory's lock is always taken before this
+ * queue's and never while holding it. Nothing waits for the disk while this queue is locked.
+ */
+public class PurchaseOrderQueue {
+    private static final String PREFIX = "purchase/";
+    private static final String NEXT_ID = "next-id/purchase";
+    private static final Pattern VALUE = Pattern.compile("(pending|sent) \\| (.+) \\| (\\d+)");
+    private static final Pattern RECORD = Pattern.compile("(\\d+) \\| (pending|sent|received) \\| (.+) \\| (\\d+);");
+    private static final Pattern OLD_REQUEST = Pattern.compile("Please order (\\d+) of ([^.]+)\\.(\\(Email Sent\\))?");
+
+    private LogStore store;
+    private LinkedHashMap<Integer, PurchaseOrder> openOrders; //Orders not yet received, in the order they were made
+    private HashMap<String, PurchaseOrder> pendingOrders; //Maps ingredients to their pending purchase order
+    private HashMap<String, Integer> openIngredients; //Maps ingredients to how many of their orders are not received
+    private int nextId;
+
+    /**
+     * Opens the purchase orders kept in a store.
+     *
+     * @param store The store of the restaurant
+     */
+    public PurchaseOrderQueue(LogStore store) {
+        this.store = store;
+        openOrders = new LinkedHashMap<>();
+        pendingOrders = new HashMap<>();
+        openIngredients = new HashMap<>();
+        String storedId = store.get(NEXT_ID);
+        nextId = storedId == null ? 1 : Integer.parseInt(storedId);
+        for (Map.Entry<String, String> entry : store.scan(PREFIX).entrySet()) {
+            Matcher value = VALUE.matcher(entry.getValue());
+            if (value.matches()) {
+                int id = Integer.parseInt(entry.getKey());
+                open(new PurchaseOrder(id, value.group(2), Integer.parseInt(value.group(3)), value.group(1)));
+                nextId = Math.max(nextId, id + 1);
+            } else {
+                System.err.println("Skipped unreadable purchase order " + entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Requests an ingredient automatically because it has run low. Nothing is done if the ingredient has
+     * already been requested and not received yet. This does not wait for the order to reach the disk, since it
+     * is made while a dish is being cooked.
+     *
+     * @param ingredient The ingredient to restock
+     * @param quantity   The amount to order
+     * @return Whether a new purchase order was made
+     */
+    public synchronized boolean automatedRequest(String ingredient, int quantity) {
+        if (openIngredients.containsKey(ingredient)) {
+            return false;
+        }
+        LogStore.Transaction transaction = store.begin();
+        addOrder(ingredient, quantity, transaction);
+        transaction.commit();
+        return true;
+    }
+
+    /**
+     * Requests an amount of an ingredient. If the ingredient already has a pending purchase order, the amount
+     * is added onto that order instead of making a new one.
+     *
+     * @param ingredient The ingredient to restock
+     * @param quantity   The amount to order
+     * @return Whether the request was saved
+     */
+    public boolean request(String ingredient, int quantity) {
+        CompletableFuture<Void> written;
+        synchronized (this) {
+            LogStore.Transaction transaction = store.begin();
+            PurchaseOrder pending = pendingOrders.get(ingredient);
+            if (pending == null) {
+                addOrder(ingredient, quantity, transaction);
+            } else {
+                pending.addQuantity(quantity);
+                save(pending, transaction);
+            }
+            written = transaction.commit();
+        }
+        return LogStore.waitFor(written);
+    }
+
+    /**
+     * Marks every pending purchase order as sent to the supplier.
+     *
+     * @return The purchase orders that were sent
+     */
+    public ArrayList<PurchaseOrder> sendPending() {
+        ArrayList<PurchaseOrder> sent;
+        CompletableFuture<Void> written;
+        synchronized (this) {
+            sent = new ArrayList<>(pendingOrders.values());
+            LogStore.Transaction transaction = store.begin();
+            for (PurchaseOrder order : sent) {
+                order.setStatus("sent");
+                save(order, transaction);
+            }
+            written = transaction.commit();
+            pendingOrders.clear();
+        }
+        if (!LogStore.waitFor(written)) {
+            System.err.println("Could not save that " + sent.size() + " purchase orders were sent");
+        }
+        return sent;
+    }
+
+    /**
+     * Receives the shipments of every purchase order that has been sent, adding them into the inventory. The orders
+     * are closed and the shipments added in one transaction, so a crash can never receive a shipment twice. The
+     * transaction is made while the inventory is locked, so a dish cooked at the same time cannot save a stock level
+     * in between, and the orders are only closed once it is on the disk.
+     *
+     * @param inventory The inventory that the shipments are added to
+     * @return The purchase orders that were received, or none if they could not be saved
+     */
+    public ArrayList<PurchaseOrder> receiveSent(Inventory inventory) {
+        ArrayList<PurchaseOrder> received = new ArrayList<>();
+        CompletableFuture<Void> written;
+        synchronized (inventory) {
+            LogStore.Transaction transaction = store.begin();
+            synchronized (this) {
+                for (PurchaseOrder order : openOrders.values()) {
+                    if (order.getStatus().equals("sent")) {
+                        received.add(order);
+                    }
+                }
+                for (PurchaseOrder order : received) {
+                    order.setStatus("received"); //So nobody receives it again while it is being saved
+                    transaction.delete(PREFIX + order.getId());
+                }
+            }
+            for (PurchaseOrder order : received) {
+                inventory.addIngredient(order.getIngredient(), order.getQuantity(), transaction);
+            }
+            written = transaction.commit();
+        }
+        boolean saved = LogStore.waitFor(written);
+        synchronized (this) {
+            for (PurchaseOrder order : received) {
+                if (saved) {
+                    close(order);
+                } else {
+                    order.setStatus("sent");
+                }
+            }
+        }
+        if (!saved) {
+            System.err.println("Could not save that " + received.size() + " purchase orders were received");
+            return new ArrayList<>();
+        }
+        return received;
+    }
+
+    /**
+     * Returns the purchase orders that have not been received yet
+     *
+     * @return A list of the open purchase orders
+     */
+    public synchronized ArrayList<PurchaseOrder> getOpenOrders() {
+        return new ArrayList<>(openOrders.values());
+    }
+
+    /**
+     * Makes a new pending purchase order and adds it onto a transaction.
+     */
+    private void addOrder(String ingredient, int quantity, LogStore.Transaction transaction) {
+        PurchaseOrder order = new PurchaseOrder(nextId++, ingredient, quantity, "pending");
+        open(order);
+        save(order, transaction);
+        transaction.put(NEXT_ID, Integer.toString(nextId));
+    }
+
+    /**
+     * Adds the current state of a purchase order onto a transaction.
+     */
+    private void save(PurchaseOrder order, LogStore.Transaction transaction) {
+        transaction.put(PREFIX + order.getId(), order.getStatus() + " | " + order.getIngredient() + " | "
+                + order.getQuantity());
+    }
+
+    /**
+     * Starts keeping track of a purchase order that has not been received.
+     */
+    private void open(PurchaseOrder order) {
+        openOrders.put(order.getId(), order);
+        if (order.getStatus().equals("pending")) {
+            pendingOrders.put(order.getIngredient(), order);
+        }
+        Integer count = openIngredients.get(order.getIngredient());
+        openIngredients.put(order.getIngredient(), count == null ? 1 : count + 1);
+    }
+
+    /**
+     * Stops keeping track of a purchase order, ex. once it has been received.
+     */
+    private void close(PurchaseOrder order) {
+        openOrders.remove(order.getId());
+        if (pendingOrders.get(order.getIngredient()) == order) {
+            pendingOrders.remove(order.getIngredient());
+        }
+        int count = openIngredients.get(order.getIngredient());
+        if (count <= 1) {
+            openIngredients.remove(order.getIngredient());
+        } else {
+            openIngredients.put(order.getIngredient(), count - 1);
+        }
+    }
+
+    /**
+     * Adds the purchase orders kept in text files before the store onto a transaction. They are read from
+     * PurchaseOrders.txt if there is one, where the latest line of each order is its state, otherwise from the
+     * requests written in sentences into the even older Requests.txt.
+     *
+     * @param transaction The transaction to add them to
+     */
+    public static void importTextFiles(LogStore.Transaction transaction) {
+        LinkedHashMap<Integer, String> orders = new LinkedHashMap<>(); //Maps ids to the state of open orders
+        int nextId = 1;
+        File purchaseOrders = new File("PurchaseOrders.txt");
+        File requests = new File("Requests.txt");
+        if (purchaseOrders.exists()) {
+            try (BufferedReader reader = new BufferedReader(new FileReader(purchaseOrders))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Matcher record = RECORD.matcher(line.trim());
+                    if (record.matches()) {
+                        int id = Integer.parseInt(record.group(1));
+                        orders.remove(id);
+                        if (!record.group(2).equals("received")) {
+                            orders.put(id, record.group(2) + " | " + record.group(3) + " | " + record.group(4));
+                        }
+                        nextId = Math.max(nextId, id + 1);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Problem reading " + purchaseOrders.getName());
+            }
+        } else if (requests.exists()) {
+            HashMap<String, Integer> pending = new HashMap<>(); //Maps ingredients to their pending order
+            HashMap<Integer, Integer> quantities = new HashMap<>();
+            try (BufferedReader reader = new BufferedReader(new FileReader(requests))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Matcher request = OLD_REQUEST.matcher(line);
+                    while (request.find()) {
+                        String ingredient = request.group(2).trim();
+                        int quantity = Integer.parseInt(request.group(1));
+                        Integer id = request.group(3) == null ? pending.get(ingredient) : null;
+                        if (id == null) {
+                            id = nextId++;
+                            quantities.put(id, 0);
+                            if (request.group(3) == null) {
+                                pending.put(ingredient, id);
+                            }
+                        }
+                        quantities.put(id, quantities.get(id) + quantity);
+                        orders.put(id, (request.group(3) == null ? "pending" : "sent") + " | " + ingredient
+                                + " | " + quantities.get(id));
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Problem reading " + requests.getName());
+            }
+        }
+        for (Map.Entry<Integer, String> order : orders.entrySet()) {
+            transaction.put(PREFIX + order.getKey(), order.getValue());
+        }
+        transaction.put(NEXT_ID, Integer.toString(nextId));
+    }
+}
@@ -0,0 +1,81 @@
+package restaurant;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One bill handed to the customers, worked out but not yet formatted. A receipt has the dishes on it, its
+ * subtotal, tax, gratuity and total, and if it is split evenly, what each customer pays. Receipts cannot be
+ * changed once they are made.
+ */
+public final class Receipt {
+    private final List<BillLine> lines;
+    private final Money subtotal;
+    private final Money tax;
+    private final Money gratuity;
+    private final boolean gratuityApplied;
+    private final Money total;
+    private final List<Money> customerShares;
+
+    /**
+     * Creates a receipt
+     *
+     * @param lines           The dishes on the receipt
+     * @param subtotal        The sum of the prices on the receipt
+     * @param tax             The tax on the subtotal
+     * @param gratuity        The gratuity on the subtotal, zero if there is no gratuity
+     * @param gratuityApplied Whether gratuity is charged on this receipt
+     * @param customerShares  What each customer pays if the receipt is split evenly, otherwise just the total
+     */
+    Receipt(List<BillLine> lines, Money subtotal, Money tax, Money gratuity, boolean gratuityApplied,
+            List<Money> customerShares) {
+        this.lines = Collections.unmodifiableList(new ArrayList<>(lines));
+        this.subtotal = subtotal;
+        this.tax = tax;
+        this.gratuity = gratuity;
+        this.gratuityApplied = gratuityApplied;
+        this.total = subtotal.plus(tax).plus(gratuity);
+        this.customerShares = Collections.unmodifiableList(new ArrayList<>(customerShares));
+    }
+
+    //returns the dishes on this receipt.
+    public List<BillLine> getLines() {
+        return lines;
+    }
+
+    //returns the sum of the prices on this receipt.
+    public Money getSubtotal() {
+        return subtotal;
+    }
+
+    //returns the tax on this receipt.
+    public Money getTax() {
+        return tax;
+    }
+
+    //returns the gratuity on this receipt, zero if there is no gratuity.
+    public Money getGratuity() {
+        return gratuity;
+    }
+
+    //returns whether gratuity is charged on this receipt.
+    public boolean isGratuityApplied() {
+        return gratuityApplied;
+    }
+
+    //returns the total of this receipt.
+    public Money getTotal() {
+        return total;
+    }
+
+    //returns what each customer pays. There is only one share, the total, if the receipt is not split.
+    public List<Money> getCustomerShares() {
+        return customerShares;
+    }
+
+    //returns whether this receipt is split evenly between more than one customer.
+    public boolean isSplit() {
+        return customerShares.size() > 1;
+    }
+}
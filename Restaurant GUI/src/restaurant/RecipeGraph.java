@@ -0,0 +1,225 @@
+package restaurant;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What everything on menu.txt is made of, as a graph. A prep item, such as a sauce or a dough made in batches, is
+ * made of ingredients and other prep items. A food is made of ingredients and prep items, and a combo is made of
+ * foods and other combos. Nothing may be made of itself, however far down.
+ * <p>
+ * Once the graph is compiled, every recipe in it is flattened into the amount of each ingredient from the inventory
+ * that one of it uses. Each recipe is flattened once, from the recipes it is made of, so a prep item used by many
+ * foods is only worked out once, and the dishes made from the menu only ever carry ingredients the inventory has,
+ * however deep the recipes go.
+ */
+final class RecipeGraph {
+    static final String PREP = "prep item";
+    static final String FOOD = "food";
+    static final String COMBO = "combo";
+
+    private final Set<String> ingredients; //The ingredients in the inventory
+    private final LinkedHashMap<String, Node> nodes = new LinkedHashMap<>(); //Recipe name -> recipe, in file order
+    private final HashMap<String, HashMap<String, Integer>> flattened = new HashMap<>(); //Recipe name -> ingredients
+    private final Set<String> leftOut = new HashSet<>(); //Recipes with a mistake, or made of one that has a mistake
+
+    /**
+     * One recipe in the graph, and the line of menu.txt it is on.
+     */
+    private static final class Node {
+        private final String kind;
+        private final String name;
+        private final LinkedHashMap<String, Integer> parts; //What it is made of -> how many of each
+        private final int line;
+
+        private Node(String kind, String name, LinkedHashMap<String, Integer> parts, int line) {
+            this.kind = kind;
+            this.name = name;
+            this.parts = parts;
+            this.line = line;
+        }
+    }
+
+    /**
+     * Makes an empty graph.
+     *
+     * @param ingredients The names of the ingredients in the inventory
+     */
+    RecipeGraph(Collection<String> ingredients) {
+        this.ingredients = new HashSet<>(ingredients);
+    }
+
+    /**
+     * Adds a recipe to the graph. The recipes it is made of do not have to be added yet.
+     *
+     * @param kind  PREP, FOOD or COMBO
+     * @param name  The name of the recipe
+     * @param parts What it is made of and how many of each
+     * @param line  The line of menu.txt it is on, counting from 1
+     * @return null if it was added, otherwise why not
+     */
+    String add(String kind, String name, LinkedHashMap<String, Integer> parts, int line) {
+        if (nodes.containsKey(name)) {
+            return name + " is already on the menu";
+        }
+        if (ingredients.contains(name)) {
+            return name + " is already the name of an ingredient";
+        }
+        nodes.put(name, new Node(kind, name, parts, line));
+        return null;
+    }
+
+    /**
+     * Checks every recipe in the graph and flattens it into ingredients. A recipe is left out if it is made of
+     * something that does not exist or is of the wrong kind, if it is made of itself, or if it is made of a recipe
+     * that was left out.
+     *
+     * @param problems Where the mistakes found are added, ex. "line 4: Aioli is made of itself: Aioli -> Mayo ->
+     *                 Aioli"
+     */
+    void compile(List<String> problems) {
+        HashSet<String> visiting = new HashSet<>();
+        ArrayList<String> path = new ArrayList<>();
+        for (Node node : nodes.values()) {
+            flatten(node, visiting, path, problems);
+        }
+    }
+
+    /**
+     * Flattens a recipe into ingredients, after flattening the recipes it is made of, unless it has been already.
+     *
+     * @param visiting The recipes being flattened further up, which a recipe made of itself runs back into
+     * @param path     The same recipes, in the order they were reached
+     * @return whether the recipe could be flattened
+     */
+    private boolean flatten(Node node, Set<String> visiting, List<String> path, List<String> problems) {
+        if (flattened.containsKey(node.name)) {
+            return true;
+        }
+        if (leftOut.contains(node.name)) {
+            return false;
+        }
+        if (visiting.contains(node.name)) {
+            List<String> cycle = new ArrayList<>(path.subList(path.indexOf(node.name), path.size()));
+            cycle.add(node.name);
+            for (String name : cycle) {
+                leftOut.add(name);
+            }
+            problems.add("line " + node.line + ": " + node.name + " is made of itself: "
+                    + String.join(" -> ", cycle));
+            return false;
+        }
+        visiting.add(node.name);
+        path.add(node.name);
+        String mistake = null;
+        HashMap<String, Integer> total = new HashMap<>();
+        for (Map.Entry<String, Integer> part : node.parts.entrySet()) {
+            String partName = part.getKey();
+            Node partNode = nodes.get(partName);
+            if (part.getValue() <= 0) {
+                mistake = node.name + " needs more than " + part.getValue() + " " + partName;
+            } else if (partNode == null && !ingredients.contains(partName)) {
+                mistake = node.kind.equals(COMBO) ? node.name + " has " + partName + ", which is not on the menu"
+                        : "there is no ingredient " + partName;
+            } else if (!canBeMadeOf(node.kind, partNode == null ? null : partNode.kind)) {
+                mistake = node.name + " cannot be made of " + partName + ", which is "
+                        + (partNode == null ? "an ingredient" : "a " + partNode.kind);
+            } else if (partNode == null) {
+                if (!addAmount(total, partName, part.getValue())) {
+                    mistake = node.name + " needs too much " + partName;
+                }
+            } else if (!flatten(partNode, visiting, path, problems)) {
+                if (leftOut.contains(node.name)) {
+                    break; //It is part of a cycle, which was already reported
+                }
+                mistake = node.name + " is made of " + partName + ", which was left out";
+            } else {
+                for (Map.Entry<String, Integer> ingredient : flattened.get(partName).entrySet()) {
+                    long amount = (long) ingredient.getValue() * part.getValue();
+                    if (amount > Integer.MAX_VALUE || !addAmount(total, ingredient.getKey(), (int) amount)) {
+                        mistake = node.name + " needs too much " + ingredient.getKey();
+                        break;
+                    }
+                }
+            }
+            if (mistake != null) {
+                break;
+            }
+        }
+        visiting.remove(node.name);
+        path.remove(path.size() - 1);
+        if (mistake != null) {
+            problems.add("line " + node.line + ": " + mistake);
+            leftOut.add(node.name);
+        }
+        if (leftOut.contains(node.name)) {
+            return false;
+        }
+        flattened.put(node.name, total);
+        return true;
+    }
+
+    /**
+     * Adds an amount of an ingredient to a flattened recipe.
+     *
+     * @return false if the total got too big to count
+     */
+    private static boolean addAmount(HashMap<String, Integer> total, String ingredient, int amount) {
+        long sum = (long) total.getOrDefault(ingredient, 0) + amount;
+        if (sum > Integer.MAX_VALUE) {
+            return false;
+        }
+        total.put(ingredient, (int) sum);
+        return true;
+    }
+
+    /**
+     * Returns whether a recipe of one kind can be made of something of another kind
+     *
+     * @param kind     The kind of the recipe
+     * @param partKind The kind of what it is made of, or null for an ingredient
+     */
+    private static boolean canBeMadeOf(String kind, String partKind) {
+        if (kind.equals(COMBO)) {
+            return FOOD.equals(partKind) || COMBO.equals(partKind);
+        }
+        return partKind == null || partKind.equals(PREP);
+    }
+
+    //returns whether a recipe was compiled without mistakes.
+    boolean isCompiled(String name) {
+        return flattened.containsKey(name);
+    }
+
+    //returns a copy of the amount of each ingredient that one of a compiled recipe uses.
+    HashMap<String, Integer> getIngredients(String name) {
+        return new HashMap<>(flattened.get(name));
+    }
+
+    /**
+     * Returns the foods in a compiled combo, with the foods of the combos in it in their place
+     *
+     * @param name The name of the combo
+     * @return The names of its foods, in order
+     */
+    List<String> getFoods(String name) {
+        Node node = nodes.get(name);
+        if (node.kind.equals(FOOD)) {
+            return Collections.singletonList(name);
+        }
+        ArrayList<String> foods = new ArrayList<>();
+        for (Map.Entry<String, Integer> part : node.parts.entrySet()) {
+            for (int i = 0; i < part.getValue(); i++) {
+                foods.addAll(getFoods(part.getKey()));
+            }
+        }
+        return foods;
+    }
+}
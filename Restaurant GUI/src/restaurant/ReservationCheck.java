@@ -0,0 +1,202 @@
+package restaurant;
+
+import dishes.Recipe;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Has many servers reserve, cook and cancel dishes at once while a manager keeps ordering, sending and receiving
+ * purchase orders, and checks that the inventory never promises more of an ingredient than it has. While it runs, the
+ * amount of each ingredient not reserved must never go below zero. Once it stops, every ingredient must be accounted
+ * for: what there was at the start plus what was received is what is left plus what was cooked and written off.
+ * <p>
+ * Receiving purchase orders adds stock to the inventory while dishes being cooked order more, which is where the
+ * inventory and the purchase order queue once locked each other up, so it also fails if the threads do not finish in
+ * time. This writes to the log like a real restaurant would, so run it in a copy of the data folder. The number of
+ * servers and the seconds to run for can be given as arguments. Prints whether the inventory passed, and exits with 1
+ * if it did not.
+ */
+public class ReservationCheck {
+    private static final int DEFAULT_SERVERS = 16;
+    private static final int DEFAULT_SECONDS = 5;
+    private static final long FINISH_SECONDS = 30; //How long the threads get to stop before they count as stuck
+
+    private Inventory inventory;
+    private Menu menu;
+    private ArrayList<String> dishNames;
+    private ConcurrentHashMap<String, AtomicInteger> cooked; //Maps ingredients to the amount used by cooked dishes
+    private ConcurrentHashMap<String, AtomicInteger> received; //Maps ingredients to the amount received
+    private AtomicInteger dishesCooked;
+    private AtomicInteger dishesRefused;
+    private AtomicReference<String> problem; //The first thing found wrong with the inventory, or null
+    private volatile boolean running;
+
+    private ReservationCheck(Restaurant restaurant) {
+        inventory = restaurant.getInventory();
+        menu = restaurant.getMenu();
+        dishNames = new ArrayList<>(menu.getMenuItems().keySet());
+        cooked = new ConcurrentHashMap<>();
+        received = new ConcurrentHashMap<>();
+        dishesCooked = new AtomicInteger();
+        dishesRefused = new AtomicInteger();
+        problem = new AtomicReference<>();
+    }
+
+    /**
+     * Runs the servers and the manager for a while, then checks that every ingredient is accounted for.
+     *
+     * @return null if the inventory passed, otherwise the first problem found
+     */
+    private String run(int servers, int seconds) throws InterruptedException {
+        HashMap<String, Integer> before = stock();
+        CountDownLatch finished = new CountDownLatch(servers + 1);
+        running = true;
+        for (int i = 0; i < servers; i++) {
+            long seed = i;
+            start("server-" + i, () -> serve(new Random(seed)), finished);
+        }
+        start("manager", this::restock, finished);
+        Thread.sleep(seconds * 1000L);
+        running = false;
+        if (!finished.await(FINISH_SECONDS, TimeUnit.SECONDS)) {
+            return "the threads did not finish within " + FINISH_SECONDS + " seconds, which may be a deadlock";
+        }
+        receive(); //Orders sent after the manager last received
+        if (problem.get() != null) {
+            return problem.get();
+        }
+
+        HashMap<String, Integer> after = stock();
+        for (String ingredient : before.keySet()) {
+            int in = before.get(ingredient) + amount(received, ingredient);
+            int out = after.get(ingredient) + amount(cooked, ingredient) + inventory.getWasted(ingredient);
+            if (in != out) {
+                return ingredient + " started at " + before.get(ingredient) + " and received "
+                        + amount(received, ingredient) + ", but " + out + " is accounted for";
+            }
+            if (inventory.getAvailable(ingredient) != after.get(ingredient)) {
+                return ingredient + " is still reserved after every dish was cooked or cancelled";
+            }
+        }
+        return null;
+    }
+
+    private void start(String name, Runnable work, CountDownLatch done) {
+        new Thread(() -> {
+            try {
+                work.run();
+            } finally {
+                done.countDown();
+            }
+        }, name).start();
+    }
+
+    /**
+     * Keeps reserving a random dish, then cooking it or cancelling it, checking the inventory each time.
+     */
+    private void serve(Random random) {
+        Order order = new Order(0, menu);
+        while (running && problem.get() == null) {
+            Recipe dish = order.addDish(dishNames.get(random.nextInt(dishNames.size())));
+            if (dish == null) {
+                continue;
+            }
+            order.removeDish(dish);
+            if (!inventory.reserve(dish)) {
+                dishesRefused.incrementAndGet();
+                check();
+                continue;
+            }
+            check();
+            if (random.nextInt(4) == 0) {
+                inventory.release(dish);
+            } else if (inventory.consume(dish)) {
+                for (Map.Entry<String, Integer> ingredient : dish.getIngredients().entrySet()) {
+                    add(cooked, ingredient.getKey(), ingredient.getValue());
+                }
+                dishesCooked.incrementAndGet();
+            } else {
+                report(dish.getName() + " was reserved but could not be cooked");
+            }
+            check();
+        }
+    }
+
+    /**
+     * Keeps ordering a random ingredient, sending what was ordered and receiving it.
+     */
+    private void restock() {
+        Random random = new Random(-1);
+        ArrayList<String> ingredients = inventory.getIngredientNames();
+        while (running && problem.get() == null) {
+            inventory.manualRequest(ingredients.get(random.nextInt(ingredients.size())), 1 + random.nextInt(20));
+            inventory.getPurchaseOrders().sendPending();
+            receive();
+        }
+    }
+
+    private void receive() {
+        for (PurchaseOrder order : inventory.getPurchaseOrders().receiveSent(inventory)) {
+            add(received, order.getIngredient(), order.getQuantity());
+        }
+    }
+
+    /**
+     * Checks that no ingredient has more reserved than there is.
+     */
+    private void check() {
+        for (String ingredient : inventory.getIngredientNames()) {
+            int available = inventory.getAvailable(ingredient);
+            if (available < 0) {
+                report(ingredient + " was oversold by " + -available);
+            }
+        }
+    }
+
+    private HashMap<String, Integer> stock() {
+        HashMap<String, Integer> stock = new HashMap<>();
+        for (String ingredient : inventory.getIngredientNames()) {
+            stock.put(ingredient, inventory.getQuantity(ingredient));
+        }
+        return stock;
+    }
+
+    private static void add(ConcurrentHashMap<String, AtomicInteger> totals, String ingredient, int amount) {
+        totals.computeIfAbsent(ingredient, i -> new AtomicInteger()).addAndGet(amount);
+    }
+
+    private static int amount(ConcurrentHashMap<String, AtomicInteger> totals, String ingredient) {
+        AtomicInteger total = totals.get(ingredient);
+        return total == null ? 0 : total.get();
+    }
+
+    private void report(String found) {
+        problem.compareAndSet(null, found);
+    }
+
+    /**
+     * Runs the check on the data files in the current folder and prints how it went.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int servers = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SERVERS;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SECONDS;
+
+        ReservationCheck check = new ReservationCheck(new Restaurant());
+        String problem = check.run(servers, seconds);
+        System.out.println(servers + " servers cooked " + check.dishesCooked.get() + " dishes and were refused "
+                + check.dishesRefused.get() + " in " + seconds + "s");
+        if (problem != null) {
+            System.out.println("FAILED: " + problem);
+            System.exit(1);
+        }
+        System.out.println("passed");
+    }
+}
@@ -1,11 +1,12 @@
 package restaurant;
 
 import employees.Chef;
-import employees.Employee;
+import employees.EmployeeDirectory;
+import employees.EmployeeRoster;
 import employees.Manager;
 import employees.Server;
+import storage.LogStore;
 
-import java.io.*;
 import java.util.ArrayList;
 
 /**
@@ -14,81 +15,100 @@ import java.util.ArrayList;
  * @author Thomas Leung
  */
 public class Restaurant {
+    public static final String STORE_FILE = "Restaurant.db";
+
     private Inventory inventory;
-    private ArrayList<Employee> employees;
+    private EmployeeDirectory employees;
+    private EmployeeRoster roster;
     private ArrayList<Order> orders;
-    private ArrayList<Order> chefOrders;
+    private KitchenQueue chefOrders;
     private Table[] tables;
     private Menu menu;
+    private PaymentLedger payments;
+    private DishHistory history;
 
     /**
      * The restaurant initializer.
      */
     public Restaurant() {
-        final int SMALLTABLES = 10;
-        final int MEDIUMTABLES = 6;
-        final int LARGETABLES = 4;
+        this(10, 6, 4);
+    }
 
-        inventory = new Inventory();
-        employees = new ArrayList<>();
+    /**
+     * Creates a restaurant with a certain number of tables of each size.
+     *
+     * @param smallTables  The number of tables for 2
+     * @param mediumTables The number of tables for 4
+     * @param largeTables  The number of tables for 8
+     */
+    public Restaurant(int smallTables, int mediumTables, int largeTables) {
+        LogStore store = openStore();
+        inventory = new Inventory(store);
+        employees = new EmployeeDirectory();
+        roster = new EmployeeRoster(store);
         menu = new Menu(inventory);
+        payments = new PaymentLedger();
+        history = new DishHistory();
+        KitchenMetrics.register();
         orders = new ArrayList<>();
-        chefOrders = new ArrayList<>();
+        chefOrders = new KitchenQueue(KitchenQueue.DEFAULT_CAPACITY);
 
-        tables = new Table[20];
+        tables = new Table[smallTables + mediumTables + largeTables];
         //initialize tables;
-        for (int i = 0; i < SMALLTABLES; i++) {
+        for (int i = 0; i < smallTables; i++) {
             tables[i] = new Table(2);
         }
-        for (int i = 0; i < MEDIUMTABLES; i++) {
-            tables[SMALLTABLES + i] = new Table(4);
+        for (int i = 0; i < mediumTables; i++) {
+            tables[smallTables + i] = new Table(4);
         }
-        for (int i = 0; i < LARGETABLES; i++) {
-            tables[SMALLTABLES + MEDIUMTABLES + i] = new Table(8);
+        for (int i = 0; i < largeTables; i++) {
+            tables[smallTables + mediumTables + i] = new Table(8);
         }
 
         hireEmployees();
     }
 
     /**
-     * Used to get information from Employees.txt for existing employees in the system.
+     * Opens the store that the restaurant keeps its ingredients, employees and purchase orders in. The first time,
+     * while the store is still empty, the text files they were kept in before are imported into it. A store imported
+     * by an older version is upgraded.
+     *
+     * @return The store
+     * @throws IllegalStateException if the store could not be read, or the text files could not be imported
+     */
+    public static synchronized LogStore openStore() {
+        LogStore store = LogStore.open(STORE_FILE);
+        if (store.isEmpty() && !DataMigration.importTextFiles(store)) {
+            store.close();
+            throw new IllegalStateException("Could not import the text files into " + STORE_FILE);
+        }
+        if (!DataMigration.upgrade(store)) {
+            store.close();
+            throw new IllegalStateException("Could not upgrade " + STORE_FILE);
+        }
+        return store;
+    }
+
+    /**
+     * Used to get information from the employee roster for existing employees in the system. The ids of fired
+     * employees are given back to the directory so that they are reused by new employees.
      */
     private void hireEmployees(){
-        String employee;
-        //these values will be used to set the static value of the number of each type of employee class to ensure
-        //consistency with employee id numbers.
-        int biggestServerId = 0;
-        int biggestManagerId = 0;
-        int biggestChefId = 0;
-        try{
-            FileReader readFile = new FileReader("Employees.txt");
-            BufferedReader read = new BufferedReader(readFile);
-
-            while((employee = read.readLine()) != null){
-                String[] separate = employee.split("_");
-                if(employee.contains("Chef")){
-                    employees.add(new Chef(Integer.valueOf(separate[1]), chefOrders));
-                    if(Integer.valueOf(separate[1]) > biggestChefId){ biggestChefId = Integer.valueOf(separate[1]);}
-                }
-                else if(employee.contains("Server")){
-                    employees.add(new Server(Integer.valueOf(separate[1])));
-                    if(Integer.valueOf(separate[1]) > biggestServerId){ biggestServerId = Integer.valueOf(separate[1]);}
-                }
-                else if(employee.contains("Manager")){
-                    employees.add(new Manager(inventory, Integer.valueOf(separate[1])));
-                    if(Integer.valueOf(separate[1]) > biggestManagerId){ biggestManagerId = Integer.valueOf(separate[1]);}
-                }
+        for (String employee : roster.getHired()) {
+            String[] separate = employee.split("_");
+            if(employee.contains("Chef")){
+                employees.hire(new Chef(Integer.valueOf(separate[1]), chefOrders));
+            }
+            else if(employee.contains("Server")){
+                employees.hire(new Server(Integer.valueOf(separate[1]), payments, history));
+            }
+            else if(employee.contains("Manager")){
+                employees.hire(new Manager(inventory, Integer.valueOf(separate[1])));
             }
-            read.close();
         }
-        catch(Exception e){
-            System.err.println("Problem working with file");
+        for (String employee : roster.getFired()) {
+            employees.releaseId(employee);
         }
-        //Sets the number of each type of employee class.
-        Chef.setNumOfChefs(biggestChefId);
-        Server.setNumOfServers(biggestServerId);
-        Manager.setNumOfManagers(biggestManagerId);
-
     }
 
     //getter functions used to provide variables to classes.
@@ -96,15 +116,27 @@ public class Restaurant {
         return this.inventory;
     }
 
-    public ArrayList<Employee> getEmployees() {
+    public EmployeeDirectory getEmployees() {
         return this.employees;
     }
 
+    public EmployeeRoster getRoster() {
+        return this.roster;
+    }
+
+    public PaymentLedger getPaymentLedger() {
+        return this.payments;
+    }
+
+    public DishHistory getDishHistory() {
+        return this.history;
+    }
+
     public ArrayList<Order> getOrders() {
         return this.orders;
     }
 
-    public ArrayList<Order> getChefOrders() {
+    public KitchenQueue getChefOrders() {
         return this.chefOrders;
     }
 
@@ -119,15 +151,7 @@ public class Restaurant {
      * @return The server which matches the id
      */
     public Server getServer(int id) {
-        for (Employee employee : employees) {
-            if (employee instanceof Server) {
-                Server server = (Server) (employee);
-                if (server.getJobId() == id) {
-                    return server;
-                }
-            }
-        }
-        return null;
+        return employees.getServer(id);
     }
 
     /**
@@ -0,0 +1,236 @@
+package restaurant;
+
+import dishes.Recipe;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What the tables and the kitchen of a restaurant looked like at one moment. A view cannot be changed, so any number
+ * of threads can read it without locks while the restaurant itself carries on changing.
+ * <p>
+ * A new view is made after each batch of changes to a table. It shares the views of every other table with the view
+ * before it, so only the changed table is copied.
+ */
+public final class RestaurantView {
+    private final long version;
+    private final List<TableView> tables;
+    private final List<KitchenOrderView> kitchen;
+
+    /**
+     * One table and the dishes on its order.
+     */
+    public static final class TableView {
+        private final int tableNumber;
+        private final int size;
+        private final String status;
+        private final int occupants;
+        private final String serverKey;
+        private final List<DishView> dishes;
+
+        /**
+         * Makes a view of a table. This must be called by the thread that changes the table.
+         *
+         * @param table The table
+         */
+        public TableView(Table table) {
+            tableNumber = table.getTableNumber();
+            size = table.getSize();
+            status = table.getStatus();
+            occupants = table.getNumberOfOccupants();
+            serverKey = table.getServer() == null ? null : table.getServer().toString();
+            List<DishView> dishViews = new ArrayList<>();
+            if (table.getOrder() != null) {
+                for (Recipe dish : table.getOrder().getDishes()) {
+                    long version = dish.getVersion();
+                    dishViews.add(new DishView(dish.getName(), dish.getStatus(), version));
+                }
+            }
+            dishes = Collections.unmodifiableList(dishViews);
+        }
+
+        //returns the number of the table.
+        public int getTableNumber() {
+            return tableNumber;
+        }
+
+        //returns the number of seats at the table.
+        public int getSize() {
+            return size;
+        }
+
+        //returns the status of the table, ex. "unoccupied" or "ordered".
+        public String getStatus() {
+            return status;
+        }
+
+        //returns the number of customers at the table.
+        public int getOccupants() {
+            return occupants;
+        }
+
+        //returns the server of the table, ex. "Server_2", or null if nobody is serving it.
+        public String getServerKey() {
+            return serverKey;
+        }
+
+        //returns the dishes on the order of the table, in the order they were added.
+        public List<DishView> getDishes() {
+            return dishes;
+        }
+    }
+
+    /**
+     * One dish on an order, with the version stamp it had when the view was made. The stamp is read before the
+     * status, so a dish that changes in between looks older than it is, never newer.
+     */
+    public static final class DishView {
+        private final String name;
+        private final String status;
+        private final long version;
+
+        /**
+         * Makes a view of a dish.
+         *
+         * @param name    The name of the dish
+         * @param status  The status of the dish
+         * @param version The version stamp of the dish
+         */
+        public DishView(String name, String status, long version) {
+            this.name = name;
+            this.status = status;
+            this.version = version;
+        }
+
+        //returns the name of the dish.
+        public String getName() {
+            return name;
+        }
+
+        //returns the status of the dish, ex. "waiting" or "prepared".
+        public String getStatus() {
+            return status;
+        }
+
+        //returns the version stamp of the dish, which must be sent back to change it.
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    /**
+     * One order in the kitchen, counted by the status of its dishes.
+     */
+    public static final class KitchenOrderView {
+        private final int tableNumber;
+        private final int waiting;
+        private final int acknowledged;
+        private final int prepared;
+
+        private KitchenOrderView(Order order) {
+            tableNumber = order.getTableNumber();
+            waiting = order.getStatusDishes("waiting").size();
+            acknowledged = order.getStatusDishes("acknowledged").size();
+            prepared = order.getStatusDishes("prepared").size();
+        }
+
+        //returns the table the order is for.
+        public int getTableNumber() {
+            return tableNumber;
+        }
+
+        //returns the number of dishes waiting for a chef.
+        public int getWaiting() {
+            return waiting;
+        }
+
+        //returns the number of dishes a chef has acknowledged.
+        public int getAcknowledged() {
+            return acknowledged;
+        }
+
+        //returns the number of dishes waiting at the pass.
+        public int getPrepared() {
+            return prepared;
+        }
+    }
+
+    private RestaurantView(long version, List<TableView> tables, List<KitchenOrderView> kitchen) {
+        this.version = version;
+        this.tables = tables;
+        this.kitchen = kitchen;
+    }
+
+    /**
+     * Makes a view of every table and of the kitchen of a restaurant. This must be called by the thread that
+     * changes the restaurant.
+     *
+     * @param restaurant The restaurant
+     * @param version    The version of the restaurant
+     * @return The view
+     */
+    public static RestaurantView of(Restaurant restaurant, long version) {
+        List<TableView> tables = new ArrayList<>();
+        for (Table table : restaurant.getTables()) {
+            tables.add(new TableView(table));
+        }
+        return new RestaurantView(version, Collections.unmodifiableList(tables), kitchenOf(restaurant));
+    }
+
+    /**
+     * Makes the next view of a restaurant after one of its tables has changed, with the kitchen as it is now. The
+     * views of the other tables are shared with this view.
+     *
+     * @param changed    The new view of the table that changed
+     * @param restaurant The restaurant
+     * @return The new view, one version after this one
+     */
+    public RestaurantView withTable(TableView changed, Restaurant restaurant) {
+        List<TableView> newTables = new ArrayList<>(tables);
+        for (int i = 0; i < newTables.size(); i++) {
+            if (newTables.get(i).getTableNumber() == changed.getTableNumber()) {
+                newTables.set(i, changed);
+            }
+        }
+        return new RestaurantView(version + 1, Collections.unmodifiableList(newTables), kitchenOf(restaurant));
+    }
+
+    private static List<KitchenOrderView> kitchenOf(Restaurant restaurant) {
+        List<KitchenOrderView> kitchen = new ArrayList<>();
+        for (Order order : restaurant.getChefOrders()) {
+            kitchen.add(new KitchenOrderView(order));
+        }
+        return Collections.unmodifiableList(kitchen);
+    }
+
+    //returns the version of the restaurant this view was made from.
+    public long getVersion() {
+        return version;
+    }
+
+    //returns every table, in the order of the restaurant's tables.
+    public List<TableView> getTables() {
+        return tables;
+    }
+
+    /**
+     * Returns the view of one table. Returns null if no such table exists.
+     *
+     * @param tableNumber The number of the table
+     * @return The view of the table
+     */
+    public TableView getTable(int tableNumber) {
+        for (TableView table : tables) {
+            if (table.getTableNumber() == tableNumber) {
+                return table;
+            }
+        }
+        return null;
+    }
+
+    //returns the orders in the kitchen, oldest first.
+    public List<KitchenOrderView> getKitchen() {
+        return kitchen;
+    }
+}
@@ -0,0 +1,79 @@
+package restaurant;
+
+/**
+ * The revenue from a group of payments, ex. every payment of a day or every payment taken by one server, and what
+ * the ingredients of the dishes paid for cost.
+ * Revenue totals cannot be changed; adding a payment returns new totals.
+ */
+public final class RevenueTotals {
+    public static final RevenueTotals NONE = new RevenueTotals(0, Money.ZERO, Money.ZERO, Money.ZERO, Money.ZERO);
+
+    private final int payments;
+    private final Money subtotal;
+    private final Money tax;
+    private final Money gratuity;
+    private final Money foodCost;
+
+    private RevenueTotals(int payments, Money subtotal, Money tax, Money gratuity, Money foodCost) {
+        this.payments = payments;
+        this.subtotal = subtotal;
+        this.tax = tax;
+        this.gratuity = gratuity;
+        this.foodCost = foodCost;
+    }
+
+    /**
+     * Returns these totals with one more payment added
+     *
+     * @param subtotal The subtotal of the payment
+     * @param tax      The tax of the payment
+     * @param gratuity The gratuity of the payment
+     * @param foodCost The cost of the ingredients of the dishes paid for
+     * @return The new totals
+     */
+    public RevenueTotals plus(Money subtotal, Money tax, Money gratuity, Money foodCost) {
+        return new RevenueTotals(payments + 1, this.subtotal.plus(subtotal), this.tax.plus(tax),
+                this.gratuity.plus(gratuity), this.foodCost.plus(foodCost));
+    }
+
+    //returns the number of payments.
+    public int getPayments() {
+        return payments;
+    }
+
+    //returns the subtotal of every payment added together.
+    public Money getSubtotal() {
+        return subtotal;
+    }
+
+    //returns the tax of every payment added together.
+    public Money getTax() {
+        return tax;
+    }
+
+    //returns the gratuity of every payment added together.
+    public Money getGratuity() {
+        return gratuity;
+    }
+
+    //returns the cost of the ingredients of every dish paid for.
+    public Money getFoodCost() {
+        return foodCost;
+    }
+
+    //returns the food cost as a percentage of the subtotal.
+    public double getFoodCostPercent() {
+        return foodCost.percentOf(subtotal);
+    }
+
+    //returns everything that was paid.
+    public Money getTotal() {
+        return subtotal.plus(tax).plus(gratuity);
+    }
+
+    @Override
+    public String toString() {
+        return payments + " payments, subtotal $" + subtotal + ", tax $" + tax + ", gratuity $" + gratuity
+                + ", total $" + getTotal() + ", food cost " + String.format("%.1f%%", getFoodCostPercent());
+    }
+}
@@ -0,0 +1,106 @@
+package restaurant;
+
+import dishes.DishInterpreter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formats receipts as fixed width text, ex. for the bill popup, a text file, or a thermal receipt printer.
+ * Names that do not fit beside their amount are cut short.
+ */
+public class TextBillRenderer {
+    public static final int PLAIN_WIDTH = 40;
+    public static final int THERMAL_WIDTH = 32;
+
+    private int width;
+
+    /**
+     * Creates a renderer for plain text bills
+     */
+    public TextBillRenderer() {
+        this(PLAIN_WIDTH);
+    }
+
+    /**
+     * Creates a renderer for bills of a certain width
+     *
+     * @param width The number of characters in each line of the bill
+     */
+    public TextBillRenderer(int width) {
+        this.width = width;
+    }
+
+    /**
+     * Returns the text of a receipt
+     *
+     * @param receipt The receipt to format
+     * @return The receipt as lines of text joined by newlines
+     */
+    public String render(Receipt receipt) {
+        return String.join("\n", renderLines(receipt));
+    }
+
+    /**
+     * Returns the text of every receipt in a bill summary
+     *
+     * @param summary The bill summary to format
+     * @return The text of each receipt, in order
+     */
+    public String[] render(BillSummary summary) {
+        String[] bills = new String[summary.getReceipts().size()];
+        for (int i = 0; i < bills.length; i++) {
+            bills[i] = render(summary.getReceipts().get(i));
+        }
+        return bills;
+    }
+
+    /**
+     * Returns each line of text of a receipt
+     *
+     * @param receipt The receipt to format
+     * @return The lines of the receipt
+     */
+    public List<String> renderLines(Receipt receipt) {
+        List<String> lines = new ArrayList<>();
+        String divider = DishInterpreter.charExtender("-", width);
+        lines.add(divider);
+        lines.add(formattedLine("NAME", "PRICE"));
+        lines.add(divider);
+        for (BillLine line : receipt.getLines()) {
+            lines.add(formattedLine(line.getName(), line.getPrice().toString()));
+            lines.addAll(line.getDetails());
+        }
+        lines.add(divider);
+        lines.add(formattedLine("Sub Total:", receipt.getSubtotal().toString()));
+        lines.add(formattedLine("Tax:", receipt.getTax().toString()));
+        if (receipt.isGratuityApplied()) {
+            lines.add(formattedLine("Gratuity:", receipt.getGratuity().toString()));
+        }
+        lines.add(formattedLine("TOTAL:", receipt.getTotal().toString()));
+        if (receipt.isSplit()) {
+            lines.add(divider);
+            lines.add("Bill split among " + receipt.getCustomerShares().size() + " people");
+            int customer = 0;
+            for (Money share : receipt.getCustomerShares()) {
+                lines.add(formattedLine("Customer " + ++customer + ":", share.toString()));
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Returns the words on the left and the amount on the right of a single line
+     *
+     * @param words  The words either dealing with money or the dish names
+     * @param amount The amount for the dish, tax, etc.
+     * @return A well formatted line for the bill
+     */
+    private String formattedLine(String words, String amount) {
+        int room = width - amount.length() - 1;
+        if (words.length() > room) {
+            words = words.substring(0, Math.max(0, room));
+        }
+        return words + DishInterpreter.charExtender(" ", width - (words.length() + amount.length())) + amount;
+    }
+}
@@ -0,0 +1,115 @@
+package server;
+
+import dishes.Recipe;
+import restaurant.Bill;
+import restaurant.BillSplitter;
+import restaurant.LatencyHistogram;
+import restaurant.LatencySnapshot;
+import restaurant.Menu;
+import restaurant.Restaurant;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures how long it takes to split the bill of a banquet table, from a few dozen lines to a thousand. Every line
+ * is given to one guest, split evenly between every guest, or shared between a few guests with a weight each, the
+ * way a server would split a large table by hand. Each round gives out the same shares to a new
+ * {@link BillSplitter} and splits it, then works out the whole {@link Bill} from it, and the two are timed apart.
+ * <p>
+ * The first quarter of the rounds warms up the JVM and is not counted. This opens the restaurant for its menu and
+ * inventory, so run it in a copy of the data folder. The number of guests, the number of rounds, and the numbers of
+ * lines can be given as arguments.
+ */
+public class BillSplitBenchmark {
+    private static final int DEFAULT_GUESTS = 30;
+    private static final int DEFAULT_ROUNDS = 400;
+    private static final int[] DEFAULT_LINES = {50, 200, 500, 1000};
+    private static final int MAX_SHARERS = 8; //The most guests sharing one line that is not split evenly
+    private static final int MAX_WEIGHT = 4;
+
+    private List<Recipe> dishes;
+    private int guests;
+    private ArrayList<int[]> shares; //Each share is a line, a guest and a weight, or a line and -1 for everyone
+    private LatencyHistogram splits;
+    private LatencyHistogram bills;
+
+    private BillSplitBenchmark(Menu menu, int guests, int lines, Random random) {
+        this.guests = guests;
+        ArrayList<String> names = new ArrayList<>(menu.getMenuItems().keySet());
+        dishes = new ArrayList<>();
+        while (dishes.size() < lines) {
+            Recipe dish = menu.getDefaultDish(names.get(random.nextInt(names.size())));
+            if (dish != null) {
+                dishes.add(dish);
+            }
+        }
+        shares = new ArrayList<>();
+        for (int line = 0; line < lines; line++) {
+            int kind = random.nextInt(3);
+            if (kind == 0) {
+                shares.add(new int[]{line, random.nextInt(guests), 1});
+            } else if (kind == 1) {
+                shares.add(new int[]{line, -1, 0});
+            } else {
+                for (int i = random.nextInt(MAX_SHARERS) + 1; i > 0; i--) {
+                    shares.add(new int[]{line, random.nextInt(guests), random.nextInt(MAX_WEIGHT) + 1});
+                }
+            }
+        }
+        splits = new LatencyHistogram();
+        bills = new LatencyHistogram();
+    }
+
+    /**
+     * Splits the table over and over and prints how long it took, in microseconds.
+     */
+    private void run(int rounds) {
+        int warmUp = rounds / 4;
+        for (int round = 0; round < warmUp + rounds; round++) {
+            long start = System.nanoTime();
+            BillSplitter splitter = new BillSplitter(dishes, guests);
+            for (int[] share : shares) {
+                if (share[1] < 0) {
+                    splitter.assignToEveryone(share[0]);
+                } else {
+                    splitter.assign(share[0], share[1], share[2]);
+                }
+            }
+            splitter.split();
+            long split = System.nanoTime();
+            new Bill(splitter, guests).getSummary();
+            long billed = System.nanoTime();
+            if (round >= warmUp) {
+                splits.record((split - start) / 1000);
+                bills.record((billed - split) / 1000);
+            }
+        }
+
+        LatencySnapshot split = splits.snapshot("split");
+        LatencySnapshot bill = bills.snapshot("bill");
+        System.out.println(String.format("%4d lines: split p50=%dus p99=%dus, whole bill p50=%dus p99=%dus",
+                dishes.size(), split.getP50(), split.getP99(), bill.getP50(), bill.getP99()));
+    }
+
+    /**
+     * Runs the benchmark on the data files in the current folder.
+     */
+    public static void main(String[] args) {
+        int guests = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GUESTS;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_ROUNDS;
+        int[] lines = DEFAULT_LINES;
+        if (args.length > 2) {
+            lines = new int[args.length - 2];
+            for (int i = 2; i < args.length; i++) {
+                lines[i - 2] = Integer.parseInt(args[i]);
+            }
+        }
+        Menu menu = new Restaurant().getMenu();
+        System.out.println(guests + " guests, " + rounds + " rounds each");
+        for (int size : lines) {
+            new BillSplitBenchmark(menu, guests, size, new Random(size)).run(rounds);
+        }
+    }
+}
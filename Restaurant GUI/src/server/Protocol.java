@@ -0,0 +1,86 @@
+package server;
+
+import java.io.*;
+
+/**
+ * The binary protocol spoken between the restaurant server and its terminals.
+ * <p>
+ * Every request is a frame made of its length in bytes (an int), an operation code (a byte) and the operation's
+ * arguments. Every response is a frame made of its length, a status byte, the version of the restaurant after the
+ * request (a long) and the operation's results, or an error message if the status is {@link #ERROR}. The version
+ * goes up by one every time a batch of changes is made to the restaurant, so a terminal can tell whether what it has
+ * cached is still current. Numbers are written big-endian and strings as modified UTF-8, as by {@link DataOutputStream}.
+ */
+public final class Protocol {
+    static final int MAX_FRAME = 1 << 20; //Frames longer than this are refused
+
+    //Operations that read the restaurant
+    public static final byte PING = 0;
+    public static final byte GET_MENU = 1; //-> int n, n * (String name, long price in cents, boolean available)
+    public static final byte GET_INVENTORY = 2; //-> int n, n * (String ingredient, int quantity, int available)
+    public static final byte GET_TABLES = 3; //-> int n, n * (int table, int size, String status, int occupants)
+    public static final byte GET_ORDER = 4; //int table -> int n, n * (String dish, String status, long version)
+    public static final byte GET_KITCHEN = 5; //-> int n, n * (int table, int waiting, int acknowledged, int prepared)
+
+    //Operations that change the restaurant
+    public static final byte OPEN_TABLE = 10; //int table, int server id, int customers
+    public static final byte ADD_DISH = 11; //int table, String dish -> int position of the dish on the order
+    public static final byte CANCEL_DISH = 12; //int table, int position, long version of the dish
+    public static final byte CONFIRM_ORDER = 13; //int table -> int dishes sent to the kitchen
+    public static final byte DELIVER_DISH = 14; //int table, int position, long version of the dish
+    public static final byte CLOSE_TABLE = 15; //int table
+    public static final byte ACKNOWLEDGE_ORDER = 16; //int table, int chef id -> int dishes acknowledged
+    public static final byte PREPARE_DISH = 17; //int table, int position, long version of the dish, int chef id
+
+    //Response statuses
+    public static final byte OK = 0;
+    public static final byte ERROR = 1;
+
+    private Protocol() {
+    }
+
+    /**
+     * Returns whether an operation changes the restaurant
+     *
+     * @param operation The operation code
+     * @return true if the operation changes the restaurant
+     */
+    static boolean isWrite(byte operation) {
+        return operation >= OPEN_TABLE;
+    }
+
+    /**
+     * Writes a frame and sends it straight away.
+     *
+     * @param out   The stream to write to
+     * @param frame The contents of the frame
+     * @throws IOException if the frame could not be written
+     */
+    static void writeFrame(DataOutputStream out, byte[] frame) throws IOException {
+        out.writeInt(frame.length);
+        out.write(frame);
+        out.flush();
+    }
+
+    /**
+     * Reads a whole frame.
+     *
+     * @param in The stream to read from
+     * @return The contents of the frame, or null if the other side closed the connection between frames
+     * @throws IOException if the frame was cut off or too long
+     */
+    static byte[] readFrame(DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (length < 1 || length > MAX_FRAME) {
+            throw new IOException("Frame of " + length + " bytes");
+        }
+        byte[] frame = new byte[length];
+        in.readFully(frame);
+        return frame;
+    }
+}
@@ -0,0 +1,372 @@
+package server;
+
+import restaurant.Money;
+import restaurant.RestaurantView;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.TreeSet;
+
+/**
+ * A terminal's connection to a {@link RestaurantServer}. Requests are sent one at a time, and a request that the
+ * server refuses throws an IllegalStateException with the server's reason.
+ * <p>
+ * The menu, inventory and tables are cached. Every response says which version of the restaurant it came from, so
+ * a cached answer is used again only while the restaurant has not changed since, as far as this terminal has seen,
+ * and only for a short while, so changes made from other terminals show up soon. Changes made from this terminal
+ * always show up straight away.
+ */
+public class RestaurantClient implements Closeable {
+    private static final long DEFAULT_STALENESS = 1000;
+
+    private Socket socket;
+    private DataInputStream in;
+    private DataOutputStream out;
+    private long maxStaleMillis;
+    private long version; //The latest version of the restaurant that this terminal has seen
+    private HashMap<String, CachedRead> cache; //Maps reads to their last answer
+
+    /**
+     * The answer to a read and when it was made.
+     */
+    private static class CachedRead {
+        private Object answer;
+        private long version;
+        private long readAt;
+    }
+
+    /**
+     * Writes the arguments of a request.
+     */
+    private interface Arguments {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Reads the results of a response.
+     */
+    private interface Results<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    /**
+     * Connects to a restaurant server on this computer on the default port.
+     *
+     * @throws IOException if the server could not be reached
+     */
+    public RestaurantClient() throws IOException {
+        this(RestaurantServer.DEFAULT_PORT, DEFAULT_STALENESS);
+    }
+
+    /**
+     * Connects to a restaurant server on this computer.
+     *
+     * @param port           The port of the server
+     * @param maxStaleMillis How long a cached answer is used for at most, in milliseconds
+     * @throws IOException if the server could not be reached
+     */
+    public RestaurantClient(int port, long maxStaleMillis) throws IOException {
+        socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        socket.setTcpNoDelay(true);
+        in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        this.maxStaleMillis = maxStaleMillis;
+        cache = new HashMap<>();
+    }
+
+    //returns the latest version of the restaurant that this terminal has seen.
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Checks that the server is answering, and finds out the latest version of the restaurant.
+     *
+     * @throws IOException if the server could not be reached
+     */
+    public void ping() throws IOException {
+        request(Protocol.PING, null, in -> null);
+    }
+
+    /**
+     * Returns every item on the menu and its price
+     *
+     * @return A map from menu item names to their prices, in the order of the menu
+     * @throws IOException if the server could not be reached
+     */
+    public LinkedHashMap<String, Money> getMenu() throws IOException {
+        return readMenu().prices;
+    }
+
+    /**
+     * Returns the menu items that have been 86'd because they cannot be made with the stock left
+     *
+     * @return The names of the unavailable menu items, sorted
+     * @throws IOException if the server could not be reached
+     */
+    public TreeSet<String> getUnavailable() throws IOException {
+        return readMenu().unavailable;
+    }
+
+    /**
+     * Returns the stock of every ingredient
+     *
+     * @return A map from ingredients to their quantity and the amount not reserved, in that order
+     * @throws IOException if the server could not be reached
+     */
+    public LinkedHashMap<String, int[]> getInventory() throws IOException {
+        return cachedRead("inventory", Protocol.GET_INVENTORY, null, in -> {
+            LinkedHashMap<String, int[]> ingredients = new LinkedHashMap<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                ingredients.put(in.readUTF(), new int[]{in.readInt(), in.readInt()});
+            }
+            return ingredients;
+        });
+    }
+
+    /**
+     * Returns the status of every table
+     *
+     * @return A map from table numbers to their status, ex. "unoccupied" or "ordered"
+     * @throws IOException if the server could not be reached
+     */
+    public LinkedHashMap<Integer, String> getTables() throws IOException {
+        return cachedRead("tables", Protocol.GET_TABLES, null, in -> {
+            LinkedHashMap<Integer, String> tables = new LinkedHashMap<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                int tableNumber = in.readInt();
+                in.readInt();
+                tables.put(tableNumber, in.readUTF());
+                in.readInt();
+            }
+            return tables;
+        });
+    }
+
+    /**
+     * Returns the dishes on the order of a table. Orders change too often to be cached.
+     *
+     * @param tableNumber The table
+     * @return The name, status and version stamp of each dish, in the order they were added
+     * @throws IOException if the server could not be reached
+     */
+    public ArrayList<RestaurantView.DishView> getOrder(int tableNumber) throws IOException {
+        return request(Protocol.GET_ORDER, out -> out.writeInt(tableNumber), in -> {
+            ArrayList<RestaurantView.DishView> dishes = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                dishes.add(new RestaurantView.DishView(in.readUTF(), in.readUTF(), in.readLong()));
+            }
+            return dishes;
+        });
+    }
+
+    /**
+     * Returns the orders in the kitchen. Orders change too often to be cached.
+     *
+     * @return For each order, its table number and its number of waiting, acknowledged and prepared dishes
+     * @throws IOException if the server could not be reached
+     */
+    public ArrayList<int[]> getKitchen() throws IOException {
+        return request(Protocol.GET_KITCHEN, null, in -> {
+            ArrayList<int[]> orders = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                orders.add(new int[]{in.readInt(), in.readInt(), in.readInt(), in.readInt()});
+            }
+            return orders;
+        });
+    }
+
+    /**
+     * Seats customers at a table and gives it to a server.
+     *
+     * @param tableNumber The table
+     * @param serverId    The number of the server, ex. 2 for Server_2
+     * @param customers   The number of customers
+     * @throws IOException if the server could not be reached
+     */
+    public void openTable(int tableNumber, int serverId, int customers) throws IOException {
+        request(Protocol.OPEN_TABLE, out -> {
+            out.writeInt(tableNumber);
+            out.writeInt(serverId);
+            out.writeInt(customers);
+        }, in -> null);
+    }
+
+    /**
+     * Adds a menu item onto the order of a table.
+     *
+     * @param tableNumber The table
+     * @param dishName    The name of the menu item
+     * @return The position of the dish on the order
+     * @throws IOException if the server could not be reached
+     */
+    public int addDish(int tableNumber, String dishName) throws IOException {
+        return request(Protocol.ADD_DISH, out -> {
+            out.writeInt(tableNumber);
+            out.writeUTF(dishName);
+        }, DataInputStream::readInt);
+    }
+
+    /**
+     * Takes a dish off the order of a table. The server refuses if the dish has changed since it was read.
+     *
+     * @param tableNumber The table
+     * @param position    The position of the dish on the order
+     * @param version     The version stamp of the dish when it was read
+     * @throws IOException if the server could not be reached
+     */
+    public void cancelDish(int tableNumber, int position, long version) throws IOException {
+        request(Protocol.CANCEL_DISH, out -> {
+            out.writeInt(tableNumber);
+            out.writeInt(position);
+            out.writeLong(version);
+        }, in -> null);
+    }
+
+    /**
+     * Sends the new dishes of a table to the kitchen.
+     *
+     * @param tableNumber The table
+     * @return The number of dishes sent, leaving out any that could not be made
+     * @throws IOException if the server could not be reached
+     */
+    public int confirmOrder(int tableNumber) throws IOException {
+        return request(Protocol.CONFIRM_ORDER, out -> out.writeInt(tableNumber), DataInputStream::readInt);
+    }
+
+    /**
+     * Marks a prepared dish as delivered to its table. The server refuses if the dish has changed since it was read.
+     *
+     * @param tableNumber The table
+     * @param position    The position of the dish on the order
+     * @param version     The version stamp of the dish when it was read
+     * @throws IOException if the server could not be reached
+     */
+    public void deliverDish(int tableNumber, int position, long version) throws IOException {
+        request(Protocol.DELIVER_DISH, out -> {
+            out.writeInt(tableNumber);
+            out.writeInt(position);
+            out.writeLong(version);
+        }, in -> null);
+    }
+
+    /**
+     * Has a chef acknowledge the oldest order of a table that is waiting in the kitchen.
+     *
+     * @param tableNumber The table
+     * @param chefId      The number of the chef, ex. 1 for Chef_1
+     * @return The number of dishes the chef acknowledged
+     * @throws IOException if the server could not be reached
+     */
+    public int acknowledgeOrder(int tableNumber, int chefId) throws IOException {
+        return request(Protocol.ACKNOWLEDGE_ORDER, out -> {
+            out.writeInt(tableNumber);
+            out.writeInt(chefId);
+        }, DataInputStream::readInt);
+    }
+
+    /**
+     * Has a chef cook an acknowledged dish of a table, so that it can be delivered. The server refuses if the dish
+     * has changed since it was read, or if it is cancelled because its ingredients ran out.
+     *
+     * @param tableNumber The table
+     * @param position    The position of the dish on the order
+     * @param version     The version stamp of the dish when it was read
+     * @param chefId      The number of the chef, ex. 1 for Chef_1
+     * @throws IOException if the server could not be reached
+     */
+    public void prepareDish(int tableNumber, int position, long version, int chefId) throws IOException {
+        request(Protocol.PREPARE_DISH, out -> {
+            out.writeInt(tableNumber);
+            out.writeInt(position);
+            out.writeLong(version);
+            out.writeInt(chefId);
+        }, in -> null);
+    }
+
+    /**
+     * Clears a table once its customers have left.
+     *
+     * @param tableNumber The table
+     * @throws IOException if the server could not be reached
+     */
+    public void closeTable(int tableNumber) throws IOException {
+        request(Protocol.CLOSE_TABLE, out -> out.writeInt(tableNumber), in -> null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    /**
+     * The menu prices and unavailable items, which come from the same read.
+     */
+    private static class MenuRead {
+        private LinkedHashMap<String, Money> prices = new LinkedHashMap<>();
+        private TreeSet<String> unavailable = new TreeSet<>();
+    }
+
+    private MenuRead readMenu() throws IOException {
+        return cachedRead("menu", Protocol.GET_MENU, null, in -> {
+            MenuRead menu = new MenuRead();
+            for (int i = in.readInt(); i > 0; i--) {
+                String name = in.readUTF();
+                menu.prices.put(name, Money.ofCents(in.readLong()));
+                if (!in.readBoolean()) {
+                    menu.unavailable.add(name);
+                }
+            }
+            return menu;
+        });
+    }
+
+    /**
+     * Returns the cached answer to a read if the restaurant has not changed since and it is recent enough,
+     * otherwise asks the server again.
+     */
+    @SuppressWarnings("unchecked")
+    private synchronized <T> T cachedRead(String key, byte operation, Arguments arguments, Results<T> results)
+            throws IOException {
+        CachedRead cached = cache.get(key);
+        long now = System.currentTimeMillis();
+        if (cached != null && cached.version == version && now - cached.readAt <= maxStaleMillis) {
+            return (T) cached.answer;
+        }
+        T answer = request(operation, arguments, results);
+        cached = new CachedRead();
+        cached.answer = answer;
+        cached.version = version;
+        cached.readAt = now;
+        cache.put(key, cached);
+        return answer;
+    }
+
+    /**
+     * Sends a request and waits for its response.
+     */
+    private synchronized <T> T request(byte operation, Arguments arguments, Results<T> results) throws IOException {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream(32);
+        DataOutputStream frameOut = new DataOutputStream(frame);
+        frameOut.writeByte(operation);
+        if (arguments != null) {
+            arguments.write(frameOut);
+        }
+        Protocol.writeFrame(out, frame.toByteArray());
+        byte[] response = Protocol.readFrame(in);
+        if (response == null) {
+            throw new EOFException("The restaurant server closed the connection");
+        }
+        DataInputStream responseIn = new DataInputStream(new ByteArrayInputStream(response));
+        byte status = responseIn.readByte();
+        version = responseIn.readLong();
+        if (status != Protocol.OK) {
+            throw new IllegalStateException(responseIn.readUTF());
+        }
+        return results.read(responseIn);
+    }
+}
@@ -0,0 +1,121 @@
+package server;
+
+import restaurant.Restaurant;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A restaurant without a screen, shared by every terminal over TCP. It owns the one copy of the inventory, menu,
+ * tables, orders and employees, so every terminal sees the same restaurant instead of each one reading and writing
+ * the same text files on its own. Each terminal connection is served by its own thread, and the requests are carried
+ * out by a {@link RestaurantService}.
+ */
+public class RestaurantServer implements Closeable {
+    public static final int DEFAULT_PORT = 5555;
+
+    private ServerSocket serverSocket;
+    private RestaurantService service;
+    private ExecutorService connections;
+    private Set<Socket> terminals; //The sockets of the terminals that are connected
+
+    /**
+     * Starts serving a restaurant on a port of this computer. Only terminals on this computer can connect.
+     *
+     * @param restaurant The restaurant to serve
+     * @param port       The port to listen on, or 0 for any free port
+     * @throws IOException if the port could not be opened
+     */
+    public RestaurantServer(Restaurant restaurant, int port) throws IOException {
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        service = new RestaurantService(restaurant);
+        connections = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "restaurant-terminal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        terminals = ConcurrentHashMap.newKeySet();
+        //Keeps the program running until the server is closed
+        new Thread(this::accept, "restaurant-server").start();
+    }
+
+    //returns the port that terminals connect to.
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts terminals until the server is closed.
+     */
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket terminal = serverSocket.accept();
+                terminal.setTcpNoDelay(true);
+                terminals.add(terminal);
+                connections.execute(() -> serve(terminal));
+            } catch (SocketException e) {
+                //The server was closed
+            } catch (IOException e) {
+                System.err.println("Problem accepting a terminal: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Answers the requests of one terminal until it disconnects.
+     */
+    private void serve(Socket terminal) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(terminal.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(terminal.getOutputStream()))) {
+            byte[] request;
+            while ((request = Protocol.readFrame(in)) != null) {
+                Protocol.writeFrame(out, service.handle(request));
+            }
+        } catch (IOException e) {
+            if (!serverSocket.isClosed()) {
+                System.err.println("Dropped terminal " + terminal.getRemoteSocketAddress() + ": " + e.getMessage());
+            }
+        } finally {
+            terminals.remove(terminal);
+            try {
+                terminal.close();
+            } catch (IOException e) {
+                //Already closed
+            }
+        }
+    }
+
+    /**
+     * Stops accepting terminals and disconnects the ones that are connected.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket terminal : terminals) {
+            terminal.close();
+        }
+        connections.shutdown();
+        service.shutdown();
+    }
+
+    /**
+     * Starts a restaurant server with the data files in the current folder, reloading the menu whenever menu.txt
+     * is saved and writing off stock as it expires. The port can be given as an argument.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Restaurant restaurant = new Restaurant();
+        restaurant.getMenu().watchFile();
+        restaurant.getInventory().sweepExpired(restaurant.getChefOrders());
+        RestaurantServer server = new RestaurantServer(restaurant, port);
+        System.out.println("Restaurant server listening on port " + server.getPort());
+    }
+}
@@ -0,0 +1,544 @@
+package server;
+
+import dishes.Recipe;
+import employees.Chef;
+import employees.Server;
+import restaurant.Inventory;
+import restaurant.Menu;
+import restaurant.Money;
+import restaurant.Order;
+import restaurant.Restaurant;
+import restaurant.RestaurantView;
+import restaurant.Table;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Carries out the requests of every terminal on the one restaurant that they share.
+ * <p>
+ * Every table is an actor: the requests that change a table are queued in the table's own mailbox, and carried out one
+ * at a time by whichever worker thread picks the table up. Requests for different tables run at the same time on
+ * different cores, while requests for the same table never overlap, so nothing about a table needs locking. Each time
+ * a table has carried out the requests that queued up for it, it publishes a new {@link RestaurantView} before
+ * answering them, so a terminal always sees its own changes. Requests that only look at the tables and kitchen are
+ * answered from the latest view without waiting on any table; the menu and inventory are safe to read directly.
+ * <p>
+ * What the kitchen does to a table's dishes goes through the table too, so acknowledging an order or preparing a
+ * dish never overlaps with a server changing the same order.
+ */
+public class RestaurantService {
+    private static final int MAX_BATCH = 64; //The most requests a table carries out before letting other tables run
+    private static final long RESPONSE_SECONDS = 30; //How long a terminal waits on a table before giving up
+
+    private Restaurant restaurant;
+    private ExecutorService workers;
+    private Map<Integer, TableActor> actors; //Maps table numbers to their actors
+    private AtomicReference<RestaurantView> view; //The latest view, its version goes up by one after every batch
+    private volatile boolean stopped; //Whether the service has shut down, after which no request is carried out
+
+    /**
+     * A request that changes a table, and its response once the table has carried it out.
+     */
+    private static class Command {
+        private byte[] request;
+        private byte status = Protocol.OK;
+        private ByteArrayOutputStream results = new ByteArrayOutputStream();
+        private String error;
+        private CompletableFuture<byte[]> response = new CompletableFuture<>();
+
+        private Command(byte[] request) {
+            this.request = request;
+        }
+    }
+
+    /**
+     * A table and the requests waiting to change it.
+     */
+    private class TableActor implements Runnable {
+        private Table table;
+        private ConcurrentLinkedQueue<Command> mailbox = new ConcurrentLinkedQueue<>();
+        private AtomicBoolean scheduled = new AtomicBoolean(); //Whether a worker has been asked to run this table
+
+        private TableActor(Table table) {
+            this.table = table;
+        }
+
+        /**
+         * Queues a request, and asks a worker to run the table unless one already has been.
+         */
+        private void send(Command command) {
+            mailbox.add(command);
+            schedule();
+        }
+
+        /**
+         * Asks a worker to run the table if it has requests waiting and no worker has been asked yet. Once the
+         * service has shut down, the waiting requests are refused instead.
+         */
+        private void schedule() {
+            if (stopped) {
+                refuseWaiting();
+                return;
+            }
+            if (!mailbox.isEmpty() && scheduled.compareAndSet(false, true)) {
+                try {
+                    workers.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    refuseWaiting();
+                }
+            }
+        }
+
+        /**
+         * Answers every request waiting in the mailbox with an error, because the service has shut down.
+         */
+        private void refuseWaiting() {
+            Command command;
+            while ((command = mailbox.poll()) != null) {
+                command.response.completeExceptionally(new IllegalStateException("The restaurant has shut down"));
+            }
+        }
+
+        /**
+         * Carries out the requests in the mailbox as one batch. Every request taken from the mailbox is answered,
+         * with an error if something went wrong before it could be, so no terminal is left waiting.
+         */
+        @Override
+        public void run() {
+            List<Command> batch = new ArrayList<>();
+            try {
+                Command command;
+                while (!stopped && batch.size() < MAX_BATCH && (command = mailbox.poll()) != null) {
+                    batch.add(command);
+                    runCommand(table, command);
+                }
+                RestaurantView.TableView tableView = new RestaurantView.TableView(table);
+                RestaurantView published = view.updateAndGet(current -> current.withTable(tableView, restaurant));
+                for (Command done : batch) {
+                    done.response.complete(respond(done.status, published.getVersion(), done.results, done.error));
+                }
+            } finally {
+                for (Command done : batch) {
+                    //Does nothing to the requests that were already answered
+                    done.response.completeExceptionally(new IllegalStateException("Table " + table.getTableNumber()
+                            + " failed while carrying out the request"));
+                }
+                scheduled.set(false);
+                //Requests that came in after the mailbox was emptied, or that did not fit in the batch
+                schedule();
+            }
+        }
+    }
+
+    /**
+     * Creates a service for a restaurant and starts its workers. Nothing else should change the restaurant after
+     * this.
+     *
+     * @param restaurant The restaurant shared by every terminal
+     */
+    public RestaurantService(Restaurant restaurant) {
+        this.restaurant = restaurant;
+        //Twice the cores, because a request may wait on the disk while it writes to the log
+        workers = Executors.newFixedThreadPool(2 * Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "restaurant-table");
+            thread.setDaemon(true);
+            return thread;
+        });
+        actors = new HashMap<>();
+        for (Table table : restaurant.getTables()) {
+            actors.put(table.getTableNumber(), new TableActor(table));
+        }
+        view = new AtomicReference<>(RestaurantView.of(restaurant, 0));
+    }
+
+    //returns the latest view of the tables and the kitchen.
+    public RestaurantView getView() {
+        return view.get();
+    }
+
+    /**
+     * Carries out one request and returns the response to send back. A request that is refused, ex. adding a dish
+     * that has run out, gets an error response with the reason.
+     *
+     * @param request The request frame
+     * @return The response frame
+     */
+    public byte[] handle(byte[] request) {
+        if (!Protocol.isWrite(request[0])) {
+            return read(request);
+        }
+        if (request.length < 5) {
+            return respond(Protocol.ERROR, view.get().getVersion(), null, "Malformed request");
+        }
+        int tableNumber = ((request[1] & 0xff) << 24) | ((request[2] & 0xff) << 16) | ((request[3] & 0xff) << 8)
+                | (request[4] & 0xff);
+        TableActor actor = actors.get(tableNumber);
+        if (actor == null) {
+            return respond(Protocol.ERROR, view.get().getVersion(), null, "There is no table " + tableNumber);
+        }
+        Command command = new Command(request);
+        actor.send(command);
+        try {
+            return command.response.get(RESPONSE_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return respond(Protocol.ERROR, view.get().getVersion(), null, "Interrupted");
+        } catch (ExecutionException e) {
+            return respond(Protocol.ERROR, view.get().getVersion(), null, e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            return respond(Protocol.ERROR, view.get().getVersion(), null, "Table " + tableNumber
+                    + " did not answer in time, so the request may or may not have been carried out");
+        }
+    }
+
+    /**
+     * Stops the workers. Requests that are still queued are not carried out, and are answered with an error
+     * instead. A batch that is being carried out is finished first.
+     */
+    public void shutdown() {
+        stopped = true;
+        workers.shutdown();
+        for (TableActor actor : actors.values()) {
+            actor.refuseWaiting();
+        }
+    }
+
+    /**
+     * Answers a request that only reads the restaurant, from the latest view.
+     */
+    private byte[] read(byte[] request) {
+        RestaurantView snapshot = view.get();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(request));
+        ByteArrayOutputStream results = new ByteArrayOutputStream();
+        try {
+            in.readByte();
+            runRead(request[0], snapshot, in, new DataOutputStream(results));
+        } catch (IOException e) {
+            return respond(Protocol.ERROR, snapshot.getVersion(), null, "Malformed request");
+        } catch (Exception e) {
+            return respond(Protocol.ERROR, snapshot.getVersion(), null, messageOf(e));
+        }
+        return respond(Protocol.OK, snapshot.getVersion(), results, null);
+    }
+
+    /**
+     * Carries out a request that changes a table, keeping its results or the reason it was refused.
+     */
+    private void runCommand(Table table, Command command) {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(command.request));
+        try {
+            in.readByte();
+            in.readInt();
+            runWrite(command.request[0], table, in, new DataOutputStream(command.results));
+        } catch (IOException e) {
+            command.status = Protocol.ERROR;
+            command.error = "Malformed request";
+        } catch (Exception e) {
+            command.status = Protocol.ERROR;
+            command.error = messageOf(e);
+        }
+    }
+
+    /**
+     * Makes a response frame.
+     */
+    private byte[] respond(byte status, long version, ByteArrayOutputStream results, String error) {
+        ByteArrayOutputStream response = new ByteArrayOutputStream((results == null ? 0 : results.size()) + 16);
+        try (DataOutputStream out = new DataOutputStream(response)) {
+            out.writeByte(status);
+            out.writeLong(version);
+            if (status == Protocol.OK) {
+                results.writeTo(out);
+            } else {
+                out.writeUTF(error);
+            }
+        } catch (IOException e) {
+            //Writing into memory does not fail
+        }
+        return response.toByteArray();
+    }
+
+    private String messageOf(Exception e) {
+        return e.getMessage() == null ? e.toString() : e.getMessage();
+    }
+
+    /**
+     * Carries out an operation that reads the restaurant, reading its arguments and writing its results.
+     */
+    private void runRead(byte operation, RestaurantView snapshot, DataInputStream in, DataOutputStream out)
+            throws Exception {
+        switch (operation) {
+            case Protocol.PING:
+                break;
+            case Protocol.GET_MENU:
+                writeMenu(out);
+                break;
+            case Protocol.GET_INVENTORY:
+                writeInventory(out);
+                break;
+            case Protocol.GET_TABLES:
+                writeTables(snapshot, out);
+                break;
+            case Protocol.GET_ORDER:
+                writeOrder(snapshot, in.readInt(), out);
+                break;
+            case Protocol.GET_KITCHEN:
+                writeKitchen(snapshot, out);
+                break;
+            default:
+                throw new Exception("Unknown operation " + operation);
+        }
+    }
+
+    /**
+     * Carries out an operation that changes a table, reading the rest of its arguments and writing its results.
+     */
+    private void runWrite(byte operation, Table table, DataInputStream in, DataOutputStream out)
+            throws Exception {
+        switch (operation) {
+            case Protocol.OPEN_TABLE:
+                openTable(table, in.readInt(), in.readInt());
+                break;
+            case Protocol.ADD_DISH:
+                out.writeInt(addDish(table, in.readUTF()));
+                break;
+            case Protocol.CANCEL_DISH: {
+                Recipe dish = getDish(table, in.readInt());
+                if (dish.getStatus().equals("delivered")) {
+                    throw new Exception(dish.getName() + " has already been delivered");
+                }
+                String conflict = table.getServer().removeFromOrder(table.getOrder(), dish, in.readLong());
+                if (conflict != null) {
+                    throw new Exception(conflict);
+                }
+                break;
+            }
+            case Protocol.CONFIRM_ORDER:
+                out.writeInt(confirmOrder(table));
+                break;
+            case Protocol.DELIVER_DISH: {
+                Recipe dish = getDish(table, in.readInt());
+                if (!dish.getStatus().equals("prepared")) {
+                    throw new Exception(dish.getName() + " is " + dish.getStatus() + ", not prepared");
+                }
+                String conflict = table.getServer().foodDelivered(table.getOrder(), dish, in.readLong());
+                if (conflict != null) {
+                    throw new Exception(conflict);
+                }
+                break;
+            }
+            case Protocol.CLOSE_TABLE:
+                closeTable(table);
+                break;
+            case Protocol.ACKNOWLEDGE_ORDER:
+                out.writeInt(acknowledgeOrder(table, in.readInt()));
+                break;
+            case Protocol.PREPARE_DISH: {
+                Recipe dish = getDish(table, in.readInt());
+                if (!dish.getStatus().equals("acknowledged")) {
+                    throw new Exception(dish.getName() + " is " + dish.getStatus() + ", not acknowledged");
+                }
+                long version = in.readLong();
+                String conflict = getChef(in.readInt()).foodCooked(getKitchenOrder(table, dish), dish, version);
+                if (conflict != null) {
+                    throw new Exception(conflict);
+                }
+                break;
+            }
+            default:
+                throw new Exception("Unknown operation " + operation);
+        }
+    }
+
+    private void writeMenu(DataOutputStream out) throws IOException {
+        Menu menu = restaurant.getMenu();
+        Map<String, Money> menuItems = menu.getMenuItems();
+        out.writeInt(menuItems.size());
+        for (Map.Entry<String, Money> menuItem : menuItems.entrySet()) {
+            out.writeUTF(menuItem.getKey());
+            out.writeLong(menuItem.getValue().getCents());
+            out.writeBoolean(menu.isAvailable(menuItem.getKey()));
+        }
+    }
+
+    private void writeInventory(DataOutputStream out) throws IOException {
+        Inventory inventory = restaurant.getInventory();
+        ArrayList<String> ingredients = inventory.getIngredientNames();
+        out.writeInt(ingredients.size());
+        for (String ingredient : ingredients) {
+            out.writeUTF(ingredient);
+            out.writeInt(inventory.getQuantity(ingredient));
+            out.writeInt(inventory.getAvailable(ingredient));
+        }
+    }
+
+    private void writeTables(RestaurantView snapshot, DataOutputStream out) throws IOException {
+        List<RestaurantView.TableView> tables = snapshot.getTables();
+        out.writeInt(tables.size());
+        for (RestaurantView.TableView table : tables) {
+            out.writeInt(table.getTableNumber());
+            out.writeInt(table.getSize());
+            out.writeUTF(table.getStatus());
+            out.writeInt(table.getOccupants());
+        }
+    }
+
+    private void writeOrder(RestaurantView snapshot, int tableNumber, DataOutputStream out) throws Exception {
+        RestaurantView.TableView table = snapshot.getTable(tableNumber);
+        if (table == null) {
+            throw new Exception("There is no table " + tableNumber);
+        }
+        out.writeInt(table.getDishes().size());
+        for (RestaurantView.DishView dish : table.getDishes()) {
+            out.writeUTF(dish.getName());
+            out.writeUTF(dish.getStatus());
+            out.writeLong(dish.getVersion());
+        }
+    }
+
+    private void writeKitchen(RestaurantView snapshot, DataOutputStream out) throws IOException {
+        out.writeInt(snapshot.getKitchen().size());
+        for (RestaurantView.KitchenOrderView order : snapshot.getKitchen()) {
+            out.writeInt(order.getTableNumber());
+            out.writeInt(order.getWaiting());
+            out.writeInt(order.getAcknowledged());
+            out.writeInt(order.getPrepared());
+        }
+    }
+
+    /**
+     * Seats customers at a table and gives it to a server, the same way as the table screen does.
+     */
+    private void openTable(Table table, int serverId, int customers) throws Exception {
+        Server server = restaurant.getServer(serverId);
+        if (server == null) {
+            throw new Exception("There is no server " + serverId);
+        }
+        String problem = server.openTable(table, restaurant.getMenu(), customers);
+        if (problem != null) {
+            throw new Exception(problem);
+        }
+    }
+
+    /**
+     * Adds a menu item onto the order of a table.
+     *
+     * @return The position of the new dish on the order
+     */
+    private int addDish(Table table, String dishName) throws Exception {
+        Order order = getOrder(table);
+        Menu menu = restaurant.getMenu();
+        if (!menu.getMenuItems().containsKey(dishName)) {
+            throw new Exception("There is no " + dishName + " on the menu");
+        }
+        if (!menu.isAvailable(dishName)) {
+            throw new Exception(dishName + " has been 86'd");
+        }
+        Recipe dish = table.getServer().addToOrder(order, dishName);
+        if (dish == null) {
+            throw new Exception(dishName + " was just taken off the menu");
+        }
+        return order.getDishes().indexOf(dish);
+    }
+
+    /**
+     * Sends the dishes of a table that have not been confirmed to the kitchen, the same way as the table order
+     * screen does. A dish whose ingredients have been promised to other orders is cancelled. If the kitchen is full,
+     * nothing changes. A dish that someone else changes at the same time is left as they set it.
+     *
+     * @return The number of dishes sent to the kitchen
+     */
+    private int confirmOrder(Table table) throws Exception {
+        getOrder(table);
+        ArrayList<String> conflicts = new ArrayList<>();
+        Order orderToChef = table.getServer().confirmOrder(table, restaurant.getMenu(), restaurant.getChefOrders(),
+                new ArrayList<>(), conflicts);
+        if (orderToChef == null) {
+            throw new Exception("The kitchen is full");
+        }
+        if (orderToChef.getDishes().isEmpty() && !conflicts.isEmpty()) {
+            throw new Exception(conflicts.get(0));
+        }
+        return orderToChef.getDishes().size();
+    }
+
+    /**
+     * Clears a table once its customers have left, the same way as the table order screen does.
+     */
+    private void closeTable(Table table) throws Exception {
+        getOrder(table);
+        String conflict = table.getServer().closeTable(table);
+        if (conflict != null) {
+            throw new Exception(conflict);
+        }
+    }
+
+    /**
+     * Has a chef acknowledge the oldest order of a table that is waiting in the kitchen, the same way as the order
+     * screen does. A chef cannot skip ahead of an older order from another table that has not been acknowledged.
+     *
+     * @return The number of dishes the chef acknowledged
+     */
+    private int acknowledgeOrder(Table table, int chefId) throws Exception {
+        Chef chef = getChef(chefId);
+        for (Order kitchenOrder : restaurant.getChefOrders()) {
+            if (kitchenOrder.getTableNumber() == table.getTableNumber() && !kitchenOrder.getAcknowledge()) {
+                if (!chef.acknowledgeOrder(kitchenOrder)) {
+                    throw new Exception("An earlier order needs to be acknowledged first");
+                }
+                return kitchenOrder.getStatusDishes("acknowledged").size();
+            }
+        }
+        throw new Exception("Table " + table.getTableNumber() + " has no order waiting in the kitchen");
+    }
+
+    /**
+     * Returns the order in the kitchen that a dish of a table was sent in
+     */
+    private Order getKitchenOrder(Table table, Recipe dish) throws Exception {
+        for (Order kitchenOrder : restaurant.getChefOrders()) {
+            if (kitchenOrder.getTableNumber() == table.getTableNumber() && kitchenOrder.getDishes().contains(dish)) {
+                return kitchenOrder;
+            }
+        }
+        throw new Exception(dish.getName() + " is not in the kitchen");
+    }
+
+    private Chef getChef(int chefId) throws Exception {
+        Chef chef = restaurant.getEmployees().getChef(chefId);
+        if (chef == null) {
+            throw new Exception("There is no chef " + chefId);
+        }
+        return chef;
+    }
+
+    private Order getOrder(Table table) throws Exception {
+        if (table.getOrder() == null) {
+            throw new Exception("Table " + table.getTableNumber() + " is not open");
+        }
+        return table.getOrder();
+    }
+
+    private Recipe getDish(Table table, int position) throws Exception {
+        ArrayList<Recipe> dishes = getOrder(table).getDishes();
+        if (position < 0 || position >= dishes.size()) {
+            throw new Exception("Table " + table.getTableNumber() + " has no dish " + position);
+        }
+        return dishes.get(position);
+    }
+}
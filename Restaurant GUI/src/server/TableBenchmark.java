@@ -0,0 +1,165 @@
+package server;
+
+import employees.Server;
+import restaurant.LatencyHistogram;
+import restaurant.LatencySnapshot;
+import restaurant.Restaurant;
+import restaurant.Table;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how the table actors of a {@link RestaurantService} keep up as the restaurant grows, from 20 tables to
+ * 5,000. For each size, a number of workers keep seating a random table, adding two dishes, sending them to the
+ * kitchen and clearing the table, calling the service directly so that only the service itself is measured. With
+ * more tables the workers run into each other less, so the requests per second show how well unrelated tables run
+ * at the same time.
+ * <p>
+ * This writes to the log like a real service would, so run it in a copy of the data folder. The number of workers,
+ * the seconds to run each size for, and the sizes can be given as arguments.
+ */
+public class TableBenchmark {
+    private static final int DEFAULT_WORKERS = 64;
+    private static final int DEFAULT_SECONDS = 5;
+    private static final int[] DEFAULT_SIZES = {20, 100, 1000, 5000};
+    private static final int TABLES_PER_SERVER = 5;
+
+    private RestaurantService service;
+    private int[] tableNumbers;
+    private int[] serverIds;
+    private List<String> dishes;
+    private LatencyHistogram latencies;
+    private AtomicLong refused;
+    private volatile boolean running;
+
+    private TableBenchmark(Restaurant restaurant) {
+        Table[] tables = restaurant.getTables();
+        tableNumbers = new int[tables.length];
+        for (int i = 0; i < tables.length; i++) {
+            tableNumbers[i] = tables[i].getTableNumber();
+        }
+        serverIds = new int[Math.max(1, tables.length / TABLES_PER_SERVER)];
+        for (int i = 0; i < serverIds.length; i++) {
+            Server server = new Server(restaurant.getEmployees().allocateId("Server"), restaurant.getPaymentLedger(),
+                    restaurant.getDishHistory());
+            restaurant.getEmployees().hire(server);
+            serverIds[i] = server.getJobId();
+        }
+        dishes = new ArrayList<>();
+        for (String dish : restaurant.getMenu().getMenuItems().keySet()) {
+            if (restaurant.getMenu().isAvailable(dish)) {
+                dishes.add(dish);
+            }
+        }
+        service = new RestaurantService(restaurant);
+        latencies = new LatencyHistogram();
+        refused = new AtomicLong();
+    }
+
+    /**
+     * Runs the workers for a while and prints how the tables did.
+     */
+    private void run(int workers, int seconds) throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(workers);
+        running = true;
+        long start = System.nanoTime();
+        for (int i = 0; i < workers; i++) {
+            long seed = i;
+            new Thread(() -> {
+                try {
+                    work(new Random(seed));
+                } catch (IOException e) {
+                    System.err.println("Problem writing a request: " + e.getMessage());
+                } finally {
+                    finished.countDown();
+                }
+            }, "worker-" + i).start();
+        }
+        Thread.sleep(seconds * 1000L);
+        running = false;
+        finished.await();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        service.shutdown();
+
+        LatencySnapshot snapshot = latencies.snapshot("requests");
+        System.out.println(String.format("%5d tables: %7d requests per second, p50=%dus p99=%dus, %d refused",
+                tableNumbers.length, Math.round(snapshot.getCount() / elapsed), snapshot.getP50(),
+                snapshot.getP99(), refused.get()));
+    }
+
+    /**
+     * Keeps serving random tables until the run stops.
+     */
+    private void work(Random random) throws IOException {
+        while (running) {
+            int i = random.nextInt(tableNumbers.length);
+            int table = tableNumbers[i];
+            if (!send(request(Protocol.OPEN_TABLE, table, serverIds[i % serverIds.length], 2))) {
+                continue;
+            }
+            send(request(Protocol.ADD_DISH, table, dishes.get(random.nextInt(dishes.size()))));
+            send(request(Protocol.ADD_DISH, table, dishes.get(random.nextInt(dishes.size()))));
+            send(request(Protocol.CONFIRM_ORDER, table));
+            send(request(Protocol.CLOSE_TABLE, table));
+        }
+    }
+
+    /**
+     * Sends a request to the service and records how long it took, in microseconds.
+     *
+     * @return false if the service refused it
+     */
+    private boolean send(byte[] request) {
+        long start = System.nanoTime();
+        byte[] response = service.handle(request);
+        latencies.record((System.nanoTime() - start) / 1000);
+        if (response[0] != Protocol.OK) {
+            refused.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Makes a request frame out of an operation and its arguments, which are ints or strings.
+     */
+    private static byte[] request(byte operation, Object... arguments) throws IOException {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream(32);
+        DataOutputStream out = new DataOutputStream(frame);
+        out.writeByte(operation);
+        for (Object argument : arguments) {
+            if (argument instanceof Integer) {
+                out.writeInt((Integer) argument);
+            } else {
+                out.writeUTF((String) argument);
+            }
+        }
+        return frame.toByteArray();
+    }
+
+    /**
+     * Runs the benchmark on the data files in the current folder.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int workers = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_WORKERS;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SECONDS;
+        int[] sizes = DEFAULT_SIZES;
+        if (args.length > 2) {
+            sizes = new int[args.length - 2];
+            for (int i = 2; i < args.length; i++) {
+                sizes[i - 2] = Integer.parseInt(args[i]);
+            }
+        }
+        System.out.println(workers + " workers on " + Runtime.getRuntime().availableProcessors() + " cores");
+        for (int size : sizes) {
+            new TableBenchmark(new Restaurant(size, 0, 0)).run(workers, seconds);
+        }
+    }
+}
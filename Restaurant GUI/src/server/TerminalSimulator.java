@@ -0,0 +1,216 @@
+package server;
+
+import employees.Chef;
+import employees.Server;
+import restaurant.LatencyHistogram;
+import restaurant.LatencySnapshot;
+import restaurant.Restaurant;
+import restaurant.RestaurantView;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Starts a restaurant server and has many terminals use it at once, to see how many requests it keeps up with and
+ * how long terminals wait on each other. Each terminal keeps seating a random table, adding a few dishes, sending
+ * them to the kitchen, looking at the menu, tables and inventory, having a chef acknowledge and cook the order,
+ * delivering what was cooked, and clearing the table again.
+ * <p>
+ * This writes to the log, inventory and dish history like a real service would, so run it in a copy of the data
+ * folder. The number of terminals and seconds to run for can be given as arguments.
+ */
+public class TerminalSimulator {
+    private static final int DEFAULT_TERMINALS = 32;
+    private static final int DEFAULT_SECONDS = 10;
+
+    private RestaurantServer server;
+    private int serverId;
+    private int chefId;
+    private LatencyHistogram reads;
+    private LatencyHistogram writes;
+    private AtomicLong refused; //Requests the restaurant said no to, ex. seating a table another terminal took
+    private volatile boolean running;
+
+    private TerminalSimulator(RestaurantServer server, int serverId, int chefId) {
+        this.server = server;
+        this.serverId = serverId;
+        this.chefId = chefId;
+        reads = new LatencyHistogram();
+        writes = new LatencyHistogram();
+        refused = new AtomicLong();
+    }
+
+    /**
+     * Runs the terminals for a while and prints how the server did.
+     */
+    private void run(int terminals, int seconds) throws InterruptedException {
+        CountDownLatch finished = new CountDownLatch(terminals);
+        running = true;
+        long start = System.nanoTime();
+        for (int i = 0; i < terminals; i++) {
+            long seed = i;
+            new Thread(() -> {
+                try {
+                    terminal(new Random(seed));
+                } finally {
+                    finished.countDown();
+                }
+            }, "terminal-" + i).start();
+        }
+        Thread.sleep(seconds * 1000L);
+        running = false;
+        finished.await();
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        long requests = reads.snapshot("reads").getCount() + writes.snapshot("writes").getCount();
+        System.out.println(terminals + " terminals, " + requests + " requests in "
+                + String.format("%.1f", elapsed) + "s (" + Math.round(requests / elapsed) + " per second), "
+                + refused.get() + " refused");
+        print(reads.snapshot("reads"));
+        print(writes.snapshot("writes"));
+    }
+
+    private void print(LatencySnapshot latencies) {
+        System.out.println(latencies.getName() + ": count=" + latencies.getCount() + " p50=" + latencies.getP50()
+                + "us p90=" + latencies.getP90() + "us p99=" + latencies.getP99() + "us max=" + latencies.getMax()
+                + "us");
+    }
+
+    /**
+     * Uses the restaurant from one terminal until the simulation stops.
+     */
+    private void terminal(Random random) {
+        try (RestaurantClient client = new RestaurantClient(server.getPort(), 1000)) {
+            while (running) {
+                int table = 1 + random.nextInt(20);
+                if (!write(() -> {
+                    client.openTable(table, serverId, 1);
+                    return null;
+                })) {
+                    continue;
+                }
+                ArrayList<String> dishes = new ArrayList<>(time(reads, client::getMenu).keySet());
+                dishes.removeAll(time(reads, client::getUnavailable));
+                for (int i = 0; i < 3 && !dishes.isEmpty(); i++) {
+                    String dish = dishes.get(random.nextInt(dishes.size()));
+                    write(() -> client.addDish(table, dish));
+                }
+                ArrayList<RestaurantView.DishView> added = time(reads, () -> client.getOrder(table));
+                if (!added.isEmpty()) {
+                    long firstDish = added.get(0).getVersion();
+                    write(() -> {
+                        client.cancelDish(table, 0, firstDish);
+                        return null;
+                    });
+                }
+                write(() -> client.confirmOrder(table));
+                time(reads, client::getTables);
+                time(reads, client::getInventory);
+                if (write(() -> client.acknowledgeOrder(table, chefId))) {
+                    cook(client, table);
+                }
+                write(() -> {
+                    client.closeTable(table);
+                    return null;
+                });
+            }
+        } catch (IOException e) {
+            System.err.println("Terminal lost its connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Has the chef cook every acknowledged dish of a table, then delivers every dish that was cooked. A dish that
+     * runs out while it is cooked is taken off the order, so the dishes are gone through from last to first to keep
+     * the positions of the rest the same.
+     */
+    private void cook(RestaurantClient client, int table) throws IOException {
+        for (String status : new String[]{"acknowledged", "prepared"}) {
+            ArrayList<RestaurantView.DishView> dishes = time(reads, () -> client.getOrder(table));
+            for (int position = dishes.size() - 1; position >= 0; position--) {
+                if (!dishes.get(position).getStatus().equals(status)) {
+                    continue;
+                }
+                int dish = position;
+                long version = dishes.get(position).getVersion();
+                write(() -> {
+                    if (status.equals("acknowledged")) {
+                        client.prepareDish(table, dish, version, chefId);
+                    } else {
+                        client.deliverDish(table, dish, version);
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    /**
+     * A request made by a terminal.
+     */
+    private interface Request<T> {
+        T send() throws IOException;
+    }
+
+    /**
+     * Sends a request and records how long it took, in microseconds.
+     */
+    private <T> T time(LatencyHistogram histogram, Request<T> request) throws IOException {
+        long start = System.nanoTime();
+        try {
+            return request.send();
+        } finally {
+            histogram.record((System.nanoTime() - start) / 1000);
+        }
+    }
+
+    /**
+     * Times a request that changes the restaurant.
+     *
+     * @return false if the restaurant refused it
+     */
+    private boolean write(Request<?> request) throws IOException {
+        try {
+            time(writes, request);
+            return true;
+        } catch (IllegalStateException e) {
+            refused.incrementAndGet();
+            return false;
+        }
+    }
+
+    /**
+     * Runs the simulation on the data files in the current folder.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int terminals = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TERMINALS;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SECONDS;
+
+        Restaurant restaurant = new Restaurant();
+        Server waiter = null;
+        for (int id = 1; id <= restaurant.getEmployees().size() && waiter == null; id++) {
+            waiter = restaurant.getServer(id);
+        }
+        if (waiter == null) {
+            waiter = new Server(restaurant.getEmployees().allocateId("Server"), restaurant.getPaymentLedger(),
+                    restaurant.getDishHistory());
+            restaurant.getEmployees().hire(waiter);
+        }
+
+        Chef cook = null;
+        for (int id = 1; id <= restaurant.getEmployees().size() && cook == null; id++) {
+            cook = restaurant.getEmployees().getChef(id);
+        }
+        if (cook == null) {
+            cook = new Chef(restaurant.getEmployees().allocateId("Chef"), restaurant.getChefOrders());
+            restaurant.getEmployees().hire(cook);
+        }
+
+        try (RestaurantServer server = new RestaurantServer(restaurant, 0)) {
+            new TerminalSimulator(server, waiter.getJobId(), cook.getJobId()).run(terminals, seconds);
+        }
+    }
+}
@@ -0,0 +1,549 @@
+package storage;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.CRC32;
+
+/**
+ * A small key-value store kept in one text file, shared by everything in the restaurant that needs to remember its
+ * state between runs. Every change is made in a transaction, and a transaction is written to the end of the file as
+ * its changes followed by a commit line, ex.
+ * <pre>
+ * put stock/Bacon = 77 | 30 | 0.45;
+ * delete purchase/3;
+ * commit 2 5d41402a;
+ * </pre>
+ * where the commit line has the number of changes and a checksum of their lines. When the store is opened, a
+ * transaction only counts if its commit line is there and matches, so a transaction cut off by a crash is left out
+ * entirely instead of being half applied.
+ * <p>
+ * Committing a transaction queues it to be written. One writer thread writes everything that has been queued and
+ * forces it to disk once, so transactions committed at the same time from different threads share a single sync
+ * instead of waiting for one each. The changes of a transaction are only seen by get and scan once they are on disk,
+ * so the store never shows anything a crash could take back. Whoever needs to know that a transaction is on disk
+ * waits for it; everyone else carries on. Whoever commits while holding a lock of their own should wait once they
+ * have let go of it, so that nobody else waits on the disk behind them. When most of the file is changes that have
+ * since been overwritten, the writer writes the current state into a new file and renames it over the old one.
+ * <p>
+ * If a write fails, the file may end partway through a transaction, and anything written after that would be left
+ * out when the store is next opened. So once a write fails, the store stops: that transaction and every one
+ * committed after it fail, and the store keeps the state that is on disk.
+ * <p>
+ * While a store is open, it holds a lock on a file next to its own, ex. "Restaurant.db.lock", so that a second copy
+ * of the program cannot open the same file and write over it. The lock is not on the store's own file, since that
+ * file is replaced whenever it is compacted.
+ */
+public final class LogStore implements Closeable {
+    private static final HashMap<String, LogStore> openStores = new HashMap<>(); //Maps file paths to their store
+    private static boolean closedAtExit; //Whether open stores are closed when the program ends
+    private static final int COMPACT_SLACK = 64; //Overwritten changes allowed in the file beyond twice the keys
+
+    private final File file;
+    private final LinkedHashMap<String, String> data;
+    private ArrayList<Transaction> queue; //Transactions committed but not written yet, oldest first
+    private FileOutputStream out;
+    private FileChannel lockChannel; //The lock file, held open for as long as the store is
+    private int records; //The number of changes in the file, including ones that have been overwritten
+    private boolean closed;
+    private boolean failed; //Whether a write has failed, after which nothing more is written
+    private Thread writer;
+
+    /**
+     * A set of changes to the store that are made all together or not at all.
+     */
+    public static final class Transaction {
+        private final LogStore store;
+        private final LinkedHashMap<String, String> changes; //Maps keys to their new value, or null to delete them
+        private final CompletableFuture<Void> written;
+        private boolean committed;
+
+        private Transaction(LogStore store) {
+            this.store = store;
+            changes = new LinkedHashMap<>();
+            written = new CompletableFuture<>();
+        }
+
+        /**
+         * Sets the value of a key.
+         *
+         * @param key   The key, ex. "stock/Bacon". It must not contain " = " or a line break.
+         * @param value The value
+         * @return This transaction
+         */
+        public Transaction put(String key, String value) {
+            checkKey(key);
+            if (value == null) {
+                throw new IllegalArgumentException("The value of " + key + " is missing");
+            }
+            changes.put(key, value);
+            return this;
+        }
+
+        /**
+         * Removes a key.
+         *
+         * @param key The key
+         * @return This transaction
+         */
+        public Transaction delete(String key) {
+            checkKey(key);
+            changes.put(key, null);
+            return this;
+        }
+
+        //returns whether the transaction has no changes.
+        public boolean isEmpty() {
+            return changes.isEmpty();
+        }
+
+        /**
+         * Queues the changes to be written, without waiting for them to reach the disk. Transactions are written in
+         * the order they are committed.
+         *
+         * @return Completes once the changes are on disk and in the store, or with the reason they could not be
+         * written
+         */
+        public CompletableFuture<Void> commit() {
+            return store.commit(this);
+        }
+
+        /**
+         * Queues the changes to be written and waits until they are on disk.
+         *
+         * @return false if they could not be written
+         */
+        public boolean commitAndWait() {
+            return waitFor(commit());
+        }
+
+        private void checkKey(String key) {
+            if (committed) {
+                throw new IllegalStateException("The transaction has already been committed");
+            }
+            if (key.isEmpty() || key.contains(" = ") || key.contains("\n") || key.contains("\r")) {
+                throw new IllegalArgumentException("Not a key: " + key);
+            }
+        }
+    }
+
+    /**
+     * Waits for a committed transaction to reach the disk.
+     *
+     * @param written What commit returned for the transaction
+     * @return false if it could not be written
+     */
+    public static boolean waitFor(CompletableFuture<Void> written) {
+        try {
+            written.join();
+            return true;
+        } catch (CompletionException e) {
+            return false;
+        }
+    }
+
+    private LogStore(File file) {
+        this.file = file;
+        data = new LinkedHashMap<>();
+        queue = new ArrayList<>();
+        lock();
+        try {
+            if (file.exists() && !replay()) {
+                if (!writeSnapshot(new LinkedHashMap<>(data))) {
+                    throw new IllegalStateException("Could not repair " + file.getName());
+                }
+            }
+            out = new FileOutputStream(file, true);
+        } catch (IOException e) {
+            unlock();
+            throw new IllegalStateException("Could not open " + file.getName(), e);
+        } catch (RuntimeException e) {
+            unlock();
+            throw e;
+        }
+        writer = new Thread(this::writeLoop, "storage-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Opens the store kept in a certain file, creating it if there is no such file. Opening the same file more
+     * than once gives the same store, so it is never written by two stores at once. Stores still open when the
+     * program ends are closed, so everything committed is written first.
+     *
+     * @param fileName The name of the file, ex. "Restaurant.db"
+     * @return The store
+     * @throws IllegalStateException if another program has the store open, or it could not be read
+     */
+    public static LogStore open(String fileName) {
+        File file = new File(fileName).getAbsoluteFile();
+        synchronized (openStores) {
+            if (!closedAtExit) {
+                Runtime.getRuntime().addShutdownHook(new Thread(LogStore::closeAll, "storage-shutdown"));
+                closedAtExit = true;
+            }
+            LogStore store = openStores.get(file.getPath());
+            if (store == null) {
+                store = new LogStore(file);
+                openStores.put(file.getPath(), store);
+            }
+            return store;
+        }
+    }
+
+    /**
+     * Locks the lock file next to the store's file, so that no other program can open the store until it is closed.
+     *
+     * @throws IllegalStateException if another program has the store open, or the lock file could not be opened
+     */
+    private void lock() {
+        File lockFile = new File(file.getPath() + ".lock");
+        try {
+            lockChannel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (lockChannel.tryLock() != null) {
+                return;
+            }
+        } catch (OverlappingFileLockException e) {
+            //Locked by another store in this program, which open should have prevented
+        } catch (IOException e) {
+            unlock();
+            throw new IllegalStateException("Could not lock " + lockFile.getName(), e);
+        }
+        unlock();
+        throw new IllegalStateException(file.getName() + " is already open in another program");
+    }
+
+    /**
+     * Lets go of the lock file, which also releases its lock.
+     */
+    private void unlock() {
+        if (lockChannel == null) {
+            return;
+        }
+        try {
+            lockChannel.close();
+        } catch (IOException e) {
+            System.err.println("Problem unlocking " + file.getName());
+        }
+        lockChannel = null;
+    }
+
+    private static void closeAll() {
+        ArrayList<LogStore> stores;
+        synchronized (openStores) {
+            stores = new ArrayList<>(openStores.values());
+        }
+        for (LogStore store : stores) {
+            store.close();
+        }
+    }
+
+    /**
+     * Starts a transaction. Nothing changes until it is committed.
+     *
+     * @return The transaction
+     */
+    public Transaction begin() {
+        return new Transaction(this);
+    }
+
+    /**
+     * Returns the value of a key. Changes are seen once their transaction is on disk.
+     *
+     * @param key The key
+     * @return The value, or null if there is no such key
+     */
+    public synchronized String get(String key) {
+        return data.get(key);
+    }
+
+    /**
+     * Returns every key that starts with a certain prefix, with its value.
+     *
+     * @param prefix The prefix, ex. "stock/"
+     * @return A map from the keys, without the prefix, to their values, in the order the keys were first added
+     */
+    public synchronized LinkedHashMap<String, String> scan(String prefix) {
+        LinkedHashMap<String, String> found = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : data.entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                found.put(entry.getKey().substring(prefix.length()), entry.getValue());
+            }
+        }
+        return found;
+    }
+
+    //returns whether the store has no keys at all.
+    public synchronized boolean isEmpty() {
+        return data.isEmpty();
+    }
+
+    /**
+     * Queues a transaction for the writer.
+     */
+    private synchronized CompletableFuture<Void> commit(Transaction transaction) {
+        if (transaction.committed) {
+            throw new IllegalStateException("The transaction has already been committed");
+        }
+        if (closed) {
+            throw new IllegalStateException(file.getName() + " has been closed");
+        }
+        transaction.committed = true;
+        if (failed) {
+            transaction.written.completeExceptionally(new IOException(file.getName() + " has stopped taking changes"
+                    + " after a failed write"));
+        } else if (transaction.changes.isEmpty()) {
+            transaction.written.complete(null);
+        } else {
+            queue.add(transaction);
+            notifyAll();
+        }
+        return transaction.written;
+    }
+
+    private static void apply(Map<String, String> state, Map<String, String> changes) {
+        for (Map.Entry<String, String> change : changes.entrySet()) {
+            if (change.getValue() == null) {
+                state.remove(change.getKey());
+            } else {
+                state.put(change.getKey(), change.getValue());
+            }
+        }
+    }
+
+    /**
+     * Writes whatever has been queued, one batch at a time, until the store is closed and the queue is empty.
+     */
+    private void writeLoop() {
+        while (true) {
+            ArrayList<Transaction> batch;
+            LinkedHashMap<String, String> snapshot = null;
+            synchronized (this) {
+                while (queue.isEmpty() && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (queue.isEmpty()) {
+                    return;
+                }
+                batch = queue;
+                queue = new ArrayList<>();
+                if (!failed && records > 2 * data.size() + COMPACT_SLACK) {
+                    //The snapshot has every change in the batch, so it replaces writing them
+                    snapshot = new LinkedHashMap<>(data);
+                    for (Transaction transaction : batch) {
+                        apply(snapshot, transaction.changes);
+                    }
+                }
+            }
+            boolean written = !failed && (snapshot == null ? append(batch) : writeSnapshot(snapshot));
+            synchronized (this) {
+                if (written) {
+                    for (Transaction transaction : batch) {
+                        apply(data, transaction.changes);
+                    }
+                } else if (!failed) {
+                    failed = true;
+                    System.err.println(file.getName() + " could not be written, so it will not take any more changes");
+                }
+            }
+            for (Transaction transaction : batch) {
+                if (written) {
+                    transaction.written.complete(null);
+                } else {
+                    transaction.written.completeExceptionally(new IOException("Could not write to "
+                            + file.getName()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends a batch of transactions onto the end of the file and forces them to disk with a single sync.
+     *
+     * @return false if they could not be written
+     */
+    private boolean append(ArrayList<Transaction> batch) {
+        StringBuilder lines = new StringBuilder(128 * batch.size());
+        int changes = 0;
+        for (Transaction transaction : batch) {
+            writeTransaction(lines, transaction.changes);
+            changes += transaction.changes.size();
+        }
+        try {
+            out.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+            out.getFD().sync();
+            records += changes;
+            return true;
+        } catch (IOException e) {
+            System.err.println("Problem writing to " + file.getName());
+            return false;
+        }
+    }
+
+    /**
+     * Writes a whole state of the store into a new file as a single transaction, and renames it over the file.
+     *
+     * @return false if the file could not be replaced
+     */
+    private boolean writeSnapshot(LinkedHashMap<String, String> snapshot) {
+        File replacement = new File(file.getPath() + ".tmp");
+        StringBuilder lines = new StringBuilder(64 * snapshot.size() + 32);
+        if (!snapshot.isEmpty()) {
+            writeTransaction(lines, snapshot);
+        }
+        try (FileOutputStream replacementOut = new FileOutputStream(replacement)) {
+            replacementOut.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+            replacementOut.getFD().sync();
+        } catch (IOException e) {
+            System.err.println("Problem writing to " + replacement.getName());
+            return false;
+        }
+        try {
+            if (out != null) {
+                out.close();
+            }
+            Files.move(replacement.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            records = snapshot.size();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Could not replace " + file.getName());
+            return false;
+        } finally {
+            try {
+                if (out != null) {
+                    out = new FileOutputStream(file, true);
+                }
+            } catch (IOException e) {
+                System.err.println("Could not open " + file.getName());
+            }
+        }
+    }
+
+    /**
+     * Adds the lines of one transaction, with its commit line, onto some text.
+     */
+    private static void writeTransaction(StringBuilder lines, Map<String, String> changes) {
+        CRC32 checksum = new CRC32();
+        for (Map.Entry<String, String> change : changes.entrySet()) {
+            String line = change.getValue() == null ? "delete " + change.getKey() + ";\n"
+                    : "put " + change.getKey() + " = " + escape(change.getValue()) + ";\n";
+            checksum.update(line.getBytes(StandardCharsets.UTF_8));
+            lines.append(line);
+        }
+        lines.append("commit ").append(changes.size()).append(' ')
+                .append(Long.toHexString(checksum.getValue())).append(";\n");
+    }
+
+    /**
+     * Reads the file from the start, applying every transaction whose commit line is there and matches. Reading
+     * stops at the first transaction that does not, since nothing after it can be trusted.
+     *
+     * @return false if the file ended with something other than a whole transaction and needs to be rewritten
+     * @throws IllegalStateException if the file could not be read
+     */
+    private boolean replay() {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file),
+                StandardCharsets.UTF_8))) {
+            LinkedHashMap<String, String> pending = new LinkedHashMap<>();
+            int pendingRecords = 0;
+            CRC32 checksum = new CRC32();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("commit ") && line.endsWith(";")) {
+                    String[] commit = line.substring(7, line.length() - 1).split(" ");
+                    if (commit.length != 2 || !commit[0].equals(Integer.toString(pendingRecords))
+                            || !commit[1].equals(Long.toHexString(checksum.getValue()))) {
+                        System.err.println("Skipped a damaged transaction in " + file.getName());
+                        return false;
+                    }
+                    apply(data, pending);
+                    records += pendingRecords;
+                    pending.clear();
+                    pendingRecords = 0;
+                    checksum.reset();
+                } else if (line.startsWith("put ") && line.endsWith(";") && line.contains(" = ")) {
+                    int split = line.indexOf(" = ");
+                    pending.put(line.substring(4, split), unescape(line.substring(split + 3, line.length() - 1)));
+                    pendingRecords++;
+                    checksum.update((line + "\n").getBytes(StandardCharsets.UTF_8));
+                } else if (line.startsWith("delete ") && line.endsWith(";")) {
+                    pending.put(line.substring(7, line.length() - 1), null);
+                    pendingRecords++;
+                    checksum.update((line + "\n").getBytes(StandardCharsets.UTF_8));
+                } else {
+                    System.err.println("Skipped unfinished record in " + file.getName() + ": " + line);
+                    return false;
+                }
+            }
+            if (pendingRecords > 0) {
+                System.err.println("Skipped an unfinished transaction in " + file.getName());
+                return false;
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read " + file.getName(), e);
+        }
+        return true;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String value) {
+        StringBuilder unescaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                unescaped.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
+    }
+
+    /**
+     * Writes everything committed so far and closes the file. Nothing can be committed afterwards.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            System.err.println("Problem closing " + file.getName());
+        }
+        unlock();
+        synchronized (openStores) {
+            openStores.remove(file.getPath());
+        }
+    }
+}